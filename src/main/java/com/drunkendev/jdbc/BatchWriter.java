@@ -0,0 +1,292 @@
+/*
+ * BatchWriter.java    Oct 16 2026, 20:40
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.jdbc;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+
+/**
+ * Asynchronous writer that groups many small writes into a single transaction.
+ *
+ * Statements submitted to the writer are queued and written by a single thread.
+ * Once the first statement of a group is taken from the queue the writer keeps
+ * collecting statements until either the maximum batch size is reached or the
+ * maximum delay has passed. The group is then written within one transaction
+ * of the holder, with consecutive statements sharing the same SQL sent as one
+ * JDBC batch, and committed once.
+ *
+ * With a maximum delay of zero only statements already queued are grouped,
+ * batches then grow naturally with load while a lone write is not delayed.
+ *
+ * If a group fails each of its statements is retried within a transaction of
+ * its own so that one bad statement only fails its own future. This applies
+ * to any {@link Throwable}, including errors, and the writer carries on. If
+ * the writer thread stops unexpectedly all outstanding statements fail and
+ * further submissions are rejected.
+ *
+ * The writer must be closed to flush outstanding writes and stop its thread.
+ *
+ * <h2>Example</h2>
+ *
+ * <pre>
+ * {@code
+ *  try (BatchWriter writer = holder.createBatchWriter(500, Duration.ofMillis(5))) {
+ *      writer.submit("insert into audit (id, msg) values (?, ?)", id, msg)
+ *              .thenAccept(n -> LOG.debug("Audit written"));
+ *  }
+ * }
+ * </pre>
+ *
+ * @author  Brett Ryan
+ * @since   1.6
+ * @see     JdbcHolder#createBatchWriter(int, Duration)
+ */
+public final class BatchWriter implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BatchWriter.class);
+    private static final Write SHUTDOWN = new Write(null, null);
+
+    private final JdbcHolder holder;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final BlockingQueue<Write> queue;
+    private final ReadWriteLock lock;
+    private final Thread thread;
+    private boolean closed;
+
+    /**
+     * Creates a new {@code BatchWriter} instance and starts its thread.
+     *
+     * @param   holder
+     *          Holder whose default transaction definition is used to write
+     *          each group.
+     * @param   maxBatchSize
+     *          Maximum number of statements written in one transaction.
+     * @param   maxDelay
+     *          Maximum time to wait for further statements after the first of a
+     *          group is taken.
+     * @throws  IllegalArgumentException
+     *          if {@code maxBatchSize} is less than 1 or {@code maxDelay} is
+     *          negative.
+     */
+    BatchWriter(JdbcHolder holder, int maxBatchSize, Duration maxDelay) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1.");
+        }
+        if (maxDelay.isNegative()) {
+            throw new IllegalArgumentException("Delay must not be negative.");
+        }
+        this.holder = holder;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.queue = new LinkedBlockingQueue<>();
+        this.lock = new ReentrantReadWriteLock();
+        this.thread = new Thread(this::run, "JdbcHolder-batch-writer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Queue a parameterised statement to be written.
+     *
+     * @param   sql
+     *          SQL statement to execute.
+     * @param   args
+     *          Arguments to bind to the statement.
+     * @return  Future completed with the number of rows affected once the
+     *          statement has been committed, or exceptionally if it failed.
+     *          The count may be {@link java.sql.Statement#SUCCESS_NO_INFO} when
+     *          the driver does not report counts for batches.
+     * @throws  IllegalStateException
+     *          if the writer has been closed or has stopped.
+     */
+    public CompletableFuture<Integer> submit(String sql, Object... args) {
+        Write w = new Write(sql, args);
+        lock.readLock().lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Writer is closed.");
+            }
+            queue.add(w);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return w.future;
+    }
+
+    /**
+     * Number of statements waiting to be written.
+     *
+     * @return  Queued statement count.
+     */
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    /**
+     * Stop accepting statements and wait for all queued statements to be
+     * written.
+     */
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            queue.add(SHUTDOWN);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            thread.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        List<Write> batch = new ArrayList<>(maxBatchSize);
+        try {
+            boolean running = true;
+            while (running) {
+                Write w = queue.take();
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (w != SHUTDOWN) {
+                    batch.add(w);
+                    if (batch.size() >= maxBatchSize) {
+                        break;
+                    }
+                    long wait = deadline - System.nanoTime();
+                    w = wait > 0 ? queue.poll(wait, NANOSECONDS) : queue.poll();
+                    if (w == null) {
+                        break;
+                    }
+                }
+                running = w != SHUTDOWN;
+                if (!batch.isEmpty()) {
+                    write(batch);
+                    batch.clear();
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            fail(batch, new IllegalStateException("Writer was interrupted."));
+        } catch (Throwable ex) {
+            LOG.error("Batch writer failed.", ex);
+            fail(batch, new IllegalStateException("Writer failed.", ex));
+        }
+    }
+
+    /**
+     * Stop accepting statements and complete all outstanding statements
+     * exceptionally after the writer thread has stopped unexpectedly.
+     */
+    private void fail(List<Write> batch, IllegalStateException ex) {
+        lock.writeLock().lock();
+        try {
+            closed = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        batch.forEach(w -> w.future.completeExceptionally(ex));
+        for (Write w = queue.poll(); w != null; w = queue.poll()) {
+            if (w != SHUTDOWN) {
+                w.future.completeExceptionally(ex);
+            }
+        }
+    }
+
+    private void write(List<Write> batch) {
+        int[] counts;
+        try {
+            counts = holder.execute((jt, ts) -> update(jt, batch));
+        } catch (Throwable ex) {
+            if (batch.size() == 1) {
+                batch.get(0).future.completeExceptionally(ex);
+                return;
+            }
+            LOG.debug("Group of {} writes failed, retrying individually: {}", batch.size(), ex.getMessage());
+            for (Write w : batch) {
+                try {
+                    w.future.complete(holder.execute((jt, ts) -> jt.update(w.sql, w.args)));
+                } catch (Throwable ex2) {
+                    w.future.completeExceptionally(ex2);
+                }
+            }
+            return;
+        }
+        for (int i = 0; i < counts.length; i++) {
+            batch.get(i).future.complete(counts[i]);
+        }
+    }
+
+    private static int[] update(JdbcTemplate jt, List<Write> batch) {
+        int[] counts = new int[batch.size()];
+        int start = 0;
+        while (start < batch.size()) {
+            String sql = batch.get(start).sql;
+            int end = start + 1;
+            while (end < batch.size() && sql.equals(batch.get(end).sql)) {
+                end++;
+            }
+            if (end - start == 1) {
+                counts[start] = jt.update(sql, batch.get(start).args);
+            } else {
+                List<Object[]> args = new ArrayList<>(end - start);
+                for (int i = start; i < end; i++) {
+                    args.add(batch.get(i).args);
+                }
+                int[] res = jt.batchUpdate(sql, args);
+                System.arraycopy(res, 0, counts, start, res.length);
+            }
+            start = end;
+        }
+        return counts;
+    }
+
+
+    private static final class Write {
+
+        private final String sql;
+        private final Object[] args;
+        private final CompletableFuture<Integer> future;
+
+        Write(String sql, Object[] args) {
+            this.sql = sql;
+            this.args = args;
+            this.future = new CompletableFuture<>();
+        }
+
+    }
+
+}
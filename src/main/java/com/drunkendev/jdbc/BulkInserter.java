@@ -0,0 +1,190 @@
+/*
+ * BulkInserter.java    Oct 17 2026, 01:40
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.jdbc;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+
+/**
+ * Inserts rows in batches whose size adapts to the measured throughput.
+ *
+ * Rows are sent either as multi-row {@code INSERT ... VALUES (...), (...)}
+ * statements or as JDBC batches of a single row statement. Batch sizes are
+ * powers of two, limiting the distinct statements prepared. After each full
+ * batch the rows per second achieved is compared with the previous batch: the
+ * size keeps moving in the same direction while throughput holds and reverses
+ * direction when it drops, settling around the most efficient size.
+ *
+ * @author  Brett Ryan
+ * @since   1.6
+ */
+final class BulkInserter<T> {
+
+    /**
+     * Maximum parameters in a multi-row statement, below the lowest limit of
+     * common databases.
+     */
+    static final int MAX_PARAMETERS = 2000;
+
+    /**
+     * Maximum rows in a JDBC batch.
+     */
+    static final int MAX_BATCH = 8192;
+
+    private static final int INITIAL_ROWS = 64;
+    private static final double TOLERANCE = 0.95;
+
+    private final JdbcTemplate jt;
+    private final String table;
+    private final String[] columns;
+    private final ColumnBinder<? super T> binder;
+    private final boolean multiRow;
+    private final int maxRows;
+    private int size;
+    private boolean growing;
+    private double lastRate;
+
+    /**
+     * Creates a new {@code BulkInserter} instance.
+     *
+     * @param   jt
+     *          Template to execute statements with.
+     * @param   table
+     *          Table to insert to.
+     * @param   columns
+     *          Columns to insert.
+     * @param   binder
+     *          Binder setting the columns of each row.
+     * @param   multiRow
+     *          Whether to use multi-row statements rather than JDBC batches.
+     * @throws  IllegalArgumentException
+     *          if no columns are given.
+     */
+    BulkInserter(JdbcTemplate jt, String table, String[] columns, ColumnBinder<? super T> binder, boolean multiRow) {
+        if (columns.length == 0) {
+            throw new IllegalArgumentException("At least one column is required.");
+        }
+        this.jt = jt;
+        this.table = table;
+        this.columns = columns.clone();
+        this.binder = binder;
+        this.multiRow = multiRow;
+        this.maxRows = multiRow ? Integer.highestOneBit(Math.max(1, MAX_PARAMETERS / columns.length)) : MAX_BATCH;
+        this.size = Math.min(INITIAL_ROWS, maxRows);
+        this.growing = true;
+    }
+
+    /**
+     * Insert all remaining rows.
+     *
+     * @param   rows
+     *          Rows to insert.
+     * @return  Number of rows inserted.
+     */
+    long insert(Iterator<? extends T> rows) {
+        long count = 0;
+        List<T> batch = new ArrayList<>(size);
+        while (rows.hasNext()) {
+            int n = size;
+            batch.clear();
+            while (batch.size() < n && rows.hasNext()) {
+                batch.add(rows.next());
+            }
+            long start = System.nanoTime();
+            if (multiRow) {
+                insertValues(batch);
+            } else {
+                insertBatch(batch);
+            }
+            if (batch.size() == n) {
+                adapt(n, System.nanoTime() - start);
+            }
+            count += batch.size();
+        }
+        return count;
+    }
+
+    /**
+     * Current batch size.
+     *
+     * @return  Rows sent per statement or batch.
+     */
+    int getBatchSize() {
+        return size;
+    }
+
+    private void insertValues(List<T> batch) {
+        int width = columns.length;
+        jt.update(sql(batch.size()), ps -> {
+            int i = 1;
+            for (T row : batch) {
+                binder.bind(ps, i, row);
+                i += width;
+            }
+        });
+    }
+
+    private void insertBatch(List<T> batch) {
+        jt.batchUpdate(sql(1), new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                binder.bind(ps, 1, batch.get(i));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return batch.size();
+            }
+        });
+    }
+
+    private String sql(int rows) {
+        StringBuilder row = new StringBuilder(columns.length * 3).append('(');
+        for (int i = 0; i < columns.length; i++) {
+            row.append(i == 0 ? "?" : ", ?");
+        }
+        row.append(')');
+        StringBuilder res = new StringBuilder(32 + rows * (row.length() + 2))
+                .append("insert into ").append(table)
+                .append(" (").append(String.join(", ", columns)).append(") values ");
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                res.append(", ");
+            }
+            res.append(row);
+        }
+        return res.toString();
+    }
+
+    private void adapt(int rows, long nanos) {
+        double rate = rows * 1e9 / Math.max(1, nanos);
+        if (rate < lastRate * TOLERANCE) {
+            growing = !growing;
+        }
+        lastRate = rate;
+        size = growing ? Math.min(maxRows, size << 1) : Math.max(1, size >>> 1);
+    }
+
+}
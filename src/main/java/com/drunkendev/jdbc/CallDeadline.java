@@ -0,0 +1,194 @@
+/*
+ * CallDeadline.java    Oct 17 2026, 00:35
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.jdbc;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+
+/**
+ * Deadline of an execution on the current thread.
+ *
+ * Statements created while a deadline is active are registered with it and
+ * have their query timeout limited to the time remaining. When the deadline
+ * passes all registered statements are cancelled from a timer thread.
+ *
+ * Deadlines nest, an inner deadline never extends beyond an outer one.
+ *
+ * @author  Brett Ryan
+ * @since   1.6
+ */
+final class CallDeadline implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CallDeadline.class);
+    private static final ThreadLocal<CallDeadline> CURRENT = new ThreadLocal<>();
+    private static final ScheduledThreadPoolExecutor TIMER = timer();
+    private static final int PRUNE_SIZE = 16;
+
+    private final CallDeadline previous;
+    private final long deadline;
+    private final List<Statement> statements;
+    private final ScheduledFuture<?> cancel;
+    private volatile boolean expired;
+
+    private CallDeadline(CallDeadline previous, long deadline) {
+        this.previous = previous;
+        this.deadline = deadline;
+        this.statements = new ArrayList<>();
+        this.cancel = TIMER.schedule(this::expire, Math.max(0, deadline - System.nanoTime()), NANOSECONDS);
+    }
+
+    /**
+     * Start a deadline on the current thread.
+     *
+     * @param   timeout
+     *          Time from now until the deadline.
+     * @return  Deadline which must be closed once the execution completes.
+     */
+    static CallDeadline start(Duration timeout) {
+        CallDeadline prev = CURRENT.get();
+        long d = System.nanoTime() + timeout.toNanos();
+        if (prev != null && prev.deadline - d < 0) {
+            d = prev.deadline;
+        }
+        CallDeadline res = new CallDeadline(prev, d);
+        CURRENT.set(res);
+        return res;
+    }
+
+    /**
+     * Retrieve the deadline active on the current thread.
+     *
+     * @return  Active deadline, or null if none.
+     */
+    static CallDeadline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Time remaining rounded up to whole seconds as used by JDBC.
+     *
+     * @return  Seconds remaining, zero if the deadline has passed.
+     */
+    int remainingSeconds() {
+        long r = deadline - System.nanoTime();
+        if (r <= 0) {
+            return 0;
+        }
+        return (int) Math.min(Integer.MAX_VALUE, (r + 999_999_999L) / 1_000_000_000L);
+    }
+
+    /**
+     * Whether the deadline has passed.
+     *
+     * @return  True once the deadline has passed.
+     */
+    boolean isExpired() {
+        return expired || deadline - System.nanoTime() <= 0;
+    }
+
+    /**
+     * Limit the query timeout of a statement to the time remaining and cancel
+     * it if still executing when the deadline passes.
+     *
+     * @param   stmt
+     *          Statement about to be executed.
+     * @throws  SQLException
+     *          if the deadline has already passed or the timeout could not be
+     *          set.
+     */
+    void register(Statement stmt) throws SQLException {
+        int remaining = remainingSeconds();
+        if (remaining == 0) {
+            throw new SQLTimeoutException("Deadline exceeded before statement execution");
+        }
+        int current = stmt.getQueryTimeout();
+        if (current == 0 || current > remaining) {
+            stmt.setQueryTimeout(remaining);
+        }
+        synchronized (statements) {
+            if (statements.size() >= PRUNE_SIZE) {
+                statements.removeIf(CallDeadline::isClosed);
+            }
+            statements.add(stmt);
+        }
+    }
+
+    /**
+     * End the deadline, restoring any outer deadline on the current thread.
+     */
+    @Override
+    public void close() {
+        cancel.cancel(false);
+        synchronized (statements) {
+            statements.clear();
+        }
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    private void expire() {
+        expired = true;
+        List<Statement> cancelling;
+        synchronized (statements) {
+            cancelling = new ArrayList<>(statements);
+        }
+        for (Statement stmt : cancelling) {
+            try {
+                if (!stmt.isClosed()) {
+                    stmt.cancel();
+                }
+            } catch (SQLException | RuntimeException ex) {
+                LOG.debug("Could not cancel statement: {}", ex.getMessage());
+            }
+        }
+    }
+
+    private static boolean isClosed(Statement stmt) {
+        try {
+            return stmt.isClosed();
+        } catch (SQLException ex) {
+            return true;
+        }
+    }
+
+    private static ScheduledThreadPoolExecutor timer() {
+        ScheduledThreadPoolExecutor res = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "JdbcHolder-deadline");
+            t.setDaemon(true);
+            return t;
+        });
+        res.setRemoveOnCancelPolicy(true);
+        return res;
+    }
+
+}
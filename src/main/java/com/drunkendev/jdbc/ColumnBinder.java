@@ -0,0 +1,65 @@
+/*
+ * ColumnBinder.java    Oct 17 2026, 01:40
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.jdbc;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+
+/**
+ * Binds the column values of a row to statement parameters.
+ *
+ * A binder sets one parameter for each column in order beginning at the given
+ * index, allowing several rows to be bound to a single multi-row statement.
+ *
+ * <h2>Example</h2>
+ *
+ * <pre>
+ * {@code
+ *  ColumnBinder<Customer> binder = (ps, i, c) -> {
+ *      ps.setLong(i, c.getId());
+ *      ps.setString(i + 1, c.getName());
+ *  };
+ * }
+ * </pre>
+ *
+ * @param   <T>
+ *          Row type.
+ * @author  Brett Ryan
+ * @since   1.6
+ * @see     JdbcHelper#bulkInsert(org.springframework.jdbc.core.JdbcTemplate, String, String[], java.util.Iterator, ColumnBinder, boolean)
+ */
+@FunctionalInterface
+public interface ColumnBinder<T> {
+
+    /**
+     * Bind the columns of a row.
+     *
+     * @param   ps
+     *          Statement to bind to.
+     * @param   index
+     *          Parameter index of the first column.
+     * @param   row
+     *          Row to bind.
+     * @throws  SQLException
+     *          if a parameter could not be set.
+     */
+    void bind(PreparedStatement ps, int index, T row) throws SQLException;
+
+}
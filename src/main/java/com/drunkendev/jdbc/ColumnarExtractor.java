@@ -0,0 +1,189 @@
+/*
+ * ColumnarExtractor.java    Oct 16 2026, 17:25
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.jdbc;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+
+/**
+ * {@link ResultSetExtractor} reading selected columns into primitive arrays.
+ *
+ * Values are read with the primitive {@link ResultSet} getters and stored
+ * without boxing, making this suitable for reading large numbers of rows for
+ * reports and exports.
+ *
+ * Column labels are resolved to indexes once per result set. An extractor may
+ * be reused and shared between threads once configured.
+ *
+ * <h2>Example</h2>
+ *
+ * <pre>
+ * {@code
+ *  ColumnarResult res = jt.query("select id, amount from sales",
+ *                                new ColumnarExtractor()
+ *                                        .longColumn("id")
+ *                                        .doubleColumn("amount"));
+ *  LongColumn ids = res.getLongColumn(0);
+ *  DoubleColumn amounts = res.getDoubleColumn(1);
+ * }
+ * </pre>
+ *
+ * @author  Brett Ryan
+ * @since   1.6
+ * @see     JdbcHelper#intColumnExtractor(int)
+ */
+public class ColumnarExtractor implements ResultSetExtractor<ColumnarResult> {
+
+    private final List<Spec> specs;
+    private int expectedRows;
+
+    /**
+     * Creates a new {@code ColumnarExtractor} instance without any columns.
+     */
+    public ColumnarExtractor() {
+        this.specs = new ArrayList<>();
+        this.expectedRows = PrimitiveColumn.DEFAULT_CAPACITY;
+    }
+
+    /**
+     * Set the initial capacity of each column.
+     *
+     * @param   expectedRows
+     *          Number of rows expected to be read.
+     * @return  This extractor.
+     */
+    public ColumnarExtractor expectedRows(int expectedRows) {
+        this.expectedRows = expectedRows;
+        return this;
+    }
+
+    /**
+     * Read a column as {@code int} values.
+     *
+     * @param   col
+     *          the first column is 1, the second is 2, ...
+     * @return  This extractor.
+     */
+    public ColumnarExtractor intColumn(int col) {
+        specs.add(new Spec(col, null, IntColumn::new));
+        return this;
+    }
+
+    /**
+     * Read a column as {@code int} values.
+     *
+     * @param   col
+     *          Column label.
+     * @return  This extractor.
+     */
+    public ColumnarExtractor intColumn(String col) {
+        specs.add(new Spec(0, col, IntColumn::new));
+        return this;
+    }
+
+    /**
+     * Read a column as {@code long} values.
+     *
+     * @param   col
+     *          the first column is 1, the second is 2, ...
+     * @return  This extractor.
+     */
+    public ColumnarExtractor longColumn(int col) {
+        specs.add(new Spec(col, null, LongColumn::new));
+        return this;
+    }
+
+    /**
+     * Read a column as {@code long} values.
+     *
+     * @param   col
+     *          Column label.
+     * @return  This extractor.
+     */
+    public ColumnarExtractor longColumn(String col) {
+        specs.add(new Spec(0, col, LongColumn::new));
+        return this;
+    }
+
+    /**
+     * Read a column as {@code double} values.
+     *
+     * @param   col
+     *          the first column is 1, the second is 2, ...
+     * @return  This extractor.
+     */
+    public ColumnarExtractor doubleColumn(int col) {
+        specs.add(new Spec(col, null, DoubleColumn::new));
+        return this;
+    }
+
+    /**
+     * Read a column as {@code double} values.
+     *
+     * @param   col
+     *          Column label.
+     * @return  This extractor.
+     */
+    public ColumnarExtractor doubleColumn(String col) {
+        specs.add(new Spec(0, col, DoubleColumn::new));
+        return this;
+    }
+
+    @Override
+    public ColumnarResult extractData(ResultSet rs) throws SQLException, DataAccessException {
+        final int n = specs.size();
+        final PrimitiveColumn[] cols = new PrimitiveColumn[n];
+        final int[] idx = new int[n];
+        for (int i = 0; i < n; i++) {
+            Spec s = specs.get(i);
+            idx[i] = s.label == null ? s.index : rs.findColumn(s.label);
+            cols[i] = s.factory.apply(expectedRows);
+        }
+        int rows = 0;
+        while (rs.next()) {
+            for (int i = 0; i < n; i++) {
+                cols[i].read(rs, idx[i]);
+            }
+            rows++;
+        }
+        return new ColumnarResult(cols, rows);
+    }
+
+
+    private static final class Spec {
+
+        private final int index;
+        private final String label;
+        private final IntFunction<PrimitiveColumn> factory;
+
+        Spec(int index, String label, IntFunction<PrimitiveColumn> factory) {
+            this.index = index;
+            this.label = label;
+            this.factory = factory;
+        }
+
+    }
+
+}
@@ -0,0 +1,108 @@
+/*
+ * ColumnarResult.java    Oct 16 2026, 17:25
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.jdbc;
+
+
+/**
+ * Result of a {@link ColumnarExtractor}.
+ *
+ * Columns are indexed from zero in the order they were added to the extractor.
+ *
+ * @author  Brett Ryan
+ * @since   1.6
+ */
+public class ColumnarResult {
+
+    private final PrimitiveColumn[] columns;
+    private final int rowCount;
+
+    ColumnarResult(PrimitiveColumn[] columns, int rowCount) {
+        this.columns = columns;
+        this.rowCount = rowCount;
+    }
+
+    /**
+     * Number of rows read.
+     *
+     * @return  Row count.
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Number of columns read.
+     *
+     * @return  Column count.
+     */
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    /**
+     * Retrieve a column.
+     *
+     * @param   index
+     *          Zero based column index.
+     * @return  Column values.
+     */
+    public PrimitiveColumn getColumn(int index) {
+        return columns[index];
+    }
+
+    /**
+     * Retrieve an {@code int} column.
+     *
+     * @param   index
+     *          Zero based column index.
+     * @return  Column values.
+     * @throws  ClassCastException
+     *          if the column was not read as an {@code int}.
+     */
+    public IntColumn getIntColumn(int index) {
+        return (IntColumn) columns[index];
+    }
+
+    /**
+     * Retrieve a {@code long} column.
+     *
+     * @param   index
+     *          Zero based column index.
+     * @return  Column values.
+     * @throws  ClassCastException
+     *          if the column was not read as a {@code long}.
+     */
+    public LongColumn getLongColumn(int index) {
+        return (LongColumn) columns[index];
+    }
+
+    /**
+     * Retrieve a {@code double} column.
+     *
+     * @param   index
+     *          Zero based column index.
+     * @return  Column values.
+     * @throws  ClassCastException
+     *          if the column was not read as a {@code double}.
+     */
+    public DoubleColumn getDoubleColumn(int index) {
+        return (DoubleColumn) columns[index];
+    }
+
+}
@@ -0,0 +1,140 @@
+/*
+ * CompactSql.java    Oct 16 2026, 16:30
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.jdbc;
+
+import java.util.Arrays;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+
+/**
+ * SQL text held as encoded bytes.
+ *
+ * Text containing only Latin-1 characters is stored with one byte per
+ * character, all other text is stored as UTF-8. Text is decoded on each call
+ * to {@link #get()} and is not retained.
+ *
+ * Instances are equal when their content is equal allowing them to be pooled.
+ *
+ * @author  Brett Ryan
+ * @since   1.6
+ */
+final class CompactSql {
+
+    /**
+     * Whether strings hold Latin-1 text with one byte per character, as they
+     * do by default from Java 9.
+     */
+    private static final boolean COMPACT_STRINGS =
+            !System.getProperty("java.specification.version").startsWith("1.");
+
+    private final byte[] data;
+    private final boolean latin1;
+    private final int length;
+    private final int hash;
+
+    /**
+     * Number of cache entries referring to this pooled instance, only
+     * accessed while its pool entry is locked.
+     */
+    int refs;
+
+    private CompactSql(byte[] data, boolean latin1, int length) {
+        this.data = data;
+        this.latin1 = latin1;
+        this.length = length;
+        this.hash = Arrays.hashCode(data);
+    }
+
+    /**
+     * Encode SQL text.
+     *
+     * @param   sql
+     *          Text to encode.
+     * @return  Encoded text.
+     */
+    static CompactSql of(String sql) {
+        boolean latin1 = true;
+        for (int i = 0; i < sql.length(); i++) {
+            if (sql.charAt(i) > 0xFF) {
+                latin1 = false;
+                break;
+            }
+        }
+        return new CompactSql(sql.getBytes(latin1 ? ISO_8859_1 : UTF_8), latin1, sql.length());
+    }
+
+    /**
+     * Decode the text.
+     *
+     * @return  Decoded text.
+     */
+    String get() {
+        return new String(data, latin1 ? ISO_8859_1 : UTF_8);
+    }
+
+    /**
+     * Number of bytes used to store the encoded text.
+     *
+     * @return  Encoded size.
+     */
+    int size() {
+        return data.length;
+    }
+
+    /**
+     * Number of characters within the text.
+     *
+     * @return  Character count.
+     */
+    int length() {
+        return length;
+    }
+
+    /**
+     * Number of bytes the content of the text would occupy held as a string
+     * by this JVM, excluding object headers.
+     *
+     * @return  String content size.
+     */
+    long stringSize() {
+        return latin1 && COMPACT_STRINGS ? length : 2L * length;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        CompactSql other = (CompactSql) obj;
+        return hash == other.hash &&
+               latin1 == other.latin1 &&
+               Arrays.equals(data, other.data);
+    }
+
+}
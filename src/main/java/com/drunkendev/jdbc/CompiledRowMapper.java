@@ -0,0 +1,369 @@
+/*
+ * CompiledRowMapper.java    Oct 16 2026, 19:10
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.jdbc;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.BeanUtils;
+import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.jdbc.core.RowMapper;
+
+import static com.drunkendev.time.TemporalConverters.toLocalDate;
+import static com.drunkendev.time.TemporalConverters.toLocalDateTime;
+import static java.lang.invoke.MethodType.methodType;
+
+
+/**
+ * {@link RowMapper} that maps rows through method handles built once per type
+ * and column layout.
+ *
+ * Constructor mapping passes each column positionally to the public
+ * constructor whose parameter count matches the column count. Bean mapping
+ * creates an instance with the public no-argument constructor and calls the
+ * setter for each column whose label matches a property name, ignoring case
+ * and underscores.
+ *
+ * Values are read with the typed {@link ResultSet} getter for the target type,
+ * wrapper types preserve SQL {@code NULL} values as null while primitive types
+ * receive the getter's default. Each plan is composed into a single method
+ * handle taking the result set, so primitive values are passed without boxing
+ * and column indexes are bound into the handle.
+ *
+ * Plans are cached against the mapped class by column labels so creating a
+ * mapper is cheap; the plan for a result set is looked up on its first row.
+ * Plans are released with their class and at most {@value #MAX_LAYOUTS}
+ * layouts are cached for a class, further layouts are planned per result set.
+ *
+ * @author  Brett Ryan
+ * @since   1.6
+ */
+final class CompiledRowMapper<T> implements RowMapper<T> {
+
+    static final int MAX_LAYOUTS = 64;
+
+    private static final Map<Class<?>, MethodHandle> READERS = readers();
+    private static final MethodHandle READ_ENUM;
+    private static final MethodHandle READ_OBJECT;
+    private static final ClassValue<Map<Layout, Plan>> PLANS = new ClassValue<Map<Layout, Plan>>() {
+        @Override
+        protected Map<Layout, Plan> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    static {
+        try {
+            READ_ENUM = MethodHandles.lookup().findStatic(
+                    CompiledRowMapper.class, "readEnum",
+                    methodType(Object.class, Class.class, ResultSet.class, int.class));
+            READ_OBJECT = MethodHandles.lookup().findVirtual(
+                    ResultSet.class, "getObject", methodType(Object.class, int.class));
+        } catch (NoSuchMethodException | IllegalAccessException ex) {
+            throw new ExceptionInInitializerError(ex);
+        }
+    }
+
+    private final Class<T> type;
+    private final boolean bean;
+    private volatile Bound last;
+
+    CompiledRowMapper(Class<T> type, boolean bean) {
+        this.type = type;
+        this.bean = bean;
+    }
+
+    @Override
+    public T mapRow(ResultSet rs, int rowNum) throws SQLException {
+        Bound b = last;
+        if (b == null || b.rs.get() != rs) {
+            b = new Bound(rs, plan(rs));
+            last = b;
+        }
+        return type.cast(b.plan.map(rs));
+    }
+
+    private Plan plan(ResultSet rs) throws SQLException {
+        ResultSetMetaData md = rs.getMetaData();
+        String[] labels = new String[md.getColumnCount()];
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = md.getColumnLabel(i + 1);
+        }
+        Layout key = new Layout(bean, bean ? labels : new String[labels.length]);
+        Map<Layout, Plan> plans = PLANS.get(type);
+        Plan p = plans.get(key);
+        if (p == null) {
+            p = bean ? beanPlan(labels) : constructorPlan(labels.length);
+            if (plans.size() < MAX_LAYOUTS) {
+                Plan prev = plans.putIfAbsent(key, p);
+                if (prev != null) {
+                    p = prev;
+                }
+            }
+        }
+        return p;
+    }
+
+    private Plan constructorPlan(int columns) {
+        Constructor<?> ctor = null;
+        for (Constructor<?> c : type.getConstructors()) {
+            if (c.getParameterCount() == columns) {
+                if (ctor != null) {
+                    throw new InvalidDataAccessApiUsageException(
+                            "Ambiguous constructors with " + columns + " parameters for " + type.getName());
+                }
+                ctor = c;
+            }
+        }
+        if (ctor == null) {
+            throw new InvalidDataAccessApiUsageException(
+                    "No public constructor with " + columns + " parameters for " + type.getName());
+        }
+        Class<?>[] params = ctor.getParameterTypes();
+        MethodHandle[] readers = new MethodHandle[columns];
+        for (int i = 0; i < columns; i++) {
+            readers[i] = reader(params[i], i + 1);
+        }
+        MethodHandle mh;
+        try {
+            mh = MethodHandles.publicLookup().unreflectConstructor(ctor).asFixedArity();
+        } catch (IllegalAccessException ex) {
+            throw new InvalidDataAccessApiUsageException(ex.getMessage(), ex);
+        }
+        // (p1, ..., pn) -> (rs, ..., rs) -> (rs), each argument read from its column.
+        mh = MethodHandles.filterArguments(mh, 0, readers);
+        mh = MethodHandles.permuteArguments(mh, methodType(mh.type().returnType(), ResultSet.class), new int[columns]);
+        return new Plan(mh, "Unable to construct " + type.getName());
+    }
+
+    private Plan beanPlan(String[] labels) {
+        if (Modifier.isAbstract(type.getModifiers())) {
+            throw new InvalidDataAccessApiUsageException(type.getName() + " is abstract");
+        }
+        Map<String, Method> setters = new HashMap<>();
+        for (PropertyDescriptor pd : BeanUtils.getPropertyDescriptors(type)) {
+            if (pd.getWriteMethod() != null) {
+                setters.put(normalise(pd.getName()), pd.getWriteMethod());
+            }
+        }
+        // (bean, rs) -> bean, with each setter folded in front so the first
+        // column's setter is called first.
+        MethodHandle mh = MethodHandles.dropArguments(MethodHandles.identity(type), 1, ResultSet.class);
+        try {
+            for (int i = labels.length - 1; i >= 0; i--) {
+                Method m = setters.get(normalise(labels[i]));
+                if (m != null) {
+                    Class<?> pt = m.getParameterTypes()[0];
+                    MethodHandle setter = MethodHandles.publicLookup().unreflect(m)
+                            .asType(methodType(void.class, type, pt));
+                    mh = MethodHandles.foldArguments(mh, MethodHandles.filterArguments(setter, 1, reader(pt, i + 1)));
+                }
+            }
+            mh = MethodHandles.foldArguments(mh, MethodHandles.publicLookup()
+                                             .findConstructor(type, methodType(void.class)));
+        } catch (NoSuchMethodException | IllegalAccessException ex) {
+            throw new InvalidDataAccessApiUsageException(
+                    "No public no-argument constructor for " + type.getName(), ex);
+        }
+        return new Plan(mh, "Unable to populate " + type.getName());
+    }
+
+    private static String normalise(String name) {
+        return name.replace("_", "").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Handle reading column {@code col} as {@code type} from a result set.
+     */
+    private static MethodHandle reader(Class<?> type, int col) {
+        MethodHandle mh = READERS.get(type);
+        if (mh == null) {
+            mh = type.isEnum() ? READ_ENUM.bindTo(type) : READ_OBJECT;
+        }
+        return MethodHandles.insertArguments(mh, 1, col).asType(methodType(type, ResultSet.class));
+    }
+
+    private static Map<Class<?>, MethodHandle> readers() {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        Map<Class<?>, MethodHandle> m = new HashMap<>();
+        try {
+            m.put(boolean.class, getter(lookup, boolean.class, "getBoolean"));
+            m.put(byte.class, getter(lookup, byte.class, "getByte"));
+            m.put(short.class, getter(lookup, short.class, "getShort"));
+            m.put(int.class, getter(lookup, int.class, "getInt"));
+            m.put(long.class, getter(lookup, long.class, "getLong"));
+            m.put(float.class, getter(lookup, float.class, "getFloat"));
+            m.put(double.class, getter(lookup, double.class, "getDouble"));
+            m.put(Boolean.class, helper(lookup, JdbcHelper.class, Boolean.class, "getBoolean"));
+            m.put(Byte.class, helper(lookup, JdbcHelper.class, Byte.class, "getByte"));
+            m.put(Short.class, helper(lookup, CompiledRowMapper.class, Short.class, "readShort"));
+            m.put(Integer.class, helper(lookup, JdbcHelper.class, Integer.class, "getInteger"));
+            m.put(Long.class, helper(lookup, JdbcHelper.class, Long.class, "getLong"));
+            m.put(Float.class, helper(lookup, JdbcHelper.class, Float.class, "getFloat"));
+            m.put(Double.class, helper(lookup, JdbcHelper.class, Double.class, "getDouble"));
+            m.put(String.class, getter(lookup, String.class, "getString"));
+            m.put(BigDecimal.class, getter(lookup, BigDecimal.class, "getBigDecimal"));
+            m.put(byte[].class, getter(lookup, byte[].class, "getBytes"));
+            m.put(java.sql.Date.class, getter(lookup, java.sql.Date.class, "getDate"));
+            m.put(java.sql.Time.class, getter(lookup, java.sql.Time.class, "getTime"));
+            m.put(java.sql.Timestamp.class, getter(lookup, java.sql.Timestamp.class, "getTimestamp"));
+            m.put(java.util.Date.class, getter(lookup, java.sql.Timestamp.class, "getTimestamp"));
+            m.put(LocalDate.class, helper(lookup, CompiledRowMapper.class, LocalDate.class, "readLocalDate"));
+            m.put(LocalDateTime.class, helper(lookup, CompiledRowMapper.class, LocalDateTime.class, "readLocalDateTime"));
+            m.put(LocalTime.class, helper(lookup, CompiledRowMapper.class, LocalTime.class, "readLocalTime"));
+            m.put(Instant.class, helper(lookup, CompiledRowMapper.class, Instant.class, "readInstant"));
+        } catch (NoSuchMethodException | IllegalAccessException ex) {
+            throw new ExceptionInInitializerError(ex);
+        }
+        return m;
+    }
+
+    private static MethodHandle getter(MethodHandles.Lookup lookup, Class<?> type, String name)
+            throws NoSuchMethodException, IllegalAccessException {
+        return lookup.findVirtual(ResultSet.class, name, methodType(type, int.class));
+    }
+
+    private static MethodHandle helper(MethodHandles.Lookup lookup, Class<?> owner, Class<?> type, String name)
+            throws NoSuchMethodException, IllegalAccessException {
+        return lookup.findStatic(owner, name, methodType(type, ResultSet.class, int.class));
+    }
+
+    private static Short readShort(ResultSet rs, int col) throws SQLException {
+        short v = rs.getShort(col);
+        return rs.wasNull() ? null : v;
+    }
+
+    private static LocalDate readLocalDate(ResultSet rs, int col) throws SQLException {
+        return toLocalDate(rs.getTimestamp(col));
+    }
+
+    private static LocalDateTime readLocalDateTime(ResultSet rs, int col) throws SQLException {
+        return toLocalDateTime(rs.getTimestamp(col));
+    }
+
+    private static LocalTime readLocalTime(ResultSet rs, int col) throws SQLException {
+        java.sql.Time v = rs.getTime(col);
+        return v == null ? null : v.toLocalTime();
+    }
+
+    private static Instant readInstant(ResultSet rs, int col) throws SQLException {
+        java.sql.Timestamp v = rs.getTimestamp(col);
+        return v == null ? null : v.toInstant();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object readEnum(Class<?> type, ResultSet rs, int col) throws SQLException {
+        String v = rs.getString(col);
+        return v == null ? null : Enum.valueOf((Class<? extends Enum>) type, v);
+    }
+
+
+    /**
+     * Mapping for a type and column layout.
+     */
+    private static final class Plan {
+
+        private final MethodHandle mapper;
+        private final String failure;
+
+        Plan(MethodHandle mapper, String failure) {
+            this.mapper = mapper.asType(methodType(Object.class, ResultSet.class));
+            this.failure = failure;
+        }
+
+        Object map(ResultSet rs) throws SQLException {
+            try {
+                return (Object) mapper.invokeExact(rs);
+            } catch (SQLException | RuntimeException | Error ex) {
+                throw ex;
+            } catch (Throwable ex) {
+                throw new DataRetrievalFailureException(failure, ex);
+            }
+        }
+
+    }
+
+
+    /**
+     * Plan last used, held against the result set it was planned for.
+     */
+    private static final class Bound {
+
+        private final WeakReference<ResultSet> rs;
+        private final Plan plan;
+
+        Bound(ResultSet rs, Plan plan) {
+            this.rs = new WeakReference<>(rs);
+            this.plan = plan;
+        }
+
+    }
+
+
+    private static final class Layout {
+
+        private final boolean bean;
+        private final String[] labels;
+        private final int hash;
+
+        Layout(boolean bean, String[] labels) {
+            this.bean = bean;
+            this.labels = labels;
+            this.hash = 31 * Arrays.hashCode(labels) + (bean ? 1 : 0);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            Layout other = (Layout) obj;
+            return bean == other.bean &&
+                   Arrays.equals(labels, other.labels);
+        }
+
+    }
+
+}
@@ -0,0 +1,181 @@
+/*
+ * CursorSpliterator.java    Oct 16 2026, 20:00
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.jdbc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.SQLExceptionTranslator;
+import org.springframework.transaction.TransactionDefinition;
+
+
+/**
+ * Spliterator over an open JDBC cursor.
+ *
+ * Rows are fetched from the database as they are consumed. Where no Spring
+ * managed transaction is active a connection is obtained and placed in a
+ * read-only transaction of its own which is ended, and the connection
+ * released, when {@link #close()} is called; otherwise the active transaction
+ * is joined.
+ *
+ * Resources are also released once the cursor is exhausted or if an error
+ * occurs.
+ *
+ * @author  Brett Ryan
+ * @since   1.6
+ */
+final class CursorSpliterator<T> extends Spliterators.AbstractSpliterator<T> implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CursorSpliterator.class);
+
+    private final DataSource dataSource;
+    private final SQLExceptionTranslator translator;
+    private final String sql;
+    private final RowMapper<T> mapper;
+    private Connection con;
+    private boolean owned;
+    private boolean previousAutoCommit;
+    private Integer previousIsolation;
+    private PreparedStatement ps;
+    private ResultSet rs;
+    private int rowNum;
+    private boolean closed;
+
+    /**
+     * Opens a cursor for a query.
+     *
+     * @param   dataSource
+     *          Data source to obtain a connection from.
+     * @param   translator
+     *          Translator for exceptions raised.
+     * @param   def
+     *          Read-only definition applied where a transaction is not active.
+     * @param   fetchSize
+     *          Number of rows to fetch from the database at a time.
+     * @param   sql
+     *          Query to execute.
+     * @param   mapper
+     *          Mapper for each row.
+     * @param   args
+     *          Arguments to bind to the query.
+     */
+    CursorSpliterator(DataSource dataSource,
+                      SQLExceptionTranslator translator,
+                      TransactionDefinition def,
+                      int fetchSize,
+                      String sql,
+                      RowMapper<T> mapper,
+                      Object... args) {
+        super(Long.MAX_VALUE, Spliterator.ORDERED);
+        this.dataSource = dataSource;
+        this.translator = translator;
+        this.sql = sql;
+        this.mapper = mapper;
+        try {
+            con = DataSourceUtils.getConnection(dataSource);
+            owned = !DataSourceUtils.isConnectionTransactional(con, dataSource);
+            if (owned) {
+                previousIsolation = DataSourceUtils.prepareConnectionForTransaction(con, def);
+                previousAutoCommit = con.getAutoCommit();
+                if (previousAutoCommit) {
+                    con.setAutoCommit(false);
+                }
+            }
+            ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            if (def.getTimeout() > 0) {
+                ps.setQueryTimeout(def.getTimeout());
+            }
+            new ArgumentPreparedStatementSetter(args).setValues(ps);
+            rs = ps.executeQuery();
+        } catch (SQLException ex) {
+            close();
+            throw translator.translate("stream", sql, ex);
+        } catch (RuntimeException ex) {
+            close();
+            throw ex;
+        }
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        if (closed) {
+            return false;
+        }
+        try {
+            if (!rs.next()) {
+                close();
+                return false;
+            }
+            action.accept(mapper.mapRow(rs, rowNum++));
+            return true;
+        } catch (SQLException ex) {
+            close();
+            throw translator.translate("stream", sql, ex);
+        } catch (RuntimeException | Error ex) {
+            close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Close the cursor, ending the transaction if one was started and releasing
+     * the connection.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        JdbcUtils.closeResultSet(rs);
+        JdbcUtils.closeStatement(ps);
+        if (con == null) {
+            return;
+        }
+        try {
+            if (owned) {
+                try {
+                    // Nothing has been written, rollback is the cheapest end.
+                    con.rollback();
+                    if (previousAutoCommit) {
+                        con.setAutoCommit(true);
+                    }
+                } catch (SQLException ex) {
+                    LOG.debug("Could not end stream transaction", ex);
+                }
+                DataSourceUtils.resetConnectionAfterTransaction(con, previousIsolation);
+            }
+        } finally {
+            DataSourceUtils.releaseConnection(con, dataSource);
+        }
+    }
+
+}
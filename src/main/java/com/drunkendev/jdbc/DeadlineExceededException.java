@@ -0,0 +1,60 @@
+/*
+ * DeadlineExceededException.java    Oct 17 2026, 00:35
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.jdbc;
+
+import org.springframework.dao.QueryTimeoutException;
+
+
+/**
+ * Thrown when an execution given a deadline does not complete in time.
+ *
+ * Statements in progress when the deadline passed have been cancelled and
+ * the transaction rolled back.
+ *
+ * @author  Brett Ryan
+ * @since   1.6
+ * @see     JdbcHolder#execute(java.time.Duration, java.util.function.BiFunction)
+ */
+public class DeadlineExceededException extends QueryTimeoutException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Creates a new {@code DeadlineExceededException} instance.
+     *
+     * @param   msg
+     *          the detail message.
+     */
+    public DeadlineExceededException(String msg) {
+        super(msg);
+    }
+
+    /**
+     * Creates a new {@code DeadlineExceededException} instance.
+     *
+     * @param   msg
+     *          the detail message.
+     * @param   cause
+     *          the root cause from the data access API in use.
+     */
+    public DeadlineExceededException(String msg, Throwable cause) {
+        super(msg, cause);
+    }
+
+}
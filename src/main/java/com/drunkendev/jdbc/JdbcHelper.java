@@ -18,26 +18,47 @@
 
 package com.drunkendev.jdbc;
 
-import java.io.BufferedReader;
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.CharArrayReader;
+import java.io.CharArrayWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
 import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.net.URL;
+import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
 import java.sql.Time;
 import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.ResultSetExtractor;
 import org.springframework.jdbc.core.RowMapper;
 
-import static java.lang.Character.isWhitespace;
+import static java.util.Spliterator.NONNULL;
+import static java.util.Spliterator.ORDERED;
+import static java.util.Spliterators.spliteratorUnknownSize;
 
 
 /**
@@ -50,15 +71,7 @@ import static java.lang.Character.isWhitespace;
  */
 public class JdbcHelper {
 
-    private static final int INIT = 0;
-    private static final int ISA_MINUS = 1;
-    private static final int ISI_LINE_COMMENT = 2;
-    private static final int ISA_SLASH = 3;
-    private static final int ISI_BLOCK_COMMENT = 4;
-    private static final int ISA_BCOMMENT_STAR = 5;
-    private static final int ISI_DOUBLE_QUOTE = 6;
-    private static final int ISI_SINGLE_QUOTE = 7;
-    private static final int ISI_SQUARE_QUOTE = 8;
+    private static final int LOB_BUFFER_SIZE = 8192;
 
     /**
      * Given an input file path will return the textual contents with comments removed.
@@ -79,14 +92,18 @@ public class JdbcHelper {
      *
      * SQL files may either contain single line comments {@code --} or block comments <code>&#47;* *&#47;</code>
      *
+     * Files of 1MB or more are memory mapped, all are decoded with the
+     * platforms default character set in the same manner as
+     * {@link #getSql(InputStream)}.
+     *
      * @param   file
-     *          Input stream containing SQL content.
+     *          File containing SQL content.
      * @return  Textual content with both line and block comments removed.
      * @since   1.1
      */
     public static String getSql(Path file) {
-        try (InputStream stream = Files.newInputStream(file)) {
-            return getSql(stream);
+        try (SqlScanner sc = new SqlScanner(MappedFileReader.open(file, Charset.defaultCharset()), false)) {
+            return sc.next();
         } catch (IOException ex) {
             throw new UncheckedIOException(ex.getMessage(), ex);
         }
@@ -102,125 +119,664 @@ public class JdbcHelper {
      * @return  Textual content with both line and block comments removed.
      */
     public static String getSql(InputStream is) {
-        StringBuilder res = new StringBuilder();
-        try (BufferedReader r = new BufferedReader(new InputStreamReader(is))) {
-            int cc;
-            char c;
-            int state = INIT;
-            boolean prevNewLine = false;
-
-            while ((cc = r.read()) != -1) {
-                c = (char) cc;
-                switch (state) {
-                    case INIT:
-                        switch (c) {
-                            case '-':
-                                state = ISA_MINUS;
-                                break;
-                            case '/':
-                                state = ISA_SLASH;
-                                break;
-                            case '\'':
-                                state = ISI_SINGLE_QUOTE;
-                                res.append(c);
-                                break;
-                            case '"':
-                                state = ISI_DOUBLE_QUOTE;
-                                res.append(c);
-                                break;
-                            case '[':
-                                state = ISI_SQUARE_QUOTE;
-                                res.append(c);
-                                break;
-                            default:
-                                if (c == '\n' || c == '\r') {
-                                    if (!prevNewLine && res.length() > 0) {
-                                        res.append('\n');
-                                        prevNewLine = true;
-                                    }
-                                } else if (isWhitespace(c)) {
-                                    if (res.length() > 0) {
-                                        res.append(c);
-                                        prevNewLine = false;
-                                    }
-                                } else {
-                                    res.append(c);
-                                    prevNewLine = false;
-                                }
-                                break;
-                        }
-                        break;
-                    case ISA_MINUS:
-                        if (c == '-') {
-                            state = ISI_LINE_COMMENT;
-                        } else {
-                            state = INIT;
-                            res.append('-');
-                            res.append(c);
-                        }
-                        break;
-                    case ISI_LINE_COMMENT:
-                        if (c == '\n' || c == '\r') {
-                            if (res.length() > 0) {
-                                if (!prevNewLine) {
-                                    res.append('\n');
-                                }
-                                prevNewLine = true;
-                            }
-                            state = INIT;
-                        }
-                        break;
-                    case ISA_SLASH:
-                        if (c == '*') {
-                            state = ISI_BLOCK_COMMENT;
-                        } else {
-                            state = INIT;
-                            res.append('/');
-                            res.append(c);
-                            prevNewLine = false;
-                        }
-                        break;
-                    case ISI_BLOCK_COMMENT:
-                        if (c == '*') {
-                            state = ISA_BCOMMENT_STAR;
-                        }
-                        break;
-                    case ISA_BCOMMENT_STAR:
-                        state = c == '/' ? INIT : ISI_BLOCK_COMMENT;
-                        break;
-                    case ISI_SINGLE_QUOTE:
-                        res.append(c);
-                        if (c == '\'') {
-                            state = INIT;
-                        }
-                        break;
-                    case ISI_DOUBLE_QUOTE:
-                        res.append(c);
-                        if (c == '"') {
-                            state = INIT;
-                        }
-                        break;
-                    case ISI_SQUARE_QUOTE:
-                        res.append(c);
-                        if (c == ']') {
-                            state = INIT;
-                        }
-                        break;
+        try (SqlScanner sc = new SqlScanner(new InputStreamReader(is), false)) {
+            return sc.next();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Given an input stream will return a lazily read stream of SQL statements.
+     *
+     * Statements are separated by {@code ;} with comments removed in the same
+     * manner as {@link #getSql(InputStream)}; separators within quotes or
+     * comments are ignored. Each statement is trimmed and does not include the
+     * trailing separator, empty statements are skipped.
+     *
+     * Only the statement currently being read is held in memory making this
+     * suitable for very large scripts. The returned stream must be closed to
+     * release the input stream.
+     *
+     * <h2>Example</h2>
+     *
+     * <pre>
+     * {@code
+     *  try (Stream<String> stmts = JdbcHelper.getSqlStatements(is)) {
+     *      stmts.forEach(jt::execute);
+     *  }
+     * }
+     * </pre>
+     *
+     * @param   is
+     *          Input stream containing SQL content.
+     * @return  Stream of statements, {@link UncheckedIOException} will be
+     *          thrown from terminal operations if the input could not be read.
+     * @since   1.6
+     */
+    public static Stream<String> getSqlStatements(InputStream is) {
+        return getSqlStatements(new SqlScanner(new InputStreamReader(is), true));
+    }
+
+    private static Stream<String> getSqlStatements(SqlScanner sc) {
+        return StreamSupport.stream(spliteratorUnknownSize(sc.iterator(), ORDERED | NONNULL), false)
+                .onClose(() -> {
+                    try {
+                        sc.close();
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex.getMessage(), ex);
+                    }
+                });
+    }
+
+    /**
+     * Given an input file path will return a lazily read stream of SQL statements.
+     *
+     * @param   file
+     *          File containing SQL content.
+     * @return  Stream of statements which must be closed to release the file.
+     * @see     #getSqlStatements(InputStream)
+     * @since   1.6
+     */
+    public static Stream<String> getSqlStatements(Path file) {
+        try {
+            return getSqlStatements(new SqlScanner(MappedFileReader.open(file, Charset.defaultCharset()), true));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Execute all statements within a SQL script.
+     *
+     * Statements are read with {@link #getSqlStatements(InputStream)} and
+     * passed to {@link JdbcTemplate#batchUpdate(String...)} in batches of
+     * {@code batchSize} statements, a script is never read wholly into memory.
+     *
+     * The input stream will be closed once the script has been executed.
+     *
+     * @param   jt
+     *          Template to execute statements with.
+     * @param   is
+     *          Input stream containing SQL content.
+     * @param   batchSize
+     *          Maximum number of statements sent to the database per batch.
+     * @return  Number of statements executed.
+     * @throws  IllegalArgumentException
+     *          if {@code batchSize} is less than one.
+     * @throws  UncheckedIOException
+     *          if the input could not be read.
+     * @throws  org.springframework.dao.DataAccessException
+     *          if a statement could not be executed.
+     * @since   1.6
+     */
+    public static int executeScript(JdbcTemplate jt, InputStream is, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be greater than zero.");
+        }
+        int count = 0;
+        try (Stream<String> stmts = getSqlStatements(is)) {
+            List<String> batch = new ArrayList<>(Math.min(batchSize, 1024));
+            Iterator<String> it = stmts.iterator();
+            while (it.hasNext()) {
+                batch.add(it.next());
+                if (batch.size() == batchSize || !it.hasNext()) {
+                    jt.batchUpdate(batch.toArray(new String[batch.size()]));
+                    count += batch.size();
+                    batch.clear();
                 }
             }
+        }
+        return count;
+    }
+
+    /**
+     * Execute all statements within a SQL script file.
+     *
+     * @param   jt
+     *          Template to execute statements with.
+     * @param   file
+     *          File containing SQL content.
+     * @param   batchSize
+     *          Maximum number of statements sent to the database per batch.
+     * @return  Number of statements executed.
+     * @see     #executeScript(JdbcTemplate, InputStream, int)
+     * @since   1.6
+     */
+    public static int executeScript(JdbcTemplate jt, Path file, int batchSize) {
+        try {
+            return executeScript(jt, Files.newInputStream(file), batchSize);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Insert rows in batches sized from the measured insert rate.
+     *
+     * Rows are read from the iterator a batch at a time and sent as multi-row
+     * {@code INSERT ... VALUES (...), (...)} statements, limited to 2000
+     * parameters each, or as JDBC batches of up to 8192 rows. Batches begin at
+     * 64 rows and are doubled or halved after each batch, moving towards the
+     * size giving the highest rows per second. Multi-row statements suit most
+     * databases, JDBC batches suit drivers that rewrite batches themselves.
+     *
+     * Table and column names are included in the SQL as is and must not come
+     * from untrusted input. No transaction is started, callers should execute
+     * within one so that the load is atomic and is not committed per batch.
+     *
+     * <h2>Example</h2>
+     *
+     * <pre>
+     * {@code
+     *  long n = holder.execute((template, status) -> JdbcHelper.bulkInsert(
+     *          template, "customer", new String[]{"id", "name"}, customers.iterator(),
+     *          (ps, i, c) -> {
+     *              ps.setLong(i, c.getId());
+     *              ps.setString(i + 1, c.getName());
+     *          }, true));
+     * }
+     * </pre>
+     *
+     * @param   <T>
+     *          Row type.
+     * @param   jt
+     *          Template to execute statements with.
+     * @param   table
+     *          Table to insert to.
+     * @param   columns
+     *          Columns to insert.
+     * @param   rows
+     *          Rows to insert.
+     * @param   binder
+     *          Binder setting the columns of each row.
+     * @param   multiRow
+     *          True to use multi-row statements, false for JDBC batches.
+     * @return  Number of rows inserted.
+     * @throws  IllegalArgumentException
+     *          if no columns are given.
+     * @throws  org.springframework.dao.DataAccessException
+     *          if a batch could not be inserted.
+     * @see     #loadCsv(JdbcTemplate, String, Path, String...)
+     * @since   1.6
+     */
+    public static <T> long bulkInsert(JdbcTemplate jt,
+                                      String table,
+                                      String[] columns,
+                                      Iterator<? extends T> rows,
+                                      ColumnBinder<? super T> binder,
+                                      boolean multiRow) {
+        return new BulkInserter<T>(jt, table, columns, binder, multiRow).insert(rows);
+    }
+
+    /**
+     * Load a CSV file into an H2 table.
+     *
+     * The file is read by the database with {@code CSVREAD} and inserted with
+     * {@code INSERT ... DIRECT SELECT}, bypassing statement parameters and the
+     * undo log, which loads large files far faster than inserting rows through
+     * JDBC. The first line of the file must be a header naming its columns.
+     *
+     * @param   jt
+     *          Template to execute the load with, which must be connected to
+     *          H2.
+     * @param   table
+     *          Table to insert to.
+     * @param   file
+     *          UTF-8 encoded CSV file accessible to the database.
+     * @param   columns
+     *          Columns to load, named as in both the header and table, or none
+     *          to load all columns in table order.
+     * @return  Number of rows inserted.
+     * @throws  org.springframework.dao.InvalidDataAccessApiUsageException
+     *          if the database is not H2.
+     * @throws  org.springframework.dao.DataAccessException
+     *          if the file could not be loaded.
+     * @see     #bulkInsert(JdbcTemplate, String, String[], Iterator, ColumnBinder, boolean)
+     * @since   1.6
+     */
+    public static long loadCsv(JdbcTemplate jt, String table, Path file, String... columns) {
+        Boolean h2 = jt.execute((ConnectionCallback<Boolean>) con
+                -> "H2".equals(con.getMetaData().getDatabaseProductName()));
+        if (!Boolean.TRUE.equals(h2)) {
+            throw new InvalidDataAccessApiUsageException("CSV loading requires an H2 database");
+        }
+        // Table functions are evaluated when the statement is prepared, the
+        // file name can not be a parameter.
+        String source = " from csvread('" + file.toAbsolutePath().toString().replace("'", "''") +
+                        "', null, 'charset=UTF-8')";
+        if (columns.length == 0) {
+            return jt.update("insert into " + table + " direct select *" + source);
+        }
+        String cols = String.join(", ", columns);
+        return jt.update("insert into " + table + " (" + cols + ") direct select " + cols + source);
+    }
+
+    /**
+     * Returns a {@link ResultSetExtractor} writing each row to a JSON generator
+     * as it is read.
+     *
+     * Rows are written as a JSON array of objects keyed by column label. Values
+     * are written according to the column type, with dates and times as
+     * ISO-8601 strings and binary columns as base64. The generator is flushed
+     * after the first row and every {@code flushRows} rows after, so output is
+     * sent as it is produced and no more than the current row is held in
+     * memory. The extractor returns the number of rows written.
+     *
+     * @param   gen
+     *          Generator to write to.
+     * @param   flushRows
+     *          Rows written between each flush.
+     * @return  {@link ResultSetExtractor} writing to {@code gen}
+     * @throws  IllegalArgumentException
+     *          if {@code flushRows} is less than 1.
+     * @see     JdbcHolder#writeJson(java.io.OutputStream, String, Object...)
+     * @since   1.6
+     */
+    public static ResultSetExtractor<Long> jsonExtractor(JsonGenerator gen, int flushRows) {
+        return new JsonRowWriter<>(gen, null, flushRows);
+    }
+
+    /**
+     * Returns a {@link ResultSetExtractor} writing the result of a row mapper
+     * for each row to a JSON generator as it is read.
+     *
+     * Mapped rows are serialised with the codec of the generator as elements
+     * of a JSON array.
+     *
+     * @param   <T>
+     *          Mapped row type.
+     * @param   gen
+     *          Generator to write to, which must have a codec.
+     * @param   mapper
+     *          Mapper for each row.
+     * @param   flushRows
+     *          Rows written between each flush.
+     * @return  {@link ResultSetExtractor} writing to {@code gen}
+     * @throws  IllegalArgumentException
+     *          if {@code flushRows} is less than 1.
+     * @see     #jsonExtractor(JsonGenerator, int)
+     * @since   1.6
+     */
+    public static <T> ResultSetExtractor<Long> jsonExtractor(JsonGenerator gen, RowMapper<T> mapper, int flushRows) {
+        return new JsonRowWriter<>(gen, mapper, flushRows);
+    }
+
+    /**
+     * Set a CLOB parameter from content written as it is produced.
+     *
+     * A CLOB is created on the connection of the statement and the content is
+     * written directly to it, so large values such as stack traces are not
+     * built as a string first. The returned CLOB should be freed once the
+     * statement has executed.
+     *
+     * Drivers that do not support creating a CLOB, such as PostgreSQL, raise
+     * {@link SQLFeatureNotSupportedException}. The content is then written to
+     * a buffer set as a character stream, and null is returned.
+     *
+     * <h2>Example</h2>
+     *
+     * <pre>
+     * {@code
+     *  Clob trace = JdbcHelper.setClob(ps, 3, w -> {
+     *      PrintWriter pw = new PrintWriter(w);
+     *      ex.printStackTrace(pw);
+     *      pw.flush();
+     *  });
+     *  try {
+     *      ps.executeUpdate();
+     *  } finally {
+     *      if (trace != null) {
+     *          trace.free();
+     *      }
+     *  }
+     * }
+     * </pre>
+     *
+     * @param   ps
+     *          Statement to set the parameter of.
+     * @param   index
+     *          Parameter index.
+     * @param   content
+     *          Content to write.
+     * @return  CLOB set as the parameter, or null if the driver does not
+     *          support creating a CLOB.
+     * @throws  SQLException
+     *          if the CLOB could not be created or set.
+     * @throws  UncheckedIOException
+     *          if the content could not be written.
+     * @since   1.6
+     */
+    public static Clob setClob(PreparedStatement ps, int index, LobContent<Writer> content)
+            throws SQLException {
+        Clob clob = createClob(ps);
+        if (clob == null) {
+            CharArrayWriter buf = new CharArrayWriter();
+            try {
+                content.writeTo(buf);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex.getMessage(), ex);
+            }
+            ps.setCharacterStream(index, new CharArrayReader(buf.toCharArray()), buf.size());
+            return null;
+        }
+        return setClob(ps, index, clob, content);
+    }
+
+    /**
+     * Set a CLOB parameter from a reader.
+     *
+     * The reader is copied to the CLOB through a fixed size buffer and is not
+     * closed. The returned CLOB should be freed once the statement has
+     * executed.
+     *
+     * Drivers that do not support creating a CLOB are given the reader as a
+     * character stream instead and null is returned, the reader must then
+     * remain open until the statement has executed.
+     *
+     * @param   ps
+     *          Statement to set the parameter of.
+     * @param   index
+     *          Parameter index.
+     * @param   in
+     *          Reader to copy.
+     * @return  CLOB set as the parameter, or null if the driver does not
+     *          support creating a CLOB.
+     * @throws  SQLException
+     *          if the CLOB could not be created or set.
+     * @throws  UncheckedIOException
+     *          if the reader could not be read.
+     * @see     #setClob(PreparedStatement, int, LobContent)
+     * @since   1.6
+     */
+    public static Clob setClob(PreparedStatement ps, int index, Reader in) throws SQLException {
+        Clob clob = createClob(ps);
+        if (clob == null) {
+            ps.setCharacterStream(index, in);
+            return null;
+        }
+        return setClob(ps, index, clob, w -> copy(in, w));
+    }
+
+    /**
+     * Set a BLOB parameter from content written as it is produced.
+     *
+     * The returned BLOB should be freed once the statement has executed.
+     *
+     * Drivers that do not support creating a BLOB, such as PostgreSQL, raise
+     * {@link SQLFeatureNotSupportedException}. The content is then written to
+     * a buffer set as a binary stream, and null is returned.
+     *
+     * @param   ps
+     *          Statement to set the parameter of.
+     * @param   index
+     *          Parameter index.
+     * @param   content
+     *          Content to write.
+     * @return  BLOB set as the parameter, or null if the driver does not
+     *          support creating a BLOB.
+     * @throws  SQLException
+     *          if the BLOB could not be created or set.
+     * @throws  UncheckedIOException
+     *          if the content could not be written.
+     * @see     #setClob(PreparedStatement, int, LobContent)
+     * @since   1.6
+     */
+    public static Blob setBlob(PreparedStatement ps, int index, LobContent<OutputStream> content)
+            throws SQLException {
+        Blob blob = createBlob(ps);
+        if (blob == null) {
+            ByteArrayOutputStream buf = new ByteArrayOutputStream();
+            try {
+                content.writeTo(buf);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex.getMessage(), ex);
+            }
+            ps.setBinaryStream(index, new ByteArrayInputStream(buf.toByteArray()), buf.size());
+            return null;
+        }
+        return setBlob(ps, index, blob, content);
+    }
+
+    /**
+     * Set a BLOB parameter from an input stream.
+     *
+     * The stream is copied to the BLOB through a fixed size buffer and is not
+     * closed. The returned BLOB should be freed once the statement has
+     * executed.
+     *
+     * Drivers that do not support creating a BLOB are given the stream as a
+     * binary stream instead and null is returned, the stream must then remain
+     * open until the statement has executed.
+     *
+     * @param   ps
+     *          Statement to set the parameter of.
+     * @param   index
+     *          Parameter index.
+     * @param   in
+     *          Stream to copy.
+     * @return  BLOB set as the parameter, or null if the driver does not
+     *          support creating a BLOB.
+     * @throws  SQLException
+     *          if the BLOB could not be created or set.
+     * @throws  UncheckedIOException
+     *          if the stream could not be read.
+     * @see     #setBlob(PreparedStatement, int, LobContent)
+     * @since   1.6
+     */
+    public static Blob setBlob(PreparedStatement ps, int index, InputStream in) throws SQLException {
+        Blob blob = createBlob(ps);
+        if (blob == null) {
+            ps.setBinaryStream(index, in);
+            return null;
+        }
+        return setBlob(ps, index, blob, os -> copy(in, os));
+    }
+
+    /**
+     * Copy a character column of the current row to a writer.
+     *
+     * The value is read from the character stream of the column through a
+     * fixed size buffer rather than as a string, so a large CLOB is never held
+     * in memory as a whole. The writer is not closed.
+     *
+     * @param   rs
+     *          Result set positioned on the row to read.
+     * @param   col
+     *          Column index.
+     * @param   out
+     *          Writer to copy to.
+     * @return  Number of characters copied, or -1 if the value was SQL
+     *          {@code NULL}.
+     * @throws  SQLException
+     *          if the column could not be read.
+     * @throws  UncheckedIOException
+     *          if the value could not be copied.
+     * @since   1.6
+     */
+    public static long readClob(ResultSet rs, int col, Writer out) throws SQLException {
+        try (Reader in = rs.getCharacterStream(col)) {
+            return in == null ? -1 : copy(in, out);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Copy a binary column of the current row to an output stream.
+     *
+     * The value is read from the binary stream of the column through a fixed
+     * size buffer. The output stream is not closed.
+     *
+     * @param   rs
+     *          Result set positioned on the row to read.
+     * @param   col
+     *          Column index.
+     * @param   out
+     *          Stream to copy to.
+     * @return  Number of bytes copied, or -1 if the value was SQL
+     *          {@code NULL}.
+     * @throws  SQLException
+     *          if the column could not be read.
+     * @throws  UncheckedIOException
+     *          if the value could not be copied.
+     * @see     #readClob(ResultSet, int, Writer)
+     * @since   1.6
+     */
+    public static long readBlob(ResultSet rs, int col, OutputStream out) throws SQLException {
+        try (InputStream in = rs.getBinaryStream(col)) {
+            return in == null ? -1 : copy(in, out);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Returns a {@link RowMapper} retrieving a CLOB column as a handle to its
+     * value.
+     *
+     * The value is not read until requested from the handle, allowing rows
+     * with large values to be mapped without reading every value. A handle is
+     * only valid until the transaction it was read within ends and must be
+     * read within it.
+     *
+     * @param   col
+     *          Column index.
+     * @return  {@link RowMapper} returning a {@link Clob}, or null for SQL
+     *          {@code NULL}.
+     * @see     #readClob(ResultSet, int, Writer)
+     * @since   1.6
+     */
+    public static RowMapper<Clob> clobMapper(int col) {
+        return (rs, i) -> rs.getClob(col);
+    }
+
+    /**
+     * Returns a {@link RowMapper} retrieving a CLOB column as a handle to its
+     * value.
+     *
+     * @param   col
+     *          Column label.
+     * @return  {@link RowMapper} returning a {@link Clob}, or null for SQL
+     *          {@code NULL}.
+     * @see     #clobMapper(int)
+     * @since   1.6
+     */
+    public static RowMapper<Clob> clobMapper(String col) {
+        return (rs, i) -> rs.getClob(col);
+    }
+
+    /**
+     * Returns a {@link RowMapper} retrieving a BLOB column as a handle to its
+     * value.
+     *
+     * A handle is only valid until the transaction it was read within ends and
+     * must be read within it.
+     *
+     * @param   col
+     *          Column index.
+     * @return  {@link RowMapper} returning a {@link Blob}, or null for SQL
+     *          {@code NULL}.
+     * @see     #clobMapper(int)
+     * @since   1.6
+     */
+    public static RowMapper<Blob> blobMapper(int col) {
+        return (rs, i) -> rs.getBlob(col);
+    }
+
+    /**
+     * Returns a {@link RowMapper} retrieving a BLOB column as a handle to its
+     * value.
+     *
+     * @param   col
+     *          Column label.
+     * @return  {@link RowMapper} returning a {@link Blob}, or null for SQL
+     *          {@code NULL}.
+     * @see     #blobMapper(int)
+     * @since   1.6
+     */
+    public static RowMapper<Blob> blobMapper(String col) {
+        return (rs, i) -> rs.getBlob(col);
+    }
+
+    /**
+     * Create a CLOB on the connection of a statement, null if the driver does
+     * not support creating one.
+     */
+    private static Clob createClob(PreparedStatement ps) throws SQLException {
+        try {
+            return ps.getConnection().createClob();
+        } catch (SQLFeatureNotSupportedException ex) {
+            return null;
+        }
+    }
+
+    private static Clob setClob(PreparedStatement ps, int index, Clob clob, LobContent<Writer> content)
+            throws SQLException {
+        try {
+            try (Writer w = clob.setCharacterStream(1)) {
+                content.writeTo(w);
+            }
+            ps.setClob(index, clob);
+            return clob;
+        } catch (IOException ex) {
+            clob.free();
+            throw new UncheckedIOException(ex.getMessage(), ex);
+        } catch (SQLException | RuntimeException ex) {
+            clob.free();
+            throw ex;
+        }
+    }
 
-            switch (state) {
-                case ISA_MINUS:
-                    res.append('-');
-                    break;
-                case ISA_SLASH:
-                    res.append('/');
-                    break;
+    /**
+     * Create a BLOB on the connection of a statement, null if the driver does
+     * not support creating one.
+     */
+    private static Blob createBlob(PreparedStatement ps) throws SQLException {
+        try {
+            return ps.getConnection().createBlob();
+        } catch (SQLFeatureNotSupportedException ex) {
+            return null;
+        }
+    }
+
+    private static Blob setBlob(PreparedStatement ps, int index, Blob blob, LobContent<OutputStream> content)
+            throws SQLException {
+        try {
+            try (OutputStream os = blob.setBinaryStream(1)) {
+                content.writeTo(os);
             }
+            ps.setBlob(index, blob);
+            return blob;
         } catch (IOException ex) {
+            blob.free();
             throw new UncheckedIOException(ex.getMessage(), ex);
+        } catch (SQLException | RuntimeException ex) {
+            blob.free();
+            throw ex;
+        }
+    }
+
+    private static long copy(Reader in, Writer out) throws IOException {
+        char[] buf = new char[LOB_BUFFER_SIZE];
+        long count = 0;
+        int n;
+        while ((n = in.read(buf)) != -1) {
+            out.write(buf, 0, n);
+            count += n;
         }
-        return res.toString();
+        return count;
+    }
+
+    private static long copy(InputStream in, OutputStream out) throws IOException {
+        byte[] buf = new byte[LOB_BUFFER_SIZE];
+        long count = 0;
+        int n;
+        while ((n = in.read(buf)) != -1) {
+            out.write(buf, 0, n);
+            count += n;
+        }
+        return count;
     }
 
     public static RowMapper<Boolean> booleanMapper(int col) {
@@ -335,6 +891,99 @@ public class JdbcHelper {
         return (rs, i) -> rs.getURL(col);
     }
 
+    /**
+     * Returns a {@link RowMapper} that constructs {@code type} from each row.
+     *
+     * Columns are passed positionally to the public constructor of
+     * {@code type} whose parameter count matches the column count, each value
+     * is read with the getter appropriate to the parameter type. The mapping
+     * is built with method handles once per type and column layout and shared
+     * between mappers.
+     *
+     * <h2>Example</h2>
+     *
+     * <pre>
+     * {@code
+     *  List<UserUsageSummary> res = jt.query(
+     *          "select username, min(request_date), max(request_date), count(*) from ...",
+     *          constructorMapper(UserUsageSummary.class));
+     * }
+     * </pre>
+     *
+     * @param   <T>
+     *          Type to construct.
+     * @param   type
+     *          Type to construct.
+     * @return  {@link RowMapper} for {@code type}
+     * @throws  org.springframework.dao.InvalidDataAccessApiUsageException
+     *          on mapping a row if a single matching constructor is not found.
+     * @since   1.6
+     */
+    public static <T> RowMapper<T> constructorMapper(Class<T> type) {
+        return new CompiledRowMapper<>(type, false);
+    }
+
+    /**
+     * Returns a {@link RowMapper} that creates a {@code type} bean and sets its
+     * properties from each row.
+     *
+     * Columns are matched to writable properties by label ignoring case and
+     * underscores, so {@code request_date} populates {@code requestDate};
+     * unmatched columns are ignored. The mapping is built with method handles
+     * once per type and column layout and shared between mappers, avoiding the
+     * per row reflection of {@link org.springframework.jdbc.core.BeanPropertyRowMapper}.
+     *
+     * @param   <T>
+     *          Type to create.
+     * @param   type
+     *          Type with a public no-argument constructor.
+     * @return  {@link RowMapper} for {@code type}
+     * @throws  org.springframework.dao.InvalidDataAccessApiUsageException
+     *          on mapping a row if {@code type} can not be instantiated.
+     * @since   1.6
+     */
+    public static <T> RowMapper<T> beanMapper(Class<T> type) {
+        return new CompiledRowMapper<>(type, true);
+    }
+
+    /**
+     * Returns a {@link ResultSetExtractor} mapping every row with a mapper
+     * created once per result set.
+     *
+     * The label based mappers such as {@link #stringMapper(String)} search for
+     * their column on every row. A factory may instead resolve labels with
+     * {@link ResultSet#findColumn(String)} before the first row and read each
+     * row by index, such as with {@link #stringMapper(int)} or
+     * {@link #getIntegerZeroNull(ResultSet, int)}.
+     *
+     * <h2>Example</h2>
+     *
+     * <pre>
+     * {@code
+     *  List<String> names = jt.query("select id, name from customer",
+     *                                resolvingExtractor(rs -> stringMapper(rs.findColumn("name"))));
+     * }
+     * </pre>
+     *
+     * @param   <T>
+     *          Type of each row.
+     * @param   factory
+     *          Creates the mapper for each result set.
+     * @return  {@link ResultSetExtractor} returning the mapped rows.
+     * @since   1.6
+     */
+    public static <T> ResultSetExtractor<List<T>> resolvingExtractor(RowMapperFactory<? extends T> factory) {
+        return rs -> {
+            RowMapper<? extends T> mapper = factory.create(rs);
+            List<T> res = new ArrayList<>();
+            int row = 0;
+            while (rs.next()) {
+                res.add(mapper.mapRow(rs, row++));
+            }
+            return res;
+        };
+    }
+
     /**
      * Given a {@link RowMapper} will return a {@link ResultSetExtractor} that returns a single result or null.
      *
@@ -366,6 +1015,90 @@ public class JdbcHelper {
         return rs -> rs.next() ? Optional.of(mapper.mapRow(rs, 1)) : Optional.empty();
     }
 
+    /**
+     * Returns a {@link ResultSetExtractor} reading a single column into {@code int} values without boxing.
+     *
+     * @param   col
+     *          the first column is 1, the second is 2, ...
+     * @return  {@link ResultSetExtractor} for {@code col}
+     * @see     ColumnarExtractor
+     * @since   1.6
+     */
+    public static ResultSetExtractor<IntColumn> intColumnExtractor(int col) {
+        ColumnarExtractor ex = new ColumnarExtractor().intColumn(col);
+        return rs -> ex.extractData(rs).getIntColumn(0);
+    }
+
+    /**
+     * Returns a {@link ResultSetExtractor} reading a single column into {@code int} values without boxing.
+     *
+     * @param   col
+     *          Column label, resolved to an index once per result set.
+     * @return  {@link ResultSetExtractor} for {@code col}
+     * @see     ColumnarExtractor
+     * @since   1.6
+     */
+    public static ResultSetExtractor<IntColumn> intColumnExtractor(String col) {
+        ColumnarExtractor ex = new ColumnarExtractor().intColumn(col);
+        return rs -> ex.extractData(rs).getIntColumn(0);
+    }
+
+    /**
+     * Returns a {@link ResultSetExtractor} reading a single column into {@code long} values without boxing.
+     *
+     * @param   col
+     *          the first column is 1, the second is 2, ...
+     * @return  {@link ResultSetExtractor} for {@code col}
+     * @see     ColumnarExtractor
+     * @since   1.6
+     */
+    public static ResultSetExtractor<LongColumn> longColumnExtractor(int col) {
+        ColumnarExtractor ex = new ColumnarExtractor().longColumn(col);
+        return rs -> ex.extractData(rs).getLongColumn(0);
+    }
+
+    /**
+     * Returns a {@link ResultSetExtractor} reading a single column into {@code long} values without boxing.
+     *
+     * @param   col
+     *          Column label, resolved to an index once per result set.
+     * @return  {@link ResultSetExtractor} for {@code col}
+     * @see     ColumnarExtractor
+     * @since   1.6
+     */
+    public static ResultSetExtractor<LongColumn> longColumnExtractor(String col) {
+        ColumnarExtractor ex = new ColumnarExtractor().longColumn(col);
+        return rs -> ex.extractData(rs).getLongColumn(0);
+    }
+
+    /**
+     * Returns a {@link ResultSetExtractor} reading a single column into {@code double} values without boxing.
+     *
+     * @param   col
+     *          the first column is 1, the second is 2, ...
+     * @return  {@link ResultSetExtractor} for {@code col}
+     * @see     ColumnarExtractor
+     * @since   1.6
+     */
+    public static ResultSetExtractor<DoubleColumn> doubleColumnExtractor(int col) {
+        ColumnarExtractor ex = new ColumnarExtractor().doubleColumn(col);
+        return rs -> ex.extractData(rs).getDoubleColumn(0);
+    }
+
+    /**
+     * Returns a {@link ResultSetExtractor} reading a single column into {@code double} values without boxing.
+     *
+     * @param   col
+     *          Column label, resolved to an index once per result set.
+     * @return  {@link ResultSetExtractor} for {@code col}
+     * @see     ColumnarExtractor
+     * @since   1.6
+     */
+    public static ResultSetExtractor<DoubleColumn> doubleColumnExtractor(String col) {
+        ColumnarExtractor ex = new ColumnarExtractor().doubleColumn(col);
+        return rs -> ex.extractData(rs).getDoubleColumn(0);
+    }
+
     /**
      * Return an {@link java.lang.Boolean} preserving null values from the {@code ResultSet}.
      *
@@ -488,6 +1221,30 @@ public class JdbcHelper {
         return rs.wasNull() || res == 0 ? null : res;
     }
 
+    /**
+     * Return an {@link java.lang.Byte} preserving null values from the {@code ResultSet}.
+     *
+     * This method will return null if the call to {@link ResultSet#wasNull()} is true
+     * or the value is zero.
+     *
+     * @param   rs
+     *          ResultSet to retrieve the value from.
+     * @param   columnIndex
+     *          the first column is 1, the second is 2, ...
+     * @return  the column value; if the value is SQL {@code NULL}, the value
+     *          returned is {@code null}.
+     *
+     * @throws  SQLException
+     *          if the columnIndex is not valid; if a database access error
+     *          occurs or this method is called on a closed result set.
+     *
+     * @since   1.6
+     */
+    public static Byte getByteZeroNull(ResultSet rs, int columnIndex) throws SQLException {
+        Byte res = rs.getByte(columnIndex);
+        return rs.wasNull() || res == 0 ? null : res;
+    }
+
     /**
      * Return an {@link java.lang.Double} preserving null values from the {@code ResultSet}.
      *
@@ -562,6 +1319,30 @@ public class JdbcHelper {
         return rs.wasNull() || res == 0.0d ? null : res;
     }
 
+    /**
+     * Return an {@link java.lang.Double} preserving null values from the {@code ResultSet}.
+     *
+     * This method will return null if the call to {@link ResultSet#wasNull()} is true
+     * or the value is zero.
+     *
+     * @param   rs
+     *          ResultSet to retrieve the value from.
+     * @param   columnIndex
+     *          the first column is 1, the second is 2, ...
+     * @return  the column value; if the value is SQL {@code NULL}, the value
+     *          returned is {@code null}.
+     *
+     * @throws  SQLException
+     *          if the columnIndex is not valid; if a database access error
+     *          occurs or this method is called on a closed result set.
+     *
+     * @since   1.6
+     */
+    public static Double getDoubleZeroNull(ResultSet rs, int columnIndex) throws SQLException {
+        Double res = rs.getDouble(columnIndex);
+        return rs.wasNull() || res == 0.0d ? null : res;
+    }
+
     /**
      * Return an {@link java.lang.Float} preserving null values from the {@code ResultSet}.
      *
@@ -636,6 +1417,30 @@ public class JdbcHelper {
         return rs.wasNull() || res == 0.0f ? null : res;
     }
 
+    /**
+     * Return an {@link java.lang.Float} preserving null values from the {@code ResultSet}.
+     *
+     * This method will return null if the call to {@link ResultSet#wasNull()} is true
+     * or the value is zero.
+     *
+     * @param   rs
+     *          ResultSet to retrieve the value from.
+     * @param   columnIndex
+     *          the first column is 1, the second is 2, ...
+     * @return  the column value; if the value is SQL {@code NULL}, the value
+     *          returned is {@code null}.
+     *
+     * @throws  SQLException
+     *          if the columnIndex is not valid; if a database access error
+     *          occurs or this method is called on a closed result set.
+     *
+     * @since   1.6
+     */
+    public static Float getFloatZeroNull(ResultSet rs, int columnIndex) throws SQLException {
+        Float res = rs.getFloat(columnIndex);
+        return rs.wasNull() || res == 0.0f ? null : res;
+    }
+
     /**
      * Return an {@link java.lang.Integer} preserving null values from the {@code ResultSet}.
      *
@@ -710,6 +1515,30 @@ public class JdbcHelper {
         return rs.wasNull() || res == 0 ? null : res;
     }
 
+    /**
+     * Return an {@link java.lang.Integer} preserving null values from the {@code ResultSet}.
+     *
+     * This method will return null if the call to {@link ResultSet#wasNull()} is true
+     * or the value is zero.
+     *
+     * @param   rs
+     *          ResultSet to retrieve the value from.
+     * @param   columnIndex
+     *          the first column is 1, the second is 2, ...
+     * @return  the column value; if the value is SQL {@code NULL}, the value
+     *          returned is {@code null}.
+     *
+     * @throws  SQLException
+     *          if the columnIndex is not valid; if a database access error
+     *          occurs or this method is called on a closed result set.
+     *
+     * @since   1.6
+     */
+    public static Integer getIntegerZeroNull(ResultSet rs, int columnIndex) throws SQLException {
+        Integer res = rs.getInt(columnIndex);
+        return rs.wasNull() || res == 0 ? null : res;
+    }
+
     /**
      * Return an {@link java.lang.Long} preserving null values from the {@code ResultSet}.
      *
@@ -784,6 +1613,30 @@ public class JdbcHelper {
         return rs.wasNull() || res == 0 ? null : res;
     }
 
+    /**
+     * Return an {@link java.lang.Long} preserving null values from the {@code ResultSet}.
+     *
+     * This method will return null if the call to {@link ResultSet#wasNull()} is true
+     * or the value is zero.
+     *
+     * @param   rs
+     *          ResultSet to retrieve the value from.
+     * @param   columnIndex
+     *          the first column is 1, the second is 2, ...
+     * @return  the column value; if the value is SQL {@code NULL}, the value
+     *          returned is {@code null}.
+     *
+     * @throws  SQLException
+     *          if the columnIndex is not valid; if a database access error
+     *          occurs or this method is called on a closed result set.
+     *
+     * @since   1.6
+     */
+    public static Long getLongZeroNull(ResultSet rs, int columnIndex) throws SQLException {
+        Long res = rs.getLong(columnIndex);
+        return rs.wasNull() || res == 0 ? null : res;
+    }
+
     /**
      * Return an {@link java.lang.Short} preserving null values from the {@code ResultSet}.
      *
@@ -835,4 +1688,28 @@ public class JdbcHelper {
         return rs.wasNull() || res == 0 ? null : res;
     }
 
+    /**
+     * Return an {@link java.lang.Short} preserving null values from the {@code ResultSet}.
+     *
+     * This method will return null if the call to {@link ResultSet#wasNull()} is true
+     * or the value is zero.
+     *
+     * @param   rs
+     *          ResultSet to retrieve the value from.
+     * @param   columnIndex
+     *          the first column is 1, the second is 2, ...
+     * @return  the column value; if the value is SQL {@code NULL}, the value
+     *          returned is {@code null}.
+     *
+     * @throws  SQLException
+     *          if the columnIndex is not valid; if a database access error
+     *          occurs or this method is called on a closed result set.
+     *
+     * @since   1.6
+     */
+    public static Short getShortZeroNull(ResultSet rs, int columnIndex) throws SQLException {
+        Short res = rs.getShort(columnIndex);
+        return rs.wasNull() || res == 0 ? null : res;
+    }
+
 }
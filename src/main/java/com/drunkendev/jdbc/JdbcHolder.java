@@ -18,15 +18,49 @@
 
 package com.drunkendev.jdbc;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.ObjectCodec;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import javax.sql.DataSource;
 import org.springframework.dao.DataAccessException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.RowMapperResultSetExtractor;
+import org.springframework.jdbc.core.SqlProvider;
 import org.springframework.jdbc.datasource.DataSourceTransactionManager;
 import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.transaction.support.TransactionTemplate;
 
 
@@ -40,10 +74,44 @@ import org.springframework.transaction.support.TransactionTemplate;
  */
 public class JdbcHolder {
 
-    private final JdbcTemplate jdbcTemplate;
+    /**
+     * Default fetch size used by {@link #stream(String, RowMapper, Object...)}.
+     *
+     * @since   1.6
+     */
+    public static final int DEFAULT_STREAM_FETCH_SIZE = 1000;
+
+    /**
+     * Default number of asynchronous executions run at once when the data
+     * source is not a {@link PooledDataSource}.
+     *
+     * @since   1.6
+     */
+    public static final int DEFAULT_ASYNC_CONCURRENCY = 10;
+
+    private static final int MAX_CACHED_TEMPLATES = 64;
+    private static final AtomicInteger ASYNC_THREAD_ID = new AtomicInteger();
+
+    private volatile JdbcTemplate jdbcTemplate;
     private final DataSourceTransactionManager transactionManager;
+    private final LongAdder started = new LongAdder();
+    private final LongAdder committed = new LongAdder();
+    private final LongAdder rolledBack = new LongAdder();
+    private final LatencyHistogram commitLatency = new LatencyHistogram();
+    private final LatencyHistogram rollbackLatency = new LatencyHistogram();
+    private final LatencyHistogram callbackLatency = new LatencyHistogram();
+    private final AtomicReference<CachedTemplate[]> templates = new AtomicReference<>(new CachedTemplate[0]);
+    private final Map<String, TransactionTemplate> namedTemplates = new ConcurrentHashMap<>();
     private TransactionTemplate defaultTransactionTemplate;
     private TransactionTemplate readOnlyTransactionTemplate;
+    private int streamFetchSize = DEFAULT_STREAM_FETCH_SIZE;
+    private volatile ResultCache resultCache;
+    private volatile StatementMetrics statementMetrics;
+    private volatile ForkJoinPool partitionPool;
+    private boolean ownsPartitionPool;
+    private Executor asyncDelegate;
+    private int asyncConcurrency;
+    private volatile LimitingExecutor asyncExecutor;
 
     /**
      * Creates a new {@code JdbcHolder} instance for a {@link DataSource}.
@@ -62,13 +130,21 @@ public class JdbcHolder {
      *          JDBC Template to create a holder for.
      */
     public JdbcHolder(JdbcTemplate jdbcTemplate) {
+        this(jdbcTemplate, new DataSourceTransactionManager(jdbcTemplate.getDataSource()));
+    }
+
+    /**
+     * Creates a new {@code JdbcHolder} instance sharing the transaction
+     * manager of another holder.
+     */
+    JdbcHolder(JdbcTemplate jdbcTemplate, DataSourceTransactionManager transactionManager) {
         DefaultTransactionDefinition readOnlyDef;
 
         readOnlyDef = new DefaultTransactionDefinition();
         readOnlyDef.setIsolationLevel(TransactionDefinition.ISOLATION_READ_UNCOMMITTED);
         readOnlyDef.setReadOnly(true);
 
-        this.transactionManager = new DataSourceTransactionManager(jdbcTemplate.getDataSource());
+        this.transactionManager = transactionManager;
         this.jdbcTemplate = jdbcTemplate;
         this.defaultTransactionTemplate = new TransactionTemplate(transactionManager);
         this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager, readOnlyDef);
@@ -98,9 +174,183 @@ public class JdbcHolder {
         this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager, def);
     }
 
+    /**
+     * Register a transaction definition to be used by name.
+     *
+     * Registering a definition under an existing name replaces it.
+     *
+     * @param   name
+     *          Name of the definition.
+     * @param   def
+     *          Definition to register.
+     * @see     #executeNamed(String, BiFunction)
+     * @since   1.6
+     */
+    public void registerTransactionDefinition(String name, TransactionDefinition def) {
+        namedTemplates.put(name, new TransactionTemplate(transactionManager, def));
+    }
+
+    /**
+     * Set the fetch size used for streamed queries.
+     *
+     * @param   streamFetchSize
+     *          Number of rows fetched from the database at a time.
+     * @see     #stream(String, RowMapper, Object...)
+     * @since   1.6
+     */
+    public void setStreamFetchSize(int streamFetchSize) {
+        this.streamFetchSize = streamFetchSize;
+    }
+
+    /**
+     * Set a cache for results of {@link #executeReadOnlyCached(String, RowMapper, Object...)}.
+     *
+     * Setting a cache replaces the JDBC template of this holder with one that
+     * reports the statements it executes so that writes made through this
+     * holder invalidate cached results, the replacement template copies the
+     * configuration of the original. Templates obtained from
+     * {@link #getJdbcTemplate()} before a cache is set do not report writes
+     * and should be obtained again.
+     *
+     * A cache may be shared between holders of the same data source.
+     *
+     * @param   resultCache
+     *          Cache to use, or null to disable caching.
+     * @see     ResultCache
+     * @since   1.6
+     */
+    public void setResultCache(ResultCache resultCache) {
+        if (resultCache != null) {
+            observe();
+        }
+        this.resultCache = resultCache;
+    }
+
+    /**
+     * Set metrics to record each statement executed through this holder.
+     *
+     * Setting metrics replaces the JDBC template of this holder with one that
+     * reports the statements it executes, the replacement template copies the
+     * configuration of the original. Templates obtained from
+     * {@link #getJdbcTemplate()} before metrics are set are not recorded and
+     * should be obtained again.
+     *
+     * @param   statementMetrics
+     *          Metrics to record to, or null to stop recording.
+     * @see     StatementMetrics
+     * @since   1.6
+     */
+    public void setStatementMetrics(StatementMetrics statementMetrics) {
+        if (statementMetrics != null) {
+            observe();
+        }
+        this.statementMetrics = statementMetrics;
+    }
+
+    /**
+     * Retrieve the statement metrics for this holder.
+     *
+     * @return  Statement metrics, or null if not recording.
+     * @since   1.6
+     */
+    public StatementMetrics getStatementMetrics() {
+        return statementMetrics;
+    }
+
+    /**
+     * Retrieve the result cache for this holder.
+     *
+     * @return  Result cache, or null if caching is not enabled.
+     * @since   1.6
+     */
+    public ResultCache getResultCache() {
+        return resultCache;
+    }
+
+    /**
+     * Set the pool used to execute partitioned queries.
+     *
+     * The pool splits partitions and merges their results, the partitions
+     * themselves are executed through the async executor so that the number
+     * of connections used at once is limited by the async concurrency. When
+     * not set a pool with parallelism equal to the async concurrency is
+     * created on first use, its worker threads are daemon threads that exit
+     * once idle so it needs no shutting down. The created pool is shut down when replaced by this method or
+     * when the async concurrency is changed, a pool given to this method is
+     * never shut down by the holder.
+     *
+     * @param   partitionPool
+     *          Pool for partitioned queries.
+     * @see     #executePartitioned(String, long, long, int, ResultSetExtractor, BinaryOperator, Object...)
+     * @since   1.6
+     */
+    public synchronized void setPartitionPool(ForkJoinPool partitionPool) {
+        releasePartitionPool();
+        this.partitionPool = partitionPool;
+    }
+
+    /**
+     * Set the executor that asynchronous executions are run on.
+     *
+     * No more than the async concurrency of executions are handed to the
+     * executor at once, others wait in a queue without holding a thread. The
+     * executor may therefore be one that creates a thread per task, such as a
+     * virtual thread executor where available.
+     *
+     * When not set a cached pool of daemon threads is created on first use.
+     *
+     * @param   executor
+     *          Executor for asynchronous executions.
+     * @see     #executeAsync(BiFunction)
+     * @since   1.6
+     */
+    public synchronized void setAsyncExecutor(Executor executor) {
+        this.asyncDelegate = executor;
+        this.asyncExecutor = null;
+    }
+
+    /**
+     * Set the maximum number of asynchronous executions run at once.
+     *
+     * This should not exceed the maximum size of the connection pool of the
+     * data source. Defaults to the maximum size of the pool when the data
+     * source is a {@link PooledDataSource}, otherwise to
+     * {@value #DEFAULT_ASYNC_CONCURRENCY} which should be lowered when the
+     * pool of another data source is smaller.
+     *
+     * @param   concurrency
+     *          Maximum concurrent executions.
+     * @throws  IllegalArgumentException
+     *          if {@code concurrency} is less than 1.
+     * @since   1.6
+     */
+    public synchronized void setAsyncConcurrency(int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be at least 1.");
+        }
+        this.asyncConcurrency = concurrency;
+        this.asyncExecutor = null;
+        if (ownsPartitionPool) {
+            releasePartitionPool();
+            this.partitionPool = null;
+        }
+    }
+
     /**
      * Gets the JDBC Template definition for this connection.
      *
+     * The template is replaced by one that reports the statements it executes
+     * the first time a result cache or statement metrics are set, or an
+     * execution with a timeout is made. Statements executed through a
+     * template obtained before the replacement are not recorded, do not
+     * invalidate cached results and are not limited by a timeout, so the
+     * template should be obtained again after any of these rather than held.
+     *
+     * The replacement copies the configuration of the original, including its
+     * native JDBC extractor, but is not a subclass of it. Behaviour added by a
+     * subclass of {@link JdbcTemplate} the holder was created with is not
+     * kept once replaced.
+     *
      * @return  JDBC Template for this holder.
      */
     public JdbcTemplate getJdbcTemplate() {
@@ -122,8 +372,9 @@ public class JdbcHolder {
      * The callback function will be passed a {@link JdbcTemplate} instance for
      * JDBC execution and a {@link TransactionStatus} for transactional support.
      *
-     * Note that this method will create a new {@link TransactionDefinition}
-     * instance to execute the query with.
+     * A {@link TransactionTemplate} is created the first time a definition
+     * with a given set of attributes is used and is reused for all following
+     * executions with the same attributes.
      *
      * <h2>Example</h2>
      *
@@ -153,8 +404,45 @@ public class JdbcHolder {
     public <T> T execute(TransactionDefinition def,
                          BiFunction<JdbcTemplate, TransactionStatus, T> callback)
             throws DataAccessException {
-        return new TransactionTemplate(transactionManager, def)
-                .execute(ts -> callback.apply(jdbcTemplate, ts));
+        return run(template(def), callback);
+    }
+
+    /**
+     * Execute a callback to return a result using a registered transaction
+     * definition.
+     *
+     * <h2>Example</h2>
+     *
+     * <pre>
+     * {@code
+     *  holder.registerTransactionDefinition("reporting", reportingDef);
+     *  List<Customer> custs = holder.executeNamed("reporting", (template, status)
+     *        -> template.query("select * from customer", MAPPER_CUSTOMER));
+     * }
+     * </pre>
+     *
+     * @param   <T>
+     *          Return type
+     * @param   name
+     *          Name of a definition previously registered.
+     * @param   callback
+     *          Function used to perform the data access operation.
+     * @return  Result of the {@code callback} function.
+     * @throws  DataAccessException
+     *          if an underlying data access error occurs.
+     * @throws  IllegalArgumentException
+     *          if no definition has been registered with the given name.
+     * @see     #registerTransactionDefinition(String, TransactionDefinition)
+     * @since   1.6
+     */
+    public <T> T executeNamed(String name,
+                              BiFunction<JdbcTemplate, TransactionStatus, T> callback)
+            throws DataAccessException {
+        TransactionTemplate tt = namedTemplates.get(name);
+        if (tt == null) {
+            throw new IllegalArgumentException("No transaction definition registered as " + name);
+        }
+        return run(tt, callback);
     }
 
     /**
@@ -189,7 +477,7 @@ public class JdbcHolder {
      */
     public <T> T execute(BiFunction<JdbcTemplate, TransactionStatus, T> callback)
             throws DataAccessException {
-        return defaultTransactionTemplate.execute(ts -> callback.apply(jdbcTemplate, ts));
+        return run(defaultTransactionTemplate, callback);
     }
 
     /**
@@ -219,8 +507,8 @@ public class JdbcHolder {
      */
     public void executeVoid(BiConsumer<JdbcTemplate, TransactionStatus> callback)
             throws DataAccessException {
-        defaultTransactionTemplate.execute(ts -> {
-            callback.accept(jdbcTemplate, ts);
+        run(defaultTransactionTemplate, (jt, ts) -> {
+            callback.accept(jt, ts);
             return null;
         });
     }
@@ -257,7 +545,7 @@ public class JdbcHolder {
      */
     public <T> T executeReadOnly(BiFunction<JdbcTemplate, TransactionStatus, T> callback)
             throws DataAccessException {
-        return readOnlyTransactionTemplate.execute(ts -> callback.apply(jdbcTemplate, ts));
+        return run(readOnlyTransactionTemplate, callback);
     }
 
     /**
@@ -279,10 +567,738 @@ public class JdbcHolder {
      * @see     #executeVoid(BiConsumer)
      */
     public void executeReadOnlyVoid(BiConsumer<JdbcTemplate, TransactionStatus> callback) throws DataAccessException {
-        readOnlyTransactionTemplate.execute(ts -> {
-            callback.accept(jdbcTemplate, ts);
+        run(readOnlyTransactionTemplate, (jt, ts) -> {
+            callback.accept(jt, ts);
             return null;
         });
     }
 
+    /**
+     * Execute a callback to return a result which must complete within a
+     * timeout.
+     *
+     * The transaction timeout is set from the timeout rounded up to whole
+     * seconds and the query timeout of each statement is limited to the time
+     * remaining when it is executed. Statements still executing when the
+     * timeout elapses are cancelled. Timeouts of nested executions never extend
+     * beyond that of an enclosing execution.
+     *
+     * The JDBC template is replaced with one that tracks statements the first
+     * time this is called, as when a result cache is set, see
+     * {@link #getJdbcTemplate()}.
+     *
+     * <h2>Example</h2>
+     *
+     * <pre>
+     * {@code
+     *  try {
+     *      return holder.execute(Duration.ofMillis(500), (template, status)
+     *            -> template.update("update customer set name = ? where id = ?",
+     *                               name, id));
+     *  } catch (DeadlineExceededException ex) {
+     *      response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+     *  }
+     * }
+     * </pre>
+     *
+     * @param   <T>
+     *          Return type
+     * @param   timeout
+     *          Time the execution must complete within.
+     * @param   callback
+     *          Function used to perform the data access operation.
+     * @return  Result of the {@code callback} function.
+     * @throws  DeadlineExceededException
+     *          if the timeout elapsed before the execution completed.
+     * @throws  DataAccessException
+     *          if an underlying data access error occurs.
+     * @since   1.6
+     */
+    public <T> T execute(Duration timeout,
+                         BiFunction<JdbcTemplate, TransactionStatus, T> callback)
+            throws DataAccessException {
+        return runWithin(timeout, defaultTransactionTemplate, callback);
+    }
+
+    /**
+     * Execute a callback to return a result with read only transactions which
+     * must complete within a timeout.
+     *
+     * @param   <T>
+     *          Return type
+     * @param   timeout
+     *          Time the execution must complete within.
+     * @param   callback
+     *          Function used to perform the data access operation.
+     * @return  Result of the {@code callback} function.
+     * @throws  DeadlineExceededException
+     *          if the timeout elapsed before the execution completed.
+     * @throws  DataAccessException
+     *          if an underlying data access error occurs.
+     * @see     #execute(Duration, BiFunction)
+     * @since   1.6
+     */
+    public <T> T executeReadOnly(Duration timeout,
+                                 BiFunction<JdbcTemplate, TransactionStatus, T> callback)
+            throws DataAccessException {
+        return runWithin(timeout, readOnlyTransactionTemplate, callback);
+    }
+
+    /**
+     * Execute a read-only query, serving the result from the result cache
+     * where possible.
+     *
+     * Results are cached by SQL, arguments and row mapper, row mappers should
+     * therefore be held as constants. Where no cache has been set, or a
+     * transaction that is not read-only is active, the query is always
+     * executed.
+     *
+     * <h2>Example</h2>
+     *
+     * <pre>
+     * {@code
+     *  holder.setResultCache(new ResultCache(1000, Duration.ofMinutes(5)));
+     *  List<Country> countries = holder.executeReadOnlyCached(
+     *          "select * from country where region = ?", MAPPER_COUNTRY, region);
+     * }
+     * </pre>
+     *
+     * @param   <T>
+     *          Row type.
+     * @param   sql
+     *          Query to execute.
+     * @param   mapper
+     *          Mapper for each row.
+     * @param   args
+     *          Arguments to bind to the query.
+     * @return  Unmodifiable list of mapped rows, which may be shared with
+     *          other callers.
+     * @throws  DataAccessException
+     *          if an underlying data access error occurs.
+     * @see     #setResultCache(ResultCache)
+     * @since   1.6
+     */
+    public <T> List<T> executeReadOnlyCached(String sql, RowMapper<T> mapper, Object... args)
+            throws DataAccessException {
+        ResultCache rc = resultCache;
+        if (rc == null ||
+            (TransactionSynchronizationManager.isActualTransactionActive() &&
+             !TransactionSynchronizationManager.isCurrentTransactionReadOnly())) {
+            return executeReadOnly((jt, ts) -> jt.query(sql, mapper, args));
+        }
+        return rc.get(sql, mapper, args, () -> executeReadOnly((jt, ts) -> jt.query(sql, mapper, args)));
+    }
+
+    /**
+     * Execute a query over a key range split into partitions executed in
+     * parallel, merging the result of each partition.
+     *
+     * The last two parameters of the query must be the inclusive lower bound
+     * and exclusive upper bound of a partition of the key, and follow any
+     * other arguments. Each partition is executed with
+     * {@link #executeReadOnly(BiFunction)} through the async executor of this
+     * holder, and so within its own transaction and connection. Partitions do
+     * not join any transaction active on the calling thread.
+     *
+     * Partitions share the async concurrency with asynchronous executions, so
+     * together they use no more connections than that limit. This method must
+     * therefore not be called from an asynchronous execution of this holder,
+     * where the partitions would wait on executions that wait on them, and is
+     * rejected if it is. Nor should it be called within a transaction holding
+     * a connection of the data source when the async concurrency is the size
+     * of its pool, as the partitions then compete for one connection fewer.
+     *
+     * <h2>Example</h2>
+     *
+     * <pre>
+     * {@code
+     *  long total = holder.executePartitioned(
+     *          "select sum(duration) from user_history where status = ? and id >= ? and id < ?",
+     *          minId, maxId + 1, 8,
+     *          rs -> rs.next() ? rs.getLong(1) : 0L,
+     *          Long::sum,
+     *          status);
+     * }
+     * </pre>
+     *
+     * @param   <A>
+     *          Result type.
+     * @param   sql
+     *          Query ending with parameters for the partition bounds.
+     * @param   min
+     *          Inclusive lower bound of the key range.
+     * @param   max
+     *          Exclusive upper bound of the key range.
+     * @param   partitions
+     *          Number of partitions to split the range into, reduced if the
+     *          range contains fewer keys.
+     * @param   extractor
+     *          Extractor for the result of each partition.
+     * @param   combiner
+     *          Associative function merging the results of two adjacent
+     *          partitions, the lower partition is given first.
+     * @param   args
+     *          Arguments preceding the partition bounds.
+     * @return  Merged result of all partitions.
+     * @throws  DataAccessException
+     *          if an underlying data access error occurs in any partition.
+     * @throws  InvalidDataAccessApiUsageException
+     *          if called from an asynchronous execution of this holder.
+     * @see     #setPartitionPool(ForkJoinPool)
+     * @since   1.6
+     */
+    public <A> A executePartitioned(String sql,
+                                    long min,
+                                    long max,
+                                    int partitions,
+                                    ResultSetExtractor<A> extractor,
+                                    BinaryOperator<A> combiner,
+                                    Object... args)
+            throws DataAccessException {
+        LimitingExecutor executor = asyncExecutor();
+        if (executor.isRunningTask()) {
+            throw new InvalidDataAccessApiUsageException(
+                    "Partitioned queries may not be executed from an asynchronous execution of the same holder");
+        }
+        return partitionPool().invoke(
+                PartitionTask.of(this, executor, sql, args, extractor, combiner, min, max, partitions));
+    }
+
+    /**
+     * Execute a query over a key range split into partitions executed in
+     * parallel, returning the rows of all partitions in key order.
+     *
+     * @param   <T>
+     *          Row type.
+     * @param   sql
+     *          Query ending with parameters for the partition bounds.
+     * @param   min
+     *          Inclusive lower bound of the key range.
+     * @param   max
+     *          Exclusive upper bound of the key range.
+     * @param   partitions
+     *          Number of partitions to split the range into.
+     * @param   mapper
+     *          Mapper for each row.
+     * @param   args
+     *          Arguments preceding the partition bounds.
+     * @return  Rows of all partitions, ordered by partition.
+     * @throws  DataAccessException
+     *          if an underlying data access error occurs in any partition.
+     * @see     #executePartitioned(String, long, long, int, ResultSetExtractor, BinaryOperator, Object...)
+     * @since   1.6
+     */
+    public <T> List<T> executePartitioned(String sql,
+                                          long min,
+                                          long max,
+                                          int partitions,
+                                          RowMapper<T> mapper,
+                                          Object... args)
+            throws DataAccessException {
+        return executePartitioned(sql, min, max, partitions, new RowMapperResultSetExtractor<>(mapper), (a, b) -> {
+            List<T> res = new ArrayList<>(a.size() + b.size());
+            res.addAll(a);
+            res.addAll(b);
+            return res;
+        }, args);
+    }
+
+    /**
+     * Retrieve transaction counts and latencies for executions of this holder.
+     *
+     * Streams and executions made directly against the {@link JdbcTemplate}
+     * are not included.
+     *
+     * @return  Point in time statistics.
+     * @since   1.6
+     */
+    public JdbcHolderStats getStats() {
+        return new JdbcHolderStats(started.sum(),
+                                   committed.sum(),
+                                   rolledBack.sum(),
+                                   commitLatency.snapshot(),
+                                   rollbackLatency.snapshot(),
+                                   callbackLatency.snapshot());
+    }
+
+    /**
+     * Execute a callback asynchronously to return a result.
+     *
+     * The callback is executed as with {@link #execute(BiFunction)} on the
+     * async executor of this holder, it does not join any transaction active
+     * on the calling thread.
+     *
+     * <h2>Example</h2>
+     *
+     * <pre>
+     * {@code
+     *  CompletableFuture<List<Customer>> custs = holder.executeAsync((template, status)
+     *        -> template.query("select * from customer", MAPPER_CUSTOMER));
+     * }
+     * </pre>
+     *
+     * @param   <T>
+     *          Return type
+     * @param   callback
+     *          Function used to perform the data access operation.
+     * @return  Future completed with the result of the {@code callback}
+     *          function, or exceptionally with any error raised.
+     * @see     #setAsyncExecutor(Executor)
+     * @see     #setAsyncConcurrency(int)
+     * @since   1.6
+     */
+    public <T> CompletableFuture<T> executeAsync(BiFunction<JdbcTemplate, TransactionStatus, T> callback) {
+        return asyncExecutor().supply(() -> execute(callback));
+    }
+
+    /**
+     * Execute a callback asynchronously to return a result with read only
+     * transactions.
+     *
+     * The callback is executed as with {@link #executeReadOnly(BiFunction)} on
+     * the async executor of this holder, it does not join any transaction
+     * active on the calling thread.
+     *
+     * <h2>Example</h2>
+     *
+     * <pre>
+     * {@code
+     *  CompletableFuture<List<Customer>> custs = holder.executeReadOnlyAsync((template, status)
+     *        -> template.query("select * from customer", MAPPER_CUSTOMER));
+     *  CompletableFuture<List<Order>> orders = other.executeReadOnlyAsync((template, status)
+     *        -> template.query("select * from orders", MAPPER_ORDER));
+     *  custs.thenCombine(orders, Report::new).thenAccept(this::render);
+     * }
+     * </pre>
+     *
+     * @param   <T>
+     *          Return type
+     * @param   callback
+     *          Function used to perform the data access operation.
+     * @return  Future completed with the result of the {@code callback}
+     *          function, or exceptionally with any error raised.
+     * @see     #setAsyncExecutor(Executor)
+     * @see     #setAsyncConcurrency(int)
+     * @since   1.6
+     */
+    public <T> CompletableFuture<T> executeReadOnlyAsync(BiFunction<JdbcTemplate, TransactionStatus, T> callback) {
+        return asyncExecutor().supply(() -> executeReadOnly(callback));
+    }
+
+    /**
+     * Execute a query returning a lazily fetched stream of mapped rows.
+     *
+     * Rows are read from an open cursor as the stream is consumed, allowing
+     * very large results to be processed with constant memory. Unless a Spring
+     * managed transaction is already active the query is executed within a
+     * read-only transaction of its own using the read-only transaction
+     * definition for this holder.
+     *
+     * The returned stream holds a connection until it is closed or fully
+     * consumed and must be used within a try-with-resources statement.
+     *
+     * <h2>Example</h2>
+     *
+     * <pre>
+     * {@code
+     *  try (Stream<Customer> custs = holder.stream("select * from customer", MAPPER_CUSTOMER)) {
+     *      custs.forEach(writer::write);
+     *  }
+     * }
+     * </pre>
+     *
+     * @param   <T>
+     *          Row type.
+     * @param   sql
+     *          Query to execute.
+     * @param   mapper
+     *          Mapper for each row.
+     * @param   args
+     *          Arguments to bind to the query.
+     * @return  Stream of mapped rows.
+     * @throws  DataAccessException
+     *          if the query could not be executed, or from terminal operations
+     *          if a row could not be read.
+     * @see     #setStreamFetchSize(int)
+     * @since   1.6
+     */
+    public <T> Stream<T> stream(String sql, RowMapper<T> mapper, Object... args)
+            throws DataAccessException {
+        return stream(streamFetchSize, sql, mapper, args);
+    }
+
+    /**
+     * Execute a query returning a lazily fetched stream of mapped rows.
+     *
+     * @param   <T>
+     *          Row type.
+     * @param   fetchSize
+     *          Number of rows fetched from the database at a time.
+     * @param   sql
+     *          Query to execute.
+     * @param   mapper
+     *          Mapper for each row.
+     * @param   args
+     *          Arguments to bind to the query.
+     * @return  Stream of mapped rows which must be closed.
+     * @throws  DataAccessException
+     *          if the query could not be executed, or from terminal operations
+     *          if a row could not be read.
+     * @see     #stream(String, RowMapper, Object...)
+     * @since   1.6
+     */
+    public <T> Stream<T> stream(int fetchSize, String sql, RowMapper<T> mapper, Object... args)
+            throws DataAccessException {
+        CursorSpliterator<T> cursor = new CursorSpliterator<>(
+                jdbcTemplate.getDataSource(), jdbcTemplate.getExceptionTranslator(),
+                readOnlyTransactionTemplate, fetchSize, sql, mapper, args);
+        return StreamSupport.stream(cursor, false).onClose(cursor::close);
+    }
+
+    /**
+     * Execute a read-only query writing each row as JSON to an output stream
+     * as it is fetched.
+     *
+     * Rows are written as a JSON array of objects keyed by column label as
+     * described by {@link JdbcHelper#jsonExtractor(JsonGenerator, int)}. Rows
+     * are fetched from the database using the stream fetch size and output is
+     * flushed every fetch, so a large export begins sending immediately and
+     * uses constant memory however many rows it has. The output stream is
+     * flushed but not closed.
+     *
+     * <h2>Example</h2>
+     *
+     * <pre>
+     * {@code
+     *  response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+     *  holder.writeJson(response.getOutputStream(),
+     *                   "select id, username, request_date from user_history");
+     * }
+     * </pre>
+     *
+     * @param   out
+     *          Stream to write to, such as a servlet output stream.
+     * @param   sql
+     *          Query to execute.
+     * @param   args
+     *          Arguments to the query.
+     * @return  Number of rows written.
+     * @throws  java.io.UncheckedIOException
+     *          if the output could not be written, such as when a client
+     *          disconnects.
+     * @throws  DataAccessException
+     *          if an underlying data access error occurs.
+     * @since   1.6
+     */
+    public long writeJson(OutputStream out, String sql, Object... args) throws DataAccessException {
+        return writeJson(out, null, sql, null, args);
+    }
+
+    /**
+     * Execute a read-only query writing the result of a row mapper for each row
+     * as JSON to an output stream as it is fetched.
+     *
+     * Mapped rows are serialised with {@code codec}, typically the
+     * {@code ObjectMapper} of the application, as elements of a JSON array.
+     *
+     * @param   <T>
+     *          Mapped row type.
+     * @param   out
+     *          Stream to write to, such as a servlet output stream.
+     * @param   codec
+     *          Codec to serialise mapped rows with.
+     * @param   sql
+     *          Query to execute.
+     * @param   mapper
+     *          Mapper for each row.
+     * @param   args
+     *          Arguments to the query.
+     * @return  Number of rows written.
+     * @throws  java.io.UncheckedIOException
+     *          if the output could not be written, such as when a client
+     *          disconnects.
+     * @throws  DataAccessException
+     *          if an underlying data access error occurs.
+     * @see     #writeJson(OutputStream, String, Object...)
+     * @since   1.6
+     */
+    public <T> long writeJson(OutputStream out, ObjectCodec codec, String sql, RowMapper<T> mapper, Object... args)
+            throws DataAccessException {
+        int fetchSize = streamFetchSize;
+        return executeReadOnly((jt, ts) -> {
+            try (JsonGenerator gen = JsonRowWriter.createGenerator(out)) {
+                gen.setCodec(codec);
+                return jt.query(new FetchingStatementCreator(sql, fetchSize),
+                                new ArgumentPreparedStatementSetter(args),
+                                new JsonRowWriter<>(gen, mapper, fetchSize > 0 ? fetchSize : DEFAULT_STREAM_FETCH_SIZE));
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex.getMessage(), ex);
+            }
+        });
+    }
+
+    /**
+     * Create a writer that groups small writes into shared transactions.
+     *
+     * Each group is written using the default transaction definition of this
+     * holder. The writer owns a thread and must be closed when no longer
+     * required.
+     *
+     * @param   maxBatchSize
+     *          Maximum number of statements written in one transaction.
+     * @param   maxDelay
+     *          Maximum time a statement may wait for others to join its group,
+     *          {@link Duration#ZERO} groups only statements already queued.
+     * @return  New writer.
+     * @throws  IllegalArgumentException
+     *          if {@code maxBatchSize} is less than 1 or {@code maxDelay} is
+     *          negative.
+     * @see     BatchWriter
+     * @since   1.6
+     */
+    public BatchWriter createBatchWriter(int maxBatchSize, Duration maxDelay) {
+        return new BatchWriter(this, maxBatchSize, maxDelay);
+    }
+
+    /**
+     * Executor of asynchronous executions and partitions of this holder.
+     */
+    LimitingExecutor asyncExecutor() {
+        LimitingExecutor res = asyncExecutor;
+        if (res == null) {
+            synchronized (this) {
+                res = asyncExecutor;
+                if (res == null) {
+                    if (asyncDelegate == null) {
+                        asyncDelegate = Executors.newCachedThreadPool(r -> {
+                            Thread t = new Thread(r, "JdbcHolder-async-" + ASYNC_THREAD_ID.incrementAndGet());
+                            t.setDaemon(true);
+                            return t;
+                        });
+                    }
+                    res = new LimitingExecutor(asyncDelegate, asyncConcurrency());
+                    asyncExecutor = res;
+                }
+            }
+        }
+        return res;
+    }
+
+    private ForkJoinPool partitionPool() {
+        ForkJoinPool res = partitionPool;
+        if (res == null) {
+            synchronized (this) {
+                res = partitionPool;
+                if (res == null) {
+                    res = new ForkJoinPool(asyncConcurrency());
+                    partitionPool = res;
+                    ownsPartitionPool = true;
+                }
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Async concurrency set, or the maximum size of a {@link PooledDataSource}
+     * when not set.
+     */
+    private int asyncConcurrency() {
+        if (asyncConcurrency > 0) {
+            return asyncConcurrency;
+        }
+        DataSource ds = jdbcTemplate.getDataSource();
+        return ds instanceof PooledDataSource
+               ? ((PooledDataSource) ds).getStats().getMaxSize()
+               : DEFAULT_ASYNC_CONCURRENCY;
+    }
+
+    /**
+     * Shut down the partition pool if created by this holder, partitions
+     * already submitted still complete.
+     */
+    private void releasePartitionPool() {
+        if (ownsPartitionPool) {
+            partitionPool.shutdown();
+            ownsPartitionPool = false;
+        }
+    }
+
+    private synchronized ObservedJdbcTemplate observe() {
+        if (!(jdbcTemplate instanceof ObservedJdbcTemplate)) {
+            ObservedJdbcTemplate ojt = new ObservedJdbcTemplate(jdbcTemplate);
+            ojt.addObserver((sql, args, nanos, rows, error) -> {
+                StatementMetrics sm = statementMetrics;
+                if (sm != null) {
+                    sm.record(sql, args, nanos, rows, error);
+                }
+                ResultCache rc = resultCache;
+                if (rc != null) {
+                    rc.written(sql);
+                }
+            });
+            jdbcTemplate = ojt;
+        }
+        return (ObservedJdbcTemplate) jdbcTemplate;
+    }
+
+    /**
+     * Retrieve the cached template for the attributes of a definition,
+     * creating it if not yet cached.
+     *
+     * Few distinct definitions are expected so they are held in an array that
+     * is searched without allocating, and copied when a definition is added.
+     */
+    TransactionTemplate template(TransactionDefinition def) {
+        CachedTemplate[] cached = templates.get();
+        for (CachedTemplate c : cached) {
+            if (c.matches(def)) {
+                return c.template;
+            }
+        }
+        CachedTemplate res = new CachedTemplate(new TransactionTemplate(transactionManager, def));
+        // Guard against unbounded growth from callers creating many distinct
+        // definitions, these are simply not cached.
+        while (cached.length < MAX_CACHED_TEMPLATES) {
+            CachedTemplate[] next = Arrays.copyOf(cached, cached.length + 1);
+            next[cached.length] = res;
+            if (templates.compareAndSet(cached, next)) {
+                break;
+            }
+            cached = templates.get();
+            for (CachedTemplate c : cached) {
+                if (c.matches(def)) {
+                    return c.template;
+                }
+            }
+        }
+        return res.template;
+    }
+
+    private <T> T runWithin(Duration timeout,
+                            TransactionTemplate base,
+                            BiFunction<JdbcTemplate, TransactionStatus, T> callback) {
+        if (timeout.isNegative() || timeout.isZero()) {
+            throw new DeadlineExceededException("Deadline of " + timeout + " exceeded before execution");
+        }
+        observe();
+        try (CallDeadline deadline = CallDeadline.start(timeout)) {
+            int seconds = deadline.remainingSeconds();
+            if (seconds == 0) {
+                throw new DeadlineExceededException("Deadline of " + timeout + " exceeded before execution");
+            }
+            TransactionTemplate tt = base;
+            if (base.getTimeout() == TransactionDefinition.TIMEOUT_DEFAULT || base.getTimeout() > seconds) {
+                // Built per call rather than cached, as each remaining time
+                // would otherwise take a slot of the shared template cache.
+                tt = new TransactionTemplate(transactionManager, base);
+                tt.setTimeout(seconds);
+            }
+            try {
+                return run(tt, callback);
+            } catch (DeadlineExceededException ex) {
+                throw ex;
+            } catch (RuntimeException ex) {
+                if (deadline.isExpired()) {
+                    throw new DeadlineExceededException("Deadline of " + timeout + " exceeded", ex);
+                }
+                throw ex;
+            }
+        }
+    }
+
+    private <T> T run(TransactionTemplate tt,
+                      BiFunction<JdbcTemplate, TransactionStatus, T> callback) {
+        long start = System.nanoTime();
+        TransactionStatus[] status = new TransactionStatus[1];
+        boolean ok = false;
+        try {
+            T res = tt.execute(ts -> {
+                status[0] = ts;
+                if (ts.isNewTransaction()) {
+                    started.increment();
+                }
+                long cbStart = System.nanoTime();
+                try {
+                    return callback.apply(jdbcTemplate, ts);
+                } finally {
+                    callbackLatency.record(System.nanoTime() - cbStart);
+                }
+            });
+            ok = !status[0].isRollbackOnly();
+            return res;
+        } finally {
+            if (status[0] != null && status[0].isNewTransaction()) {
+                long elapsed = System.nanoTime() - start;
+                if (ok) {
+                    committed.increment();
+                    commitLatency.record(elapsed);
+                } else {
+                    rolledBack.increment();
+                    rollbackLatency.record(elapsed);
+                }
+            }
+        }
+    }
+
+
+    private static final class FetchingStatementCreator implements PreparedStatementCreator, SqlProvider {
+
+        private final String sql;
+        private final int fetchSize;
+
+        FetchingStatementCreator(String sql, int fetchSize) {
+            this.sql = sql;
+            this.fetchSize = fetchSize;
+        }
+
+        @Override
+        public PreparedStatement createPreparedStatement(Connection con) throws SQLException {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            if (fetchSize > 0) {
+                ps.setFetchSize(fetchSize);
+            }
+            return ps;
+        }
+
+        @Override
+        public String getSql() {
+            return sql;
+        }
+
+    }
+
+
+    /**
+     * Template cached for the attributes of the definition it was created
+     * with.
+     */
+    private static final class CachedTemplate {
+
+        private final TransactionTemplate template;
+        private final int propagation;
+        private final int isolation;
+        private final int timeout;
+        private final boolean readOnly;
+        private final String name;
+
+        CachedTemplate(TransactionTemplate template) {
+            this.template = template;
+            this.propagation = template.getPropagationBehavior();
+            this.isolation = template.getIsolationLevel();
+            this.timeout = template.getTimeout();
+            this.readOnly = template.isReadOnly();
+            this.name = template.getName();
+        }
+
+        boolean matches(TransactionDefinition def) {
+            return propagation == def.getPropagationBehavior() &&
+                   isolation == def.getIsolationLevel() &&
+                   timeout == def.getTimeout() &&
+                   readOnly == def.isReadOnly() &&
+                   Objects.equals(name, def.getName());
+        }
+
+    }
+
 }
@@ -0,0 +1,142 @@
+/*
+ * JdbcHolderStats.java    Oct 16 2026, 22:00
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.jdbc;
+
+
+/**
+ * Point in time statistics of a {@link JdbcHolder}.
+ *
+ * Transaction counts and latencies only include executions that began a new
+ * transaction, executions that joined an existing transaction are included
+ * in the callback latency only.
+ *
+ * @author  Brett Ryan
+ * @since   1.6
+ */
+public class JdbcHolderStats {
+
+    private final long startedCount;
+    private final long committedCount;
+    private final long rolledBackCount;
+    private final LatencyHistogram.Snapshot commitLatency;
+    private final LatencyHistogram.Snapshot rollbackLatency;
+    private final LatencyHistogram.Snapshot callbackLatency;
+
+    JdbcHolderStats(long startedCount,
+                    long committedCount,
+                    long rolledBackCount,
+                    LatencyHistogram.Snapshot commitLatency,
+                    LatencyHistogram.Snapshot rollbackLatency,
+                    LatencyHistogram.Snapshot callbackLatency) {
+        this.startedCount = startedCount;
+        this.committedCount = committedCount;
+        this.rolledBackCount = rolledBackCount;
+        this.commitLatency = commitLatency;
+        this.rollbackLatency = rollbackLatency;
+        this.callbackLatency = callbackLatency;
+    }
+
+    /**
+     * Number of transactions started.
+     *
+     * @return  Started count.
+     */
+    public long getStartedCount() {
+        return startedCount;
+    }
+
+    /**
+     * Number of transactions committed.
+     *
+     * @return  Committed count.
+     */
+    public long getCommittedCount() {
+        return committedCount;
+    }
+
+    /**
+     * Number of transactions rolled back, including those whose commit failed.
+     *
+     * @return  Rolled back count.
+     */
+    public long getRolledBackCount() {
+        return rolledBackCount;
+    }
+
+    /**
+     * Number of transactions currently in progress.
+     *
+     * @return  Active count.
+     */
+    public long getActiveCount() {
+        return Math.max(0, startedCount - committedCount - rolledBackCount);
+    }
+
+    /**
+     * Time from beginning to the end of each committed transaction.
+     *
+     * @return  Committed transaction latency.
+     */
+    public LatencyHistogram.Snapshot getCommitLatency() {
+        return commitLatency;
+    }
+
+    /**
+     * Time from beginning to the end of each rolled back transaction.
+     *
+     * @return  Rolled back transaction latency.
+     */
+    public LatencyHistogram.Snapshot getRollbackLatency() {
+        return rollbackLatency;
+    }
+
+    /**
+     * Time spent within callbacks.
+     *
+     * @return  Callback latency.
+     */
+    public LatencyHistogram.Snapshot getCallbackLatency() {
+        return callbackLatency;
+    }
+
+    /**
+     * Combine with the statistics of another holder.
+     */
+    JdbcHolderStats merge(JdbcHolderStats other) {
+        return new JdbcHolderStats(startedCount + other.startedCount,
+                                   committedCount + other.committedCount,
+                                   rolledBackCount + other.rolledBackCount,
+                                   commitLatency.merge(other.commitLatency),
+                                   rollbackLatency.merge(other.rollbackLatency),
+                                   callbackLatency.merge(other.callbackLatency));
+    }
+
+    @Override
+    public String toString() {
+        return "JdbcHolderStats{" +
+               "startedCount=" + startedCount +
+               ", committedCount=" + committedCount +
+               ", rolledBackCount=" + rolledBackCount +
+               ", commitLatency={" + commitLatency + '}' +
+               ", rollbackLatency={" + rollbackLatency + '}' +
+               ", callbackLatency={" + callbackLatency + '}' +
+               '}';
+    }
+
+}
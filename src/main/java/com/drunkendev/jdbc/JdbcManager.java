@@ -18,8 +18,13 @@
 
 package com.drunkendev.jdbc;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
 import javax.sql.DataSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,32 +38,44 @@ import static org.apache.commons.lang3.StringUtils.upperCase;
  * {@link org.springframework.transaction.support.TransactionTemplate TransactionTemplate}
  * where an application may have multiple JDBC connections.
  *
+ * Holders are kept in an immutable map which is replaced as a whole whenever
+ * holders are added or set, lookups are lock-free and always see a complete
+ * set of holders.
+ *
  * @author  Brett Ryan
  * @since   1.0
  */
 public class JdbcManager {
 
     private static final Logger LOG = LoggerFactory.getLogger(JdbcManager.class);
-    private final Map<String, JdbcHolder> holders;
+    private volatile Map<String, JdbcHolder> holders;
+    private volatile StatementMetrics statementMetrics;
 
     /**
      * Creates a new {@code JdbcManager} instance.
      */
     public JdbcManager() {
-        holders = new HashMap<>();
+        holders = Collections.emptyMap();
     }
 
     /**
      * Set all holders to those passed in.
      *
+     * The existing holders are replaced in a single step, executions in
+     * progress continue with the holder they obtained.
+     *
      * @param   holders
      *          Holder entries to set this instance to.
      */
-    public void setHolders(Map<String, JdbcHolder> holders) {
-        this.holders.clear();
+    public synchronized void setHolders(Map<String, JdbcHolder> holders) {
+        Map<String, JdbcHolder> res = new HashMap<>();
         if (holders != null) {
-            holders.forEach((k, v) -> this.holders.put(trimToEmpty(k).toUpperCase(), v));
+            holders.forEach((k, v) -> res.put(trimToEmpty(k).toUpperCase(), v));
         }
+        if (statementMetrics != null) {
+            res.values().forEach(h -> h.setStatementMetrics(statementMetrics));
+        }
+        this.holders = Collections.unmodifiableMap(res);
     }
 
     /**
@@ -74,8 +91,14 @@ public class JdbcManager {
      * @param   dataSource
      *          Data source to add holder for.
      */
-    public void add(String key, DataSource dataSource) {
-        this.holders.put(trimToEmpty(key).toUpperCase(), new JdbcHolder(dataSource));
+    public synchronized void add(String key, DataSource dataSource) {
+        JdbcHolder holder = new JdbcHolder(dataSource);
+        // Held with setStatementMetrics so the holder is not published without
+        // metrics set concurrently.
+        if (statementMetrics != null) {
+            holder.setStatementMetrics(statementMetrics);
+        }
+        update(m -> m.put(trimToEmpty(key).toUpperCase(), holder));
     }
 
     /**
@@ -89,4 +112,78 @@ public class JdbcManager {
         return holders.get(upperCase(key));
     }
 
+    /**
+     * Adds a holder that routes read-only executions across replica holders.
+     *
+     * The primary and replica holders must already have been added, the new
+     * holder is stored against {@code key} and replaces any existing holder.
+     *
+     * @param   key
+     *          Key to store the routing holder against.
+     * @param   primaryKey
+     *          Key of the holder receiving writes.
+     * @param   replicaKeys
+     *          Keys of the holders receiving read-only executions.
+     * @return  The routing holder added.
+     * @throws  IllegalArgumentException
+     *          if any of the given holders do not exist.
+     * @see     RoutingJdbcHolder
+     * @since   1.6
+     */
+    public RoutingJdbcHolder route(String key, String primaryKey, String... replicaKeys) {
+        List<JdbcHolder> replicas = new ArrayList<>(replicaKeys.length);
+        for (String rk : replicaKeys) {
+            replicas.add(require(rk));
+        }
+        RoutingJdbcHolder res = new RoutingJdbcHolder(require(primaryKey), replicas);
+        update(m -> m.put(trimToEmpty(key).toUpperCase(), res));
+        return res;
+    }
+
+    /**
+     * Set metrics to record statements executed through all holders.
+     *
+     * Metrics are applied to the current holders and to all holders added
+     * afterwards.
+     *
+     * @param   statementMetrics
+     *          Metrics to record to, or null to stop recording.
+     * @see     JdbcHolder#setStatementMetrics(StatementMetrics)
+     * @since   1.6
+     */
+    public synchronized void setStatementMetrics(StatementMetrics statementMetrics) {
+        this.statementMetrics = statementMetrics;
+        holders.values().forEach(h -> h.setStatementMetrics(statementMetrics));
+    }
+
+    /**
+     * Retrieve statistics for each holder.
+     *
+     * Executions through a {@link RoutingJdbcHolder} are recorded against the
+     * primary and replica holders it routes to.
+     *
+     * @return  Statistics by holder key.
+     * @see     JdbcHolder#getStats()
+     * @since   1.6
+     */
+    public Map<String, JdbcHolderStats> getStats() {
+        Map<String, JdbcHolderStats> res = new TreeMap<>();
+        holders.forEach((k, v) -> res.put(k, v.getStats()));
+        return res;
+    }
+
+    private synchronized void update(Consumer<Map<String, JdbcHolder>> fn) {
+        Map<String, JdbcHolder> res = new HashMap<>(holders);
+        fn.accept(res);
+        holders = Collections.unmodifiableMap(res);
+    }
+
+    private JdbcHolder require(String key) {
+        JdbcHolder res = get(trimToEmpty(key));
+        if (res == null) {
+            throw new IllegalArgumentException("No holder found for key " + key);
+        }
+        return res;
+    }
+
 }
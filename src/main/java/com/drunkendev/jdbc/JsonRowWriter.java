@@ -0,0 +1,267 @@
+/*
+ * JsonRowWriter.java    Oct 17 2026, 02:30
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.jdbc;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowMapper;
+
+
+/**
+ * Writes each row of a result set to a JSON generator as it is read.
+ *
+ * Rows are written as elements of a JSON array, either as objects keyed by
+ * column label with values written according to the column type, or as the
+ * value produced by a row mapper serialised with the generator's codec. Only
+ * the current row is held in memory.
+ *
+ * The generator is flushed after the first row and then every
+ * {@code flushRows} rows, so a response begins sending immediately and output
+ * is sent in chunks rather than accumulating in a buffer.
+ *
+ * Dates and times are written as ISO-8601 strings and binary columns as
+ * base64.
+ *
+ * Generators created by this class leave open arrays and objects unclosed
+ * when closed, so output cut short by a failure part way through the rows is
+ * invalid JSON rather than a complete but truncated array.
+ *
+ * @author  Brett Ryan
+ * @since   1.6
+ */
+final class JsonRowWriter<T> implements ResultSetExtractor<Long> {
+
+    private static final JsonFactory FACTORY = new JsonFactory()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+
+    private final JsonGenerator gen;
+    private final RowMapper<T> mapper;
+    private final int flushRows;
+
+    /**
+     * Creates a new {@code JsonRowWriter} instance.
+     *
+     * @param   gen
+     *          Generator to write to.
+     * @param   mapper
+     *          Mapper whose result is written for each row, or null to write
+     *          columns directly.
+     * @param   flushRows
+     *          Rows written between each flush.
+     * @throws  IllegalArgumentException
+     *          if {@code flushRows} is less than 1.
+     */
+    JsonRowWriter(JsonGenerator gen, RowMapper<T> mapper, int flushRows) {
+        if (flushRows < 1) {
+            throw new IllegalArgumentException("Flush rows must be at least 1.");
+        }
+        this.gen = gen;
+        this.mapper = mapper;
+        this.flushRows = flushRows;
+    }
+
+    /**
+     * Create a UTF-8 generator that does not close the stream it writes to or
+     * complete unclosed content when closed.
+     *
+     * @param   out
+     *          Stream to write to.
+     * @return  New generator.
+     * @throws  UncheckedIOException
+     *          if the generator could not be created.
+     */
+    static JsonGenerator createGenerator(OutputStream out) {
+        try {
+            return FACTORY.createGenerator(out);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Write all rows as a JSON array.
+     *
+     * @param   rs
+     *          Result set to write.
+     * @return  Number of rows written.
+     * @throws  SQLException
+     *          if a value could not be read.
+     * @throws  UncheckedIOException
+     *          if the output could not be written, such as when a client
+     *          disconnects.
+     */
+    @Override
+    public Long extractData(ResultSet rs) throws SQLException {
+        try {
+            long count = 0;
+            SerializedString[] names = null;
+            int[] types = null;
+            if (mapper == null) {
+                ResultSetMetaData md = rs.getMetaData();
+                names = new SerializedString[md.getColumnCount()];
+                types = new int[names.length];
+                for (int i = 0; i < names.length; i++) {
+                    names[i] = new SerializedString(md.getColumnLabel(i + 1));
+                    types[i] = md.getColumnType(i + 1);
+                }
+            }
+            gen.writeStartArray();
+            while (rs.next()) {
+                if (mapper == null) {
+                    gen.writeStartObject();
+                    for (int i = 0; i < names.length; i++) {
+                        gen.writeFieldName(names[i]);
+                        writeValue(rs, i + 1, types[i]);
+                    }
+                    gen.writeEndObject();
+                } else {
+                    gen.writeObject(mapper.mapRow(rs, (int) count));
+                }
+                count++;
+                if (count == 1 || count % flushRows == 0) {
+                    gen.flush();
+                }
+            }
+            gen.writeEndArray();
+            gen.flush();
+            return count;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex.getMessage(), ex);
+        }
+    }
+
+    private void writeValue(ResultSet rs, int col, int type) throws SQLException, IOException {
+        switch (type) {
+            case Types.BIT:
+            case Types.BOOLEAN: {
+                boolean v = rs.getBoolean(col);
+                if (rs.wasNull()) {
+                    gen.writeNull();
+                } else {
+                    gen.writeBoolean(v);
+                }
+                break;
+            }
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER: {
+                int v = rs.getInt(col);
+                if (rs.wasNull()) {
+                    gen.writeNull();
+                } else {
+                    gen.writeNumber(v);
+                }
+                break;
+            }
+            case Types.BIGINT: {
+                long v = rs.getLong(col);
+                if (rs.wasNull()) {
+                    gen.writeNull();
+                } else {
+                    gen.writeNumber(v);
+                }
+                break;
+            }
+            case Types.REAL:
+            case Types.FLOAT:
+            case Types.DOUBLE: {
+                double v = rs.getDouble(col);
+                if (rs.wasNull()) {
+                    gen.writeNull();
+                } else {
+                    gen.writeNumber(v);
+                }
+                break;
+            }
+            case Types.DECIMAL:
+            case Types.NUMERIC: {
+                BigDecimal v = rs.getBigDecimal(col);
+                if (v == null) {
+                    gen.writeNull();
+                } else {
+                    gen.writeNumber(v);
+                }
+                break;
+            }
+            case Types.DATE: {
+                Date v = rs.getDate(col);
+                if (v == null) {
+                    gen.writeNull();
+                } else {
+                    gen.writeString(v.toLocalDate().toString());
+                }
+                break;
+            }
+            case Types.TIME: {
+                Time v = rs.getTime(col);
+                if (v == null) {
+                    gen.writeNull();
+                } else {
+                    gen.writeString(v.toLocalTime().toString());
+                }
+                break;
+            }
+            case Types.TIMESTAMP: {
+                Timestamp v = rs.getTimestamp(col);
+                if (v == null) {
+                    gen.writeNull();
+                } else {
+                    gen.writeString(v.toLocalDateTime().toString());
+                }
+                break;
+            }
+            case Types.BINARY:
+            case Types.VARBINARY:
+            case Types.LONGVARBINARY:
+            case Types.BLOB: {
+                byte[] v = rs.getBytes(col);
+                if (v == null) {
+                    gen.writeNull();
+                } else {
+                    gen.writeBinary(v);
+                }
+                break;
+            }
+            default: {
+                String v = rs.getString(col);
+                if (v == null) {
+                    gen.writeNull();
+                } else {
+                    gen.writeString(v);
+                }
+                break;
+            }
+        }
+    }
+
+}
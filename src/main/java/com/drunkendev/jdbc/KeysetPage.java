@@ -0,0 +1,77 @@
+/*
+ * KeysetPage.java    Oct 17 2026, 02:05
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.jdbc;
+
+import java.util.List;
+
+
+/**
+ * Page of rows read by a {@link KeysetPager}.
+ *
+ * @param   <T>
+ *          Row type.
+ * @author  Brett Ryan
+ * @since   1.6
+ */
+public final class KeysetPage<T> {
+
+    private final List<T> items;
+    private final String nextToken;
+
+    KeysetPage(List<T> items, String nextToken) {
+        this.items = items;
+        this.nextToken = nextToken;
+    }
+
+    /**
+     * Rows of this page.
+     *
+     * @return  Mapped rows in key order.
+     */
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Token to read the page following this one.
+     *
+     * @return  Continuation token, or null if this is the last page.
+     */
+    public String getNextToken() {
+        return nextToken;
+    }
+
+    /**
+     * Whether there is a page following this one.
+     *
+     * @return  True if more rows exist.
+     */
+    public boolean hasNext() {
+        return nextToken != null;
+    }
+
+    @Override
+    public String toString() {
+        return "KeysetPage{" +
+               "size=" + items.size() +
+               ", nextToken=" + nextToken +
+               '}';
+    }
+
+}
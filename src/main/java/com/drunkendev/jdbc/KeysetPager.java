@@ -0,0 +1,329 @@
+/*
+ * KeysetPager.java    Oct 17 2026, 02:05
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.jdbc;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+
+/**
+ * Pages through the results of a query by key rather than by offset.
+ *
+ * The query is wrapped so that each page selects only rows ordered after the
+ * last row of the previous page, for keys {@code a, b} this is:
+ *
+ * <pre>
+ *  select * from (query) keyset_
+ *   where a &gt;= ? and (a &gt; ? or (a = ? and b &gt; ?))
+ *   order by a, b
+ *   limit ?
+ * </pre>
+ *
+ * Given an index on the keys each page is read with an index seek, so a deep
+ * page costs the same as the first, where an offset query must read and
+ * discard every preceding row. The comparison is expanded rather than written
+ * as a row value {@code (a, b) > (?, ?)} so that keys may be sorted in mixed
+ * directions. A disjunction alone gives the database no range to seek on, so
+ * with more than one key it is preceded by a range on the leading key,
+ * {@code <=} when that key is descending, which the index on the leading key
+ * is used to seek to.
+ *
+ * Keys are column labels of the query and must together identify a row, the
+ * last key is typically a primary key, and must not be null. Values of the
+ * keys of the last row of a page are encoded into an opaque continuation token
+ * which is handed back to read the next page. Tokens are bound to the query
+ * they were created by and hold only key values, never SQL.
+ *
+ * A pager holds no connection or state between pages and may be held as a
+ * constant.
+ *
+ * <h2>Example</h2>
+ *
+ * <pre>
+ * {@code
+ *  private static final KeysetPager<UserHistory> HISTORY = new KeysetPager<>(
+ *          "select * from user_history where username = ?",
+ *          JdbcHelper.beanMapper(UserHistory.class),
+ *          "request_date desc", "id desc");
+ *  ...
+ *  KeysetPage<UserHistory> page = holder.executeReadOnly((template, status)
+ *          -> HISTORY.page(template, 50, request.getParameter("next"), username));
+ *  model.addAttribute("rows", page.getItems());
+ *  model.addAttribute("next", page.getNextToken());
+ * }
+ * </pre>
+ *
+ * @param   <T>
+ *          Row type.
+ * @author  Brett Ryan
+ * @since   1.6
+ */
+public final class KeysetPager<T> {
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][\\w$]*");
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private static final byte INT = 'I';
+    private static final byte LONG = 'J';
+    private static final byte DOUBLE = 'F';
+    private static final byte DECIMAL = 'B';
+    private static final byte STRING = 'S';
+    private static final byte BOOLEAN = 'Z';
+    private static final byte TIMESTAMP = 'T';
+    private static final byte DATE = 'D';
+
+    private final RowMapper<T> mapper;
+    private final String[] keys;
+    private final String firstSql;
+    private final String nextSql;
+    private final int fingerprint;
+
+    /**
+     * Creates a new {@code KeysetPager} instance.
+     *
+     * @param   sql
+     *          Query without an {@code order by} or {@code limit} clause.
+     * @param   mapper
+     *          Mapper for each row.
+     * @param   keys
+     *          Column labels to order by, each optionally followed by
+     *          {@code asc} or {@code desc}.
+     * @throws  IllegalArgumentException
+     *          if no keys are given or a key is not a valid column label.
+     */
+    public KeysetPager(String sql, RowMapper<T> mapper, String... keys) {
+        if (keys.length == 0) {
+            throw new IllegalArgumentException("At least one key is required.");
+        }
+        this.mapper = mapper;
+        this.keys = new String[keys.length];
+        boolean[] desc = new boolean[keys.length];
+        StringBuilder order = new StringBuilder(" order by ");
+        for (int i = 0; i < keys.length; i++) {
+            String[] parts = keys[i].trim().split("\\s+");
+            String dir = parts.length == 2 ? parts[1].toLowerCase(Locale.ROOT) : "asc";
+            if (parts.length > 2 || !IDENTIFIER.matcher(parts[0]).matches()
+                    || !(dir.equals("asc") || dir.equals("desc"))) {
+                throw new IllegalArgumentException("Invalid key: " + keys[i]);
+            }
+            this.keys[i] = parts[0];
+            desc[i] = dir.equals("desc");
+            order.append(i == 0 ? "" : ", ").append(parts[0]).append(desc[i] ? " desc" : "");
+        }
+        order.append(" limit ?");
+
+        StringBuilder where = new StringBuilder(" where ");
+        if (keys.length > 1) {
+            where.append(this.keys[0]).append(desc[0] ? " <= ?" : " >= ?").append(" and (");
+        }
+        for (int i = 0; i < keys.length; i++) {
+            where.append(i == 0 ? "(" : " or (");
+            for (int j = 0; j < i; j++) {
+                where.append(this.keys[j]).append(" = ? and ");
+            }
+            where.append(this.keys[i]).append(desc[i] ? " < ?" : " > ?").append(')');
+        }
+        if (keys.length > 1) {
+            where.append(')');
+        }
+        String from = "select * from (" + sql + ") keyset_";
+        this.firstSql = from + order;
+        this.nextSql = from + where + order;
+        this.fingerprint = nextSql.hashCode();
+    }
+
+    /**
+     * Read a page of rows.
+     *
+     * @param   jt
+     *          Template to execute the query with.
+     * @param   size
+     *          Maximum rows in the page.
+     * @param   token
+     *          Continuation token of the previous page, or null for the first
+     *          page.
+     * @param   args
+     *          Arguments to the query.
+     * @return  Page of rows.
+     * @throws  IllegalArgumentException
+     *          if {@code size} is less than 1 or the token was not created by
+     *          this pager.
+     * @throws  org.springframework.dao.DataAccessException
+     *          if the query could not be executed.
+     */
+    public KeysetPage<T> page(JdbcTemplate jt, int size, String token, Object... args) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1.");
+        }
+        Object[] params;
+        String sql;
+        if (token == null || token.isEmpty()) {
+            sql = firstSql;
+            params = Arrays.copyOf(args, args.length + 1);
+        } else {
+            sql = nextSql;
+            Object[] last = decode(token);
+            int n = keys.length * (keys.length + 1) / 2 + (keys.length > 1 ? 1 : 0);
+            params = Arrays.copyOf(args, args.length + n + 1);
+            int p = args.length;
+            if (keys.length > 1) {
+                params[p++] = last[0];
+            }
+            for (int i = 0; i < keys.length; i++) {
+                for (int j = 0; j <= i; j++) {
+                    params[p++] = last[j];
+                }
+            }
+        }
+        // One row beyond the page shows whether another page follows.
+        params[params.length - 1] = size + 1;
+        return jt.query(sql, params, rs -> {
+            List<T> items = new ArrayList<>(Math.min(size, 1024));
+            Object[] last = null;
+            while (rs.next()) {
+                if (items.size() == size) {
+                    return new KeysetPage<>(items, encode(last));
+                }
+                items.add(mapper.mapRow(rs, items.size()));
+                if (items.size() == size) {
+                    last = new Object[keys.length];
+                    for (int i = 0; i < keys.length; i++) {
+                        last[i] = rs.getObject(keys[i]);
+                    }
+                }
+            }
+            return new KeysetPage<>(items, null);
+        });
+    }
+
+    private String encode(Object[] values) {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bos)) {
+            out.writeInt(fingerprint);
+            for (int i = 0; i < values.length; i++) {
+                Object v = values[i];
+                if (v == null) {
+                    throw new InvalidDataAccessApiUsageException("Key " + keys[i] + " is null");
+                } else if (v instanceof Integer || v instanceof Short || v instanceof Byte) {
+                    out.writeByte(INT);
+                    out.writeInt(((Number) v).intValue());
+                } else if (v instanceof Long) {
+                    out.writeByte(LONG);
+                    out.writeLong((Long) v);
+                } else if (v instanceof Double || v instanceof Float) {
+                    out.writeByte(DOUBLE);
+                    out.writeDouble(((Number) v).doubleValue());
+                } else if (v instanceof BigDecimal) {
+                    out.writeByte(DECIMAL);
+                    out.writeUTF(v.toString());
+                } else if (v instanceof String) {
+                    out.writeByte(STRING);
+                    out.writeUTF((String) v);
+                } else if (v instanceof Boolean) {
+                    out.writeByte(BOOLEAN);
+                    out.writeBoolean((Boolean) v);
+                } else if (v instanceof Timestamp) {
+                    out.writeByte(TIMESTAMP);
+                    out.writeLong(((Timestamp) v).getTime());
+                    out.writeInt(((Timestamp) v).getNanos());
+                } else if (v instanceof java.sql.Date) {
+                    out.writeByte(DATE);
+                    out.writeUTF(v.toString());
+                } else {
+                    throw new InvalidDataAccessApiUsageException(
+                            "Unsupported key type " + v.getClass().getName());
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex.getMessage(), ex);
+        }
+        return ENCODER.encodeToString(bos.toByteArray());
+    }
+
+    private Object[] decode(String token) {
+        byte[] data;
+        try {
+            data = DECODER.decode(token);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid continuation token.", ex);
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            if (in.readInt() != fingerprint) {
+                throw new IllegalArgumentException("Continuation token is for a different query.");
+            }
+            Object[] res = new Object[keys.length];
+            for (int i = 0; i < res.length; i++) {
+                byte type = in.readByte();
+                switch (type) {
+                    case INT:
+                        res[i] = in.readInt();
+                        break;
+                    case LONG:
+                        res[i] = in.readLong();
+                        break;
+                    case DOUBLE:
+                        res[i] = in.readDouble();
+                        break;
+                    case DECIMAL:
+                        res[i] = new BigDecimal(in.readUTF());
+                        break;
+                    case STRING:
+                        res[i] = in.readUTF();
+                        break;
+                    case BOOLEAN:
+                        res[i] = in.readBoolean();
+                        break;
+                    case TIMESTAMP:
+                        Timestamp ts = new Timestamp(in.readLong());
+                        ts.setNanos(in.readInt());
+                        res[i] = ts;
+                        break;
+                    case DATE:
+                        res[i] = java.sql.Date.valueOf(in.readUTF());
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Invalid continuation token.");
+                }
+            }
+            if (in.read() != -1) {
+                throw new IllegalArgumentException("Invalid continuation token.");
+            }
+            return res;
+        } catch (IOException ex) {
+            throw new IllegalArgumentException("Invalid continuation token.", ex);
+        }
+    }
+
+}
@@ -0,0 +1,211 @@
+/*
+ * LatencyHistogram.java    Oct 16 2026, 21:50
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.jdbc;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Concurrent histogram of latencies recorded in nanoseconds.
+ *
+ * Values are counted within log-linear buckets, each power of two range is
+ * divided into eight buckets, so that recorded values are kept to within
+ * 12.5% of their true value regardless of magnitude. Recording is lock-free
+ * and uses a fixed amount of memory.
+ *
+ * @author  Brett Ryan
+ * @since   1.6
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BITS = 3;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS) * SUB_COUNT;
+
+    private final AtomicLongArray counts;
+    private final LongAdder total;
+    private final AtomicLong max;
+
+    /**
+     * Creates a new empty {@code LatencyHistogram} instance.
+     */
+    public LatencyHistogram() {
+        this.counts = new AtomicLongArray(BUCKETS);
+        this.total = new LongAdder();
+        this.max = new AtomicLong();
+    }
+
+    /**
+     * Record a latency.
+     *
+     * @param   nanos
+     *          Latency in nanoseconds, negative values are recorded as zero.
+     */
+    public void record(long nanos) {
+        long v = Math.max(0, nanos);
+        counts.incrementAndGet(index(v));
+        total.add(v);
+        long m = max.get();
+        while (v > m && !max.compareAndSet(m, v)) {
+            m = max.get();
+        }
+    }
+
+    /**
+     * Take a point in time copy of the histogram.
+     *
+     * Recording may continue while a snapshot is taken, the snapshot will
+     * reflect most but not necessarily all concurrently recorded values.
+     *
+     * @return  Snapshot of the recorded values.
+     */
+    public Snapshot snapshot() {
+        long[] c = new long[BUCKETS];
+        long n = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            c[i] = counts.get(i);
+            n += c[i];
+        }
+        return new Snapshot(c, n, total.sum(), max.get());
+    }
+
+    static int index(long v) {
+        if (v < SUB_COUNT) {
+            return (int) v;
+        }
+        int exp = 63 - Long.numberOfLeadingZeros(v);
+        int sub = (int) (v >>> (exp - SUB_BITS)) & (SUB_COUNT - 1);
+        return (exp - SUB_BITS + 1) * SUB_COUNT + sub;
+    }
+
+    static long upperBound(int idx) {
+        if (idx < SUB_COUNT) {
+            return idx;
+        }
+        int exp = idx / SUB_COUNT + SUB_BITS - 1;
+        int sub = idx % SUB_COUNT;
+        long width = 1L << (exp - SUB_BITS);
+        return ((SUB_COUNT + sub) * width) + width - 1;
+    }
+
+
+    /**
+     * Immutable copy of a {@link LatencyHistogram}.
+     *
+     * All values are given in nanoseconds.
+     */
+    public static final class Snapshot {
+
+        private final long[] counts;
+        private final long count;
+        private final long total;
+        private final long max;
+
+        Snapshot(long[] counts, long count, long total, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.total = total;
+            this.max = max;
+        }
+
+        /**
+         * Number of values recorded.
+         *
+         * @return  Value count.
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Sum of all values recorded.
+         *
+         * @return  Total in nanoseconds.
+         */
+        public long getTotal() {
+            return total;
+        }
+
+        /**
+         * Largest value recorded.
+         *
+         * @return  Maximum in nanoseconds, or zero if nothing was recorded.
+         */
+        public long getMax() {
+            return max;
+        }
+
+        /**
+         * Mean of all values recorded.
+         *
+         * @return  Mean in nanoseconds, or zero if nothing was recorded.
+         */
+        public long getMean() {
+            return count == 0 ? 0 : total / count;
+        }
+
+        /**
+         * Value at or below which the given percentage of values fall.
+         *
+         * @param   percentile
+         *          Percentile from 0 to 100, for example {@code 99.9}.
+         * @return  Value in nanoseconds, or zero if nothing was recorded.
+         */
+        public long getValueAtPercentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * count);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= Math.max(1, rank)) {
+                    return Math.min(upperBound(i), max);
+                }
+            }
+            return max;
+        }
+
+        /**
+         * Combine with another snapshot as if all values were recorded to one
+         * histogram.
+         */
+        Snapshot merge(Snapshot other) {
+            long[] c = new long[counts.length];
+            for (int i = 0; i < c.length; i++) {
+                c[i] = counts[i] + other.counts[i];
+            }
+            return new Snapshot(c, count + other.count, total + other.total, Math.max(max, other.max));
+        }
+
+        @Override
+        public String toString() {
+            return "count=" + count +
+                   ", mean=" + Duration.ofNanos(getMean()) +
+                   ", p50=" + Duration.ofNanos(getValueAtPercentile(50)) +
+                   ", p99=" + Duration.ofNanos(getValueAtPercentile(99)) +
+                   ", max=" + Duration.ofNanos(max);
+        }
+
+    }
+
+}
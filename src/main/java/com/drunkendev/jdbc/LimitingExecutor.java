@@ -0,0 +1,172 @@
+/*
+ * LimitingExecutor.java    Oct 17 2026, 00:10
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.jdbc;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+
+/**
+ * Executor that limits the number of tasks running at once on a delegate.
+ *
+ * Tasks beyond the limit are queued and handed to the delegate as running
+ * tasks complete, no thread is blocked while a task waits. This allows the
+ * delegate to be any executor, including one creating a thread per task,
+ * while the number of concurrent executions is kept within the connections
+ * available to a data source.
+ *
+ * A task rejected by the delegate is never run, its future is completed
+ * exceptionally with the {@link RejectedExecutionException}.
+ *
+ * @author  Brett Ryan
+ * @since   1.6
+ */
+final class LimitingExecutor {
+
+    private static final ThreadLocal<LimitingExecutor> RUNNING = new ThreadLocal<>();
+
+    private final Executor delegate;
+    private final int limit;
+    private final Queue<Task<?>> queue;
+    private final AtomicInteger active;
+
+    /**
+     * Creates a new {@code LimitingExecutor} instance.
+     *
+     * @param   delegate
+     *          Executor to run tasks on.
+     * @param   limit
+     *          Maximum number of tasks running at once.
+     * @throws  IllegalArgumentException
+     *          if {@code limit} is less than 1.
+     */
+    LimitingExecutor(Executor delegate, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1.");
+        }
+        this.delegate = delegate;
+        this.limit = limit;
+        this.queue = new ConcurrentLinkedQueue<>();
+        this.active = new AtomicInteger();
+    }
+
+    /**
+     * Run a supplier on the delegate once fewer than the limit of tasks are
+     * running.
+     *
+     * @param   <T>
+     *          Result type.
+     * @param   supplier
+     *          Supplier to run.
+     * @return  Future completed with the result of the supplier, or
+     *          exceptionally with any error raised or if rejected by the
+     *          delegate.
+     */
+    <T> CompletableFuture<T> supply(Supplier<T> supplier) {
+        Task<T> task = new Task<>(supplier);
+        queue.add(task);
+        drain();
+        return task.future;
+    }
+
+    /**
+     * Whether the current thread is running a task of this executor.
+     *
+     * @return  True if called from within a task of this executor.
+     */
+    boolean isRunningTask() {
+        return RUNNING.get() == this;
+    }
+
+    /**
+     * Number of tasks waiting to run.
+     *
+     * @return  Queued task count.
+     */
+    int getQueuedCount() {
+        return queue.size();
+    }
+
+    private void drain() {
+        while (!queue.isEmpty()) {
+            int a = active.get();
+            if (a >= limit) {
+                return;
+            }
+            if (!active.compareAndSet(a, a + 1)) {
+                continue;
+            }
+            Task<?> task = queue.poll();
+            if (task == null) {
+                active.decrementAndGet();
+                continue;
+            }
+            Runnable run = () -> {
+                LimitingExecutor outer = RUNNING.get();
+                RUNNING.set(this);
+                try {
+                    task.run();
+                } finally {
+                    RUNNING.set(outer);
+                    active.decrementAndGet();
+                    drain();
+                }
+            };
+            try {
+                delegate.execute(run);
+            } catch (RejectedExecutionException ex) {
+                active.decrementAndGet();
+                task.future.completeExceptionally(ex);
+            }
+        }
+    }
+
+
+    /**
+     * Queued supplier and the future completed with its result.
+     */
+    private static final class Task<T> {
+
+        final Supplier<T> supplier;
+        final CompletableFuture<T> future;
+
+        Task(Supplier<T> supplier) {
+            this.supplier = supplier;
+            this.future = new CompletableFuture<>();
+        }
+
+        void run() {
+            if (future.isDone()) {
+                return;
+            }
+            try {
+                future.complete(supplier.get());
+            } catch (Throwable ex) {
+                future.completeExceptionally(ex);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,65 @@
+/*
+ * LobContent.java    Oct 17 2026, 03:20
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.jdbc;
+
+import java.io.IOException;
+
+
+/**
+ * Writes the content of a large object to a stream.
+ *
+ * The content is written directly to the stream of the large object as it is
+ * produced, so it is never held in memory as a whole. Drivers that cannot
+ * create a large object are the exception, the content is buffered and set as
+ * a stream. The stream must not be closed by the content.
+ *
+ * <h2>Example</h2>
+ *
+ * <pre>
+ * {@code
+ *  LobContent<Writer> trace = w -> {
+ *      PrintWriter pw = new PrintWriter(w);
+ *      ex.printStackTrace(pw);
+ *      pw.flush();
+ *  };
+ * }
+ * </pre>
+ *
+ * @param   <T>
+ *          Stream type, a {@link java.io.Writer} for character content or an
+ *          {@link java.io.OutputStream} for binary content.
+ * @author  Brett Ryan
+ * @since   1.6
+ * @see     JdbcHelper#setClob(java.sql.PreparedStatement, int, LobContent)
+ * @see     JdbcHelper#setBlob(java.sql.PreparedStatement, int, LobContent)
+ */
+@FunctionalInterface
+public interface LobContent<T> {
+
+    /**
+     * Write the content.
+     *
+     * @param   out
+     *          Stream to write to.
+     * @throws  IOException
+     *          if the content could not be written.
+     */
+    void writeTo(T out) throws IOException;
+
+}
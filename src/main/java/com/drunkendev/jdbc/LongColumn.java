@@ -0,0 +1,76 @@
+/*
+ * LongColumn.java    Oct 16 2026, 17:10
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.jdbc;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+
+/**
+ * Column of {@code long} values.
+ *
+ * @author  Brett Ryan
+ * @since   1.6
+ */
+public final class LongColumn extends PrimitiveColumn {
+
+    private long[] values;
+
+    LongColumn(int capacity) {
+        this.values = new long[Math.max(capacity, 1)];
+    }
+
+    /**
+     * Retrieve the value of a row.
+     *
+     * @param   row
+     *          Zero based row index.
+     * @return  Row value, zero if the value was SQL {@code NULL}.
+     * @see     #isNull(int)
+     */
+    public long get(int row) {
+        checkIndex(row);
+        return values[row];
+    }
+
+    /**
+     * Copy the values to a new array.
+     *
+     * @return  Array of {@link #size()} values.
+     */
+    public long[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+    void add(long v) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, grow(values.length));
+        }
+        values[size++] = v;
+    }
+
+    @Override
+    void read(ResultSet rs, int col) throws SQLException {
+        long v = rs.getLong(col);
+        markNull(rs);
+        add(v);
+    }
+
+}
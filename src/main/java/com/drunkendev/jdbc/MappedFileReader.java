@@ -0,0 +1,161 @@
+/*
+ * MappedFileReader.java    Oct 16 2026, 11:40
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.jdbc;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+
+/**
+ * {@link Reader} decoding a file through memory mapped windows.
+ *
+ * Bytes are decoded straight from the mapped region into the callers buffer
+ * avoiding the intermediate byte buffer an {@link java.io.InputStreamReader}
+ * requires. Large files are mapped in windows so files larger than 2GB may be
+ * read.
+ *
+ * Malformed and unmappable input is replaced as {@link java.io.InputStreamReader}
+ * would.
+ *
+ * A mapping is not released when the reader is closed, only once its buffer
+ * has been garbage collected, as no portable means of unmapping exists. Each
+ * reader holds one window at a time, so a file leaves at most
+ * {@code size / 64MB + 1} mappings awaiting collection. Files smaller than
+ * {@value #MAP_THRESHOLD} bytes are not mapped at all by {@link #open(Path, Charset)},
+ * which reading many small scripts would otherwise leave a mapping behind for.
+ *
+ * @author  Brett Ryan
+ * @since   1.6
+ */
+final class MappedFileReader extends Reader {
+
+    static final long MAP_THRESHOLD = 1024 * 1024;
+    private static final long WINDOW_SIZE = 64L * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final CharsetDecoder decoder;
+    private final long size;
+    private MappedByteBuffer in;
+    private long windowStart;
+    private boolean flushing;
+    private boolean done;
+
+    /**
+     * Creates a new {@code MappedFileReader} instance.
+     *
+     * @param   file
+     *          File to read.
+     * @param   charset
+     *          Character set the file is encoded with.
+     * @throws  IOException
+     *          If the file could not be opened or mapped.
+     */
+    MappedFileReader(Path file, Charset charset) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            this.size = channel.size();
+            this.decoder = charset.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            map(0);
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Open a reader for a file, mapping the file only if it is at least
+     * {@value #MAP_THRESHOLD} bytes.
+     *
+     * @param   file
+     *          File to read.
+     * @param   charset
+     *          Character set the file is encoded with.
+     * @return  Reader over the file.
+     * @throws  IOException
+     *          If the file could not be opened or mapped.
+     */
+    static Reader open(Path file, Charset charset) throws IOException {
+        if (Files.size(file) < MAP_THRESHOLD) {
+            return new InputStreamReader(Files.newInputStream(file), charset);
+        }
+        return new MappedFileReader(file, charset);
+    }
+
+    private void map(long start) throws IOException {
+        in = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(WINDOW_SIZE, size - start));
+        windowStart = start;
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (done) {
+            return -1;
+        }
+        CharBuffer dst = CharBuffer.wrap(cbuf, off, len);
+        while (dst.hasRemaining() && !done) {
+            if (flushing) {
+                if (decoder.flush(dst).isOverflow()) {
+                    break;
+                }
+                done = true;
+                break;
+            }
+            boolean last = windowStart + in.limit() >= size;
+            CoderResult cr = decoder.decode(in, dst, last);
+            if (cr.isError()) {
+                cr.throwException();
+            }
+            if (cr.isOverflow()) {
+                break;
+            }
+            if (last) {
+                flushing = true;
+            } else {
+                // Remap from the first unconsumed byte so that partial
+                // characters at the end of a window are decoded whole.
+                map(windowStart + in.position());
+            }
+        }
+        int n = dst.position() - off;
+        return n == 0 && done ? -1 : n;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in = null;
+        channel.close();
+    }
+
+}
@@ -0,0 +1,302 @@
+/*
+ * NamedQuery.java    Oct 16 2026, 14:20
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.jdbc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.PreparedStatementCreatorFactory;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.SqlParameter;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.jdbc.core.SqlProvider;
+import org.springframework.jdbc.core.SqlTypeValue;
+import org.springframework.jdbc.core.StatementCreatorUtils;
+import org.springframework.jdbc.core.namedparam.BeanPropertySqlParameterSource;
+import org.springframework.jdbc.core.namedparam.EmptySqlParameterSource;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterUtils;
+import org.springframework.jdbc.core.namedparam.ParsedSql;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import static java.util.stream.Collectors.toList;
+
+
+/**
+ * SQL with named parameters that has been parsed once for repeated execution.
+ *
+ * Parsing with {@link NamedParameterUtils} is performed on construction, the
+ * resulting JDBC SQL and parameter order is then reused for each execution so
+ * that binding parameters does not require the SQL to be tokenised again.
+ *
+ * Where a parameter value is an {@link Iterable} (such as for an {@code IN}
+ * clause) the number of placeholders depends on the value, in this case the
+ * statement is built as {@link org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate}
+ * would.
+ *
+ * Instances are immutable and may be shared between threads.
+ *
+ * <h2>Example</h2>
+ *
+ * <pre>
+ * {@code
+ *  NamedQuery q = namedQueryCache.get(getClass(), "find-customer.sql");
+ *  List<Customer> custs = jt.query(q.creator(singletonMap("id", id)), MAPPER_CUSTOMER);
+ * }
+ * </pre>
+ *
+ * @author  Brett Ryan
+ * @since   1.6
+ * @see     NamedQueryCache
+ */
+public class NamedQuery {
+
+    private final String sql;
+    private final ParsedSql parsedSql;
+    private final String jdbcSql;
+    private final List<String> parameterNames;
+
+    /**
+     * Creates a new {@code NamedQuery} instance parsing the given SQL.
+     *
+     * Names within quotes and comments are not parameters. Traditional
+     * {@code ?} placeholders can not be bound by name and are rejected.
+     *
+     * @param   sql
+     *          SQL containing named parameters, for example {@code :name}.
+     * @throws  InvalidDataAccessApiUsageException
+     *          if the SQL contains {@code ?} placeholders.
+     */
+    public NamedQuery(String sql) {
+        this.sql = sql;
+        this.parsedSql = NamedParameterUtils.parseSqlStatement(sql);
+        this.jdbcSql = NamedParameterUtils.substituteNamedParameters(parsedSql, null);
+        this.parameterNames = Collections.unmodifiableList(
+                NamedParameterUtils.buildSqlParameterList(parsedSql, new EmptySqlParameterSource()).stream()
+                .map(SqlParameter::getName)
+                .collect(toList()));
+        MapSqlParameterSource probe = new MapSqlParameterSource();
+        parameterNames.forEach(n -> probe.addValue(n, null));
+        // Rejects mixed placeholders, and counts any remaining ? placeholders.
+        if (NamedParameterUtils.buildValueArray(parsedSql, probe, null).length != parameterNames.size()) {
+            throw new InvalidDataAccessApiUsageException(
+                    "Traditional ? placeholders are not supported by named queries: " + sql);
+        }
+    }
+
+    /**
+     * Original SQL as supplied on construction.
+     *
+     * @return  Original SQL.
+     */
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * SQL with each named parameter substituted for a {@code ?} placeholder.
+     *
+     * @return  JDBC SQL.
+     */
+    public String getJdbcSql() {
+        return jdbcSql;
+    }
+
+    /**
+     * Names of each placeholder in the order they appear.
+     *
+     * A parameter used more than once will appear once for each use.
+     *
+     * @return  Unmodifiable list of parameter names.
+     */
+    public List<String> getParameterNames() {
+        return parameterNames;
+    }
+
+    /**
+     * Number of arguments bound to the JDBC SQL.
+     *
+     * @return  Argument count.
+     */
+    public int getArgCount() {
+        return parameterNames.size();
+    }
+
+    /**
+     * Create a statement creator binding values from a map.
+     *
+     * @param   params
+     *          Parameter values keyed by name.
+     * @return  Statement creator for use with {@link org.springframework.jdbc.core.JdbcTemplate JdbcTemplate}.
+     * @throws  InvalidDataAccessApiUsageException
+     *          if a value has not been supplied for a parameter.
+     */
+    public PreparedStatementCreator creator(Map<String, ?> params) {
+        for (String n : parameterNames) {
+            if (!params.containsKey(n)) {
+                throw missing(n);
+            }
+            if (isExpandable(params.get(n))) {
+                return fallback(new MapSqlParameterSource(params));
+            }
+        }
+        return new Creator(ps -> bind(ps, params));
+    }
+
+    /**
+     * Create a statement creator binding values from the properties of a bean.
+     *
+     * @param   bean
+     *          Bean to read parameter values from.
+     * @return  Statement creator for use with {@link org.springframework.jdbc.core.JdbcTemplate JdbcTemplate}.
+     * @throws  InvalidDataAccessApiUsageException
+     *          if the bean does not have a readable property for a parameter.
+     */
+    public PreparedStatementCreator creator(Object bean) {
+        return creator(new BeanPropertySqlParameterSource(bean));
+    }
+
+    /**
+     * Create a statement creator binding values from a parameter source.
+     *
+     * @param   params
+     *          Source of parameter values and types.
+     * @return  Statement creator for use with {@link org.springframework.jdbc.core.JdbcTemplate JdbcTemplate}.
+     * @throws  InvalidDataAccessApiUsageException
+     *          if a value has not been supplied for a parameter.
+     */
+    public PreparedStatementCreator creator(SqlParameterSource params) {
+        for (String n : parameterNames) {
+            if (!params.hasValue(n)) {
+                throw missing(n);
+            }
+            if (isExpandable(params.getValue(n))) {
+                return fallback(params);
+            }
+        }
+        return new Creator(ps -> bind(ps, params));
+    }
+
+    /**
+     * Bind values from a map to a statement prepared from {@link #getJdbcSql()}.
+     *
+     * Iterable values are not expanded by this method.
+     *
+     * @param   ps
+     *          Statement to bind values to.
+     * @param   params
+     *          Parameter values keyed by name.
+     * @throws  SQLException
+     *          if a value could not be set.
+     */
+    public void bind(PreparedStatement ps, Map<String, ?> params) throws SQLException {
+        for (int i = 0; i < parameterNames.size(); i++) {
+            Object v = params.get(parameterNames.get(i));
+            if (v instanceof SqlParameterValue) {
+                SqlParameterValue pv = (SqlParameterValue) v;
+                StatementCreatorUtils.setParameterValue(ps, i + 1, pv, pv.getValue());
+            } else {
+                StatementCreatorUtils.setParameterValue(ps, i + 1, SqlTypeValue.TYPE_UNKNOWN, v);
+            }
+        }
+    }
+
+    /**
+     * Bind values from a parameter source to a statement prepared from {@link #getJdbcSql()}.
+     *
+     * Iterable values are not expanded by this method.
+     *
+     * @param   ps
+     *          Statement to bind values to.
+     * @param   params
+     *          Source of parameter values and types.
+     * @throws  SQLException
+     *          if a value could not be set.
+     */
+    public void bind(PreparedStatement ps, SqlParameterSource params) throws SQLException {
+        for (int i = 0; i < parameterNames.size(); i++) {
+            String n = parameterNames.get(i);
+            Object v = params.getValue(n);
+            if (v instanceof SqlParameterValue) {
+                SqlParameterValue pv = (SqlParameterValue) v;
+                StatementCreatorUtils.setParameterValue(ps, i + 1, pv, pv.getValue());
+            } else {
+                StatementCreatorUtils.setParameterValue(ps, i + 1, params.getSqlType(n), params.getTypeName(n), v);
+            }
+        }
+    }
+
+    private PreparedStatementCreator fallback(SqlParameterSource params) {
+        String expanded = NamedParameterUtils.substituteNamedParameters(parsedSql, params);
+        List<SqlParameter> declared = NamedParameterUtils.buildSqlParameterList(parsedSql, params);
+        Object[] values = NamedParameterUtils.buildValueArray(parsedSql, params, null);
+        return new PreparedStatementCreatorFactory(expanded, declared)
+                .newPreparedStatementCreator(values);
+    }
+
+    private static boolean isExpandable(Object v) {
+        if (v instanceof SqlParameterValue) {
+            v = ((SqlParameterValue) v).getValue();
+        }
+        return v instanceof Iterable;
+    }
+
+    private static InvalidDataAccessApiUsageException missing(String name) {
+        return new InvalidDataAccessApiUsageException("No value supplied for the SQL parameter '" + name + "'");
+    }
+
+    @Override
+    public String toString() {
+        return jdbcSql;
+    }
+
+
+    private final class Creator implements PreparedStatementCreator, SqlProvider {
+
+        private final PreparedStatementSetter setter;
+
+        Creator(PreparedStatementSetter setter) {
+            this.setter = setter;
+        }
+
+        @Override
+        public PreparedStatement createPreparedStatement(Connection con) throws SQLException {
+            PreparedStatement ps = con.prepareStatement(jdbcSql);
+            try {
+                setter.setValues(ps);
+            } catch (SQLException | RuntimeException ex) {
+                ps.close();
+                throw ex;
+            }
+            return ps;
+        }
+
+        @Override
+        public String getSql() {
+            return jdbcSql;
+        }
+
+    }
+
+}
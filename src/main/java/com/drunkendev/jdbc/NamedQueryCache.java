@@ -0,0 +1,144 @@
+/*
+ * NamedQueryCache.java    Oct 16 2026, 14:55
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.jdbc;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Companion to {@link QueryCache} holding the parsed form of named parameter
+ * queries.
+ *
+ * SQL resources are loaded through the backing {@link QueryCache} and parsed
+ * once into a {@link NamedQuery}. Parsed resources are held by resource, when
+ * the query cache reloads a resource it is parsed again and replaces the
+ * previous entry.
+ *
+ * SQL text passed directly to {@link #get(String)} is held by its content, up
+ * to {@value #MAX_TEXT} queries, beyond which text is parsed on each call
+ * without being held.
+ *
+ * This class is safe for use by multiple threads.
+ *
+ * @author  Brett Ryan
+ * @since   1.6
+ */
+public class NamedQueryCache {
+
+    /**
+     * Maximum number of queries held for SQL text passed to {@link #get(String)}.
+     */
+    public static final int MAX_TEXT = 1024;
+
+    private final QueryCache queryCache;
+    private final Map<String, Parsed> resources;
+    private final Map<String, NamedQuery> parsed;
+
+    /**
+     * Creates a new {@code NamedQueryCache} instance with its own {@link QueryCache}.
+     */
+    public NamedQueryCache() {
+        this(new QueryCache());
+    }
+
+    /**
+     * Creates a new {@code NamedQueryCache} instance.
+     *
+     * @param   queryCache
+     *          Cache to load SQL resources from.
+     */
+    public NamedQueryCache(QueryCache queryCache) {
+        this.queryCache = queryCache;
+        this.resources = new ConcurrentHashMap<>();
+        this.parsed = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Loads and returns the parsed resource {@code name} stored with a class.
+     *
+     * @param   clazz
+     *          Class for where the resource will be loaded from.
+     * @param   resourceName
+     *          Resource name.
+     * @return  Parsed query.
+     * @throws  org.springframework.dao.InvalidDataAccessApiUsageException
+     *          if the resource contains {@code ?} placeholders.
+     * @see     QueryCache#get(Class, String)
+     */
+    public NamedQuery get(Class<?> clazz, String resourceName) {
+        Object source = queryCache.lookup(clazz, resourceName);
+        String key = QueryCache.resolveName(clazz, resourceName);
+        Parsed res = resources.get(key);
+        if (res == null || res.source != source) {
+            res = new Parsed(source, new NamedQuery(QueryCache.text(source)));
+            resources.put(key, res);
+        }
+        return res.query;
+    }
+
+    /**
+     * Returns the parsed form of {@code sql}.
+     *
+     * @param   sql
+     *          SQL containing named parameters.
+     * @return  Parsed query.
+     * @throws  org.springframework.dao.InvalidDataAccessApiUsageException
+     *          if the SQL contains {@code ?} placeholders.
+     */
+    public NamedQuery get(String sql) {
+        NamedQuery res = parsed.get(sql);
+        if (res == null) {
+            res = new NamedQuery(sql);
+            if (parsed.size() < MAX_TEXT) {
+                NamedQuery prev = parsed.putIfAbsent(sql, res);
+                if (prev != null) {
+                    res = prev;
+                }
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Retrieve the backing query cache.
+     *
+     * @return  Query cache SQL text is loaded from.
+     */
+    public QueryCache getQueryCache() {
+        return queryCache;
+    }
+
+
+    /**
+     * Parsed query along with the stored query it was parsed from.
+     */
+    private static final class Parsed {
+
+        private final Object source;
+        private final NamedQuery query;
+
+        Parsed(Object source, NamedQuery query) {
+            this.source = source;
+            this.query = query;
+        }
+
+    }
+
+}
@@ -0,0 +1,230 @@
+/*
+ * ObservedJdbcTemplate.java    Oct 16 2026, 22:40
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.jdbc;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.SqlProvider;
+import org.springframework.jdbc.core.StatementCallback;
+
+
+/**
+ * {@link JdbcTemplate} that reports each statement it executes to observers.
+ *
+ * All query, update and batch operations of {@link JdbcTemplate} are executed
+ * through either {@link #execute(PreparedStatementCreator, PreparedStatementCallback)}
+ * or {@link #execute(StatementCallback)} which are overridden to report the
+ * SQL of the statement once it has executed along with its arguments, elapsed
+ * time and row count. Static batches report each statement of the batch.
+ *
+ * Statements created while a {@link CallDeadline} is active on the current
+ * thread are registered with it so their query timeout is limited to the time
+ * remaining and they are cancelled once it passes.
+ *
+ * @author  Brett Ryan
+ * @since   1.6
+ */
+final class ObservedJdbcTemplate extends JdbcTemplate {
+
+    /**
+     * Receives statements executed by an {@link ObservedJdbcTemplate}.
+     */
+    @FunctionalInterface
+    interface Observer {
+
+        /**
+         * Called after a statement has executed, whether or not it succeeded.
+         *
+         * @param   sql
+         *          SQL of the statement.
+         * @param   args
+         *          Arguments bound to the statement, null if not known.
+         * @param   nanos
+         *          Time taken to execute the statement and process its
+         *          results.
+         * @param   rows
+         *          Rows returned or affected, -1 if not known.
+         * @param   error
+         *          Error raised by the statement, null if it succeeded.
+         */
+        void executed(String sql, Object[] args, long nanos, int rows, Throwable error);
+
+    }
+
+    private final List<Observer> observers;
+    private final ThreadLocal<Object[]> pendingArgs;
+
+    /**
+     * Creates a new {@code ObservedJdbcTemplate} with the same configuration
+     * as an existing template.
+     *
+     * @param   source
+     *          Template to copy configuration from.
+     */
+    ObservedJdbcTemplate(JdbcTemplate source) {
+        super(source.getDataSource(), true);
+        setExceptionTranslator(source.getExceptionTranslator());
+        setNativeJdbcExtractor(source.getNativeJdbcExtractor());
+        setIgnoreWarnings(source.isIgnoreWarnings());
+        setFetchSize(source.getFetchSize());
+        setMaxRows(source.getMaxRows());
+        setQueryTimeout(source.getQueryTimeout());
+        setSkipResultsProcessing(source.isSkipResultsProcessing());
+        setSkipUndeclaredResults(source.isSkipUndeclaredResults());
+        setResultsMapCaseInsensitive(source.isResultsMapCaseInsensitive());
+        this.observers = new CopyOnWriteArrayList<>();
+        this.pendingArgs = new ThreadLocal<>();
+    }
+
+    /**
+     * Add an observer to be notified of executed statements.
+     *
+     * @param   observer
+     *          Observer to add.
+     */
+    void addObserver(Observer observer) {
+        observers.add(observer);
+    }
+
+    @Override
+    protected PreparedStatementSetter newArgPreparedStatementSetter(Object[] args) {
+        // Called immediately before the statement is executed on this thread.
+        pendingArgs.set(args);
+        return super.newArgPreparedStatementSetter(args);
+    }
+
+    @Override
+    protected PreparedStatementSetter newArgTypePreparedStatementSetter(Object[] args, int[] argTypes) {
+        pendingArgs.set(args);
+        return super.newArgTypePreparedStatementSetter(args, argTypes);
+    }
+
+    @Override
+    protected void applyStatementSettings(Statement stmt) throws SQLException {
+        super.applyStatementSettings(stmt);
+        CallDeadline deadline = CallDeadline.current();
+        if (deadline != null) {
+            deadline.register(stmt);
+        }
+    }
+
+    @Override
+    public <T> T execute(PreparedStatementCreator psc, PreparedStatementCallback<T> action)
+            throws DataAccessException {
+        String sql = psc instanceof SqlProvider ? ((SqlProvider) psc).getSql() : null;
+        Object[] args = pendingArgs.get();
+        pendingArgs.remove();
+        long start = System.nanoTime();
+        T res = null;
+        Throwable error = null;
+        try {
+            res = super.execute(psc, action);
+            return res;
+        } catch (RuntimeException | Error ex) {
+            error = ex;
+            throw ex;
+        } finally {
+            report(sql, args, System.nanoTime() - start, rows(res), error);
+        }
+    }
+
+    @Override
+    public <T> T execute(StatementCallback<T> action) throws DataAccessException {
+        // Batches of static statements report no SQL until executed, they are
+        // reported by batchUpdate instead.
+        String sql = action instanceof SqlProvider ? ((SqlProvider) action).getSql() : null;
+        long start = System.nanoTime();
+        T res = null;
+        Throwable error = null;
+        try {
+            res = super.execute(action);
+            return res;
+        } catch (RuntimeException | Error ex) {
+            error = ex;
+            throw ex;
+        } finally {
+            report(sql, null, System.nanoTime() - start, rows(res), error);
+        }
+    }
+
+    @Override
+    public int[] batchUpdate(String... sql) throws DataAccessException {
+        long start = System.nanoTime();
+        int[] res = null;
+        Throwable error = null;
+        try {
+            res = super.batchUpdate(sql);
+            return res;
+        } catch (RuntimeException | Error ex) {
+            error = ex;
+            throw ex;
+        } finally {
+            // Time is shared evenly as statements of a batch are not timed
+            // individually.
+            long each = (System.nanoTime() - start) / Math.max(1, sql.length);
+            for (int i = 0; i < sql.length; i++) {
+                report(sql[i], null, each, res != null && i < res.length ? res[i] : -1, error);
+            }
+        }
+    }
+
+    private void report(String sql, Object[] args, long nanos, int rows, Throwable error) {
+        if (sql == null) {
+            return;
+        }
+        for (Observer o : observers) {
+            o.executed(sql, args, nanos, rows, error);
+        }
+    }
+
+    private static int rows(Object res) {
+        if (res instanceof Integer) {
+            return (Integer) res;
+        }
+        if (res instanceof Collection) {
+            return ((Collection<?>) res).size();
+        }
+        if (res instanceof int[]) {
+            int n = 0;
+            for (int c : (int[]) res) {
+                n += Math.max(0, c);
+            }
+            return n;
+        }
+        if (res instanceof int[][]) {
+            int n = 0;
+            for (int[] b : (int[][]) res) {
+                for (int c : b) {
+                    n += Math.max(0, c);
+                }
+            }
+            return n;
+        }
+        return -1;
+    }
+
+}
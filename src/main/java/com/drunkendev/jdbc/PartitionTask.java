@@ -0,0 +1,155 @@
+/*
+ * PartitionTask.java    Oct 16 2026, 23:45
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.jdbc;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+
+/**
+ * Fork/join task executing a query over a range of partitions of a key range.
+ *
+ * The task splits its partitions in half until a single partition remains,
+ * which is queried within a read-only execution of the holder run through its
+ * async executor, and so on a connection of its own within the limit shared
+ * with asynchronous executions. Results are merged pairwise in key order.
+ *
+ * @author  Brett Ryan
+ * @since   1.6
+ */
+final class PartitionTask<A> extends RecursiveTask<A> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final JdbcHolder holder;
+    private final LimitingExecutor executor;
+    private final String sql;
+    private final Object[] args;
+    private final ResultSetExtractor<A> extractor;
+    private final BinaryOperator<A> combiner;
+    private final long min;
+    private final long size;
+    private final int partitions;
+    private final int from;
+    private final int to;
+
+    private PartitionTask(JdbcHolder holder,
+                          LimitingExecutor executor,
+                          String sql,
+                          Object[] args,
+                          ResultSetExtractor<A> extractor,
+                          BinaryOperator<A> combiner,
+                          long min,
+                          long size,
+                          int partitions,
+                          int from,
+                          int to) {
+        this.holder = holder;
+        this.executor = executor;
+        this.sql = sql;
+        this.args = args;
+        this.extractor = extractor;
+        this.combiner = combiner;
+        this.min = min;
+        this.size = size;
+        this.partitions = partitions;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Creates a task covering all partitions of a key range.
+     *
+     * @param   holder
+     *          Holder to execute each partition with.
+     * @param   executor
+     *          Executor limiting the partitions executed at once.
+     * @param   sql
+     *          Query whose last two parameters are the inclusive lower and
+     *          exclusive upper bound of a partition.
+     * @param   args
+     *          Arguments preceding the partition bounds.
+     * @param   extractor
+     *          Extractor for the result of each partition.
+     * @param   combiner
+     *          Associative function merging two adjacent results.
+     * @param   min
+     *          Inclusive lower bound of the range.
+     * @param   max
+     *          Exclusive upper bound of the range.
+     * @param   partitions
+     *          Number of partitions, reduced if the range is smaller.
+     * @return  New task.
+     * @throws  ArithmeticException
+     *          if the range is larger than {@link Long#MAX_VALUE}.
+     */
+    static <A> PartitionTask<A> of(JdbcHolder holder,
+                                   LimitingExecutor executor,
+                                   String sql,
+                                   Object[] args,
+                                   ResultSetExtractor<A> extractor,
+                                   BinaryOperator<A> combiner,
+                                   long min,
+                                   long max,
+                                   int partitions) {
+        long size = Math.max(0, Math.subtractExact(max, min));
+        int n = (int) Math.max(1, Math.min(partitions, size));
+        return new PartitionTask<>(holder, executor, sql, args, extractor, combiner, min, size, n, 0, n);
+    }
+
+    @Override
+    protected A compute() {
+        if (to - from == 1) {
+            Object[] a = Arrays.copyOf(args, args.length + 2);
+            a[args.length] = bound(from);
+            a[args.length + 1] = bound(to);
+            try {
+                return executor.supply(() -> holder.executeReadOnly((jt, ts) -> jt.query(sql, a, extractor)))
+                        .join();
+            } catch (CompletionException ex) {
+                if (ex.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) ex.getCause();
+                }
+                if (ex.getCause() instanceof Error) {
+                    throw (Error) ex.getCause();
+                }
+                throw ex;
+            }
+        }
+        int mid = (from + to) >>> 1;
+        PartitionTask<A> right = child(mid, to);
+        right.fork();
+        A left = child(from, mid).compute();
+        return combiner.apply(left, right.join());
+    }
+
+    private PartitionTask<A> child(int from, int to) {
+        return new PartitionTask<>(holder, executor, sql, args, extractor, combiner, min, size, partitions, from, to);
+    }
+
+    private long bound(int partition) {
+        long step = size / partitions;
+        long rem = size % partitions;
+        return min + partition * step + Math.min(partition, rem);
+    }
+
+}
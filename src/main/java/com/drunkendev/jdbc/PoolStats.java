@@ -0,0 +1,143 @@
+/*
+ * PoolStats.java    Oct 17 2026, 01:10
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.jdbc;
+
+
+/**
+ * Point in time statistics of a {@link PooledDataSource}.
+ *
+ * @author  Brett Ryan
+ * @since   1.6
+ */
+public class PoolStats {
+
+    private final int maxSize;
+    private final int activeCount;
+    private final int idleCount;
+    private final int waitingCount;
+    private final long borrowCount;
+    private final long timeoutCount;
+    private final long leakCount;
+    private final LatencyHistogram.Snapshot waitLatency;
+
+    PoolStats(int maxSize,
+              int activeCount,
+              int idleCount,
+              int waitingCount,
+              long borrowCount,
+              long timeoutCount,
+              long leakCount,
+              LatencyHistogram.Snapshot waitLatency) {
+        this.maxSize = maxSize;
+        this.activeCount = activeCount;
+        this.idleCount = idleCount;
+        this.waitingCount = waitingCount;
+        this.borrowCount = borrowCount;
+        this.timeoutCount = timeoutCount;
+        this.leakCount = leakCount;
+        this.waitLatency = waitLatency;
+    }
+
+    /**
+     * Maximum number of connections.
+     *
+     * @return  Maximum size.
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Number of connections currently borrowed.
+     *
+     * @return  Active count.
+     */
+    public int getActiveCount() {
+        return activeCount;
+    }
+
+    /**
+     * Number of connections available to borrow.
+     *
+     * @return  Idle count.
+     */
+    public int getIdleCount() {
+        return idleCount;
+    }
+
+    /**
+     * Approximate number of threads waiting for a connection.
+     *
+     * @return  Waiting count.
+     */
+    public int getWaitingCount() {
+        return waitingCount;
+    }
+
+    /**
+     * Number of connections borrowed.
+     *
+     * @return  Borrow count.
+     */
+    public long getBorrowCount() {
+        return borrowCount;
+    }
+
+    /**
+     * Number of borrowers that timed out waiting for a connection.
+     *
+     * @return  Timeout count.
+     */
+    public long getTimeoutCount() {
+        return timeoutCount;
+    }
+
+    /**
+     * Number of connections held beyond the leak threshold.
+     *
+     * @return  Leak count.
+     */
+    public long getLeakCount() {
+        return leakCount;
+    }
+
+    /**
+     * Time spent waiting for a connection.
+     *
+     * @return  Wait latency.
+     */
+    public LatencyHistogram.Snapshot getWaitLatency() {
+        return waitLatency;
+    }
+
+    @Override
+    public String toString() {
+        return "PoolStats{" +
+               "maxSize=" + maxSize +
+               ", activeCount=" + activeCount +
+               ", idleCount=" + idleCount +
+               ", waitingCount=" + waitingCount +
+               ", borrowCount=" + borrowCount +
+               ", timeoutCount=" + timeoutCount +
+               ", leakCount=" + leakCount +
+               ", waitLatency={" + waitLatency + '}' +
+               '}';
+    }
+
+}
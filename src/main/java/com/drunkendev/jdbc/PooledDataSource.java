@@ -0,0 +1,482 @@
+/*
+ * PooledDataSource.java    Oct 17 2026, 01:10
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.jdbc;
+
+import java.io.Closeable;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+
+/**
+ * Data source pooling connections obtained from a target data source.
+ *
+ * Intended for simple deployments such as embedded H2 databases where the
+ * target is a {@code DriverManager} style data source that opens a new
+ * physical connection each time one is requested.
+ *
+ * Borrowing takes a permit and the most recently returned idle connection
+ * without locking, a borrower only waits when all connections are in use.
+ * Connections are:
+ *
+ * <ul>
+ * <li>Validated when borrowed if idle for longer than the validation
+ * interval.</li>
+ * <li>Closed once older than the maximum lifetime, on return or while
+ * idle.</li>
+ * <li>Rolled back and restored to their initial auto-commit, read-only and
+ * isolation settings when returned.</li>
+ * <li>Discarded when returned if a connection error was raised while
+ * borrowed.</li>
+ * </ul>
+ *
+ * When a leak threshold is set the stack of each borrower is captured and a
+ * connection held for longer than the threshold is logged with the stack of
+ * where it was borrowed.
+ *
+ * <h2>Example</h2>
+ *
+ * <pre>
+ * {@code
+ *  PooledDataSource ds = new PooledDataSource(
+ *          new DriverManagerDataSource("jdbc:h2:~/app/db"), 10);
+ *  ds.setLeakThreshold(Duration.ofMinutes(1));
+ *  JdbcHolder holder = new JdbcHolder(ds);
+ *  ...
+ *  LOG.info("{}", ds.getStats());
+ *  ds.close();
+ * }
+ * </pre>
+ *
+ * @author  Brett Ryan
+ * @since   1.6
+ */
+public class PooledDataSource extends AbstractDataSource implements Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PooledDataSource.class);
+    private static final ScheduledThreadPoolExecutor HOUSEKEEPER = housekeeper();
+    private static final long HOUSEKEEPING_INTERVAL_MILLIS = 1000;
+
+    private final DataSource target;
+    private final int maxSize;
+    private final Semaphore permits;
+    private final Deque<Entry> idle;
+    private final Set<Entry> borrowed;
+    private final AtomicInteger total;
+    private final LatencyHistogram waitLatency;
+    private final LongAdder borrowCount;
+    private final LongAdder timeoutCount;
+    private final LongAdder leakCount;
+    private final ScheduledFuture<?> housekeeping;
+    private volatile long maxWaitNanos;
+    private volatile long maxLifetimeNanos;
+    private volatile long validationIntervalNanos;
+    private volatile int validationTimeoutSeconds;
+    private volatile long leakThresholdNanos;
+    private volatile boolean closed;
+
+    /**
+     * Creates a new {@code PooledDataSource} instance.
+     *
+     * Connections are created on demand, waiting up to 30 seconds when all
+     * are in use, live for up to 30 minutes and are validated when borrowed
+     * after being idle for more than 5 seconds. Leak detection is disabled.
+     *
+     * @param   target
+     *          Data source to obtain physical connections from.
+     * @param   maxSize
+     *          Maximum number of connections.
+     * @throws  IllegalArgumentException
+     *          if {@code maxSize} is less than 1.
+     */
+    public PooledDataSource(DataSource target, int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Maximum size must be at least 1.");
+        }
+        this.target = target;
+        this.maxSize = maxSize;
+        this.permits = new Semaphore(maxSize);
+        this.idle = new ConcurrentLinkedDeque<>();
+        this.borrowed = ConcurrentHashMap.newKeySet();
+        this.total = new AtomicInteger();
+        this.waitLatency = new LatencyHistogram();
+        this.borrowCount = new LongAdder();
+        this.timeoutCount = new LongAdder();
+        this.leakCount = new LongAdder();
+        this.maxWaitNanos = Duration.ofSeconds(30).toNanos();
+        this.maxLifetimeNanos = Duration.ofMinutes(30).toNanos();
+        this.validationIntervalNanos = Duration.ofSeconds(5).toNanos();
+        this.validationTimeoutSeconds = 5;
+        this.housekeeping = HOUSEKEEPER.scheduleWithFixedDelay(this::housekeep,
+                                                               HOUSEKEEPING_INTERVAL_MILLIS,
+                                                               HOUSEKEEPING_INTERVAL_MILLIS,
+                                                               TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Set how long to wait for a connection when all are in use.
+     *
+     * @param   maxWait
+     *          Maximum wait.
+     */
+    public void setMaxWait(Duration maxWait) {
+        this.maxWaitNanos = maxWait.toNanos();
+    }
+
+    /**
+     * Set the maximum age of a connection.
+     *
+     * @param   maxLifetime
+     *          Maximum lifetime, null for connections to live indefinitely.
+     */
+    public void setMaxLifetime(Duration maxLifetime) {
+        this.maxLifetimeNanos = maxLifetime == null ? Long.MAX_VALUE : maxLifetime.toNanos();
+    }
+
+    /**
+     * Set how long a connection may be idle before it is validated when
+     * borrowed.
+     *
+     * @param   validationInterval
+     *          Idle time before validation, zero to validate on every borrow.
+     */
+    public void setValidationInterval(Duration validationInterval) {
+        this.validationIntervalNanos = validationInterval.toNanos();
+    }
+
+    /**
+     * Set how long to wait for a connection to be validated.
+     *
+     * @param   validationTimeout
+     *          Validation timeout, rounded up to whole seconds.
+     */
+    public void setValidationTimeout(Duration validationTimeout) {
+        this.validationTimeoutSeconds = (int) Math.max(1, (validationTimeout.toMillis() + 999) / 1000);
+    }
+
+    /**
+     * Set how long a connection may be held before it is logged as a possible
+     * leak.
+     *
+     * Setting a threshold captures the stack of each borrower.
+     *
+     * @param   leakThreshold
+     *          Leak threshold, null to disable leak detection.
+     */
+    public void setLeakThreshold(Duration leakThreshold) {
+        this.leakThresholdNanos = leakThreshold == null ? 0 : leakThreshold.toNanos();
+    }
+
+    /**
+     * Take a snapshot of the pool statistics.
+     *
+     * @return  Current statistics.
+     */
+    public PoolStats getStats() {
+        return new PoolStats(maxSize,
+                             borrowed.size(),
+                             idle.size(),
+                             permits.getQueueLength(),
+                             borrowCount.sum(),
+                             timeoutCount.sum(),
+                             leakCount.sum(),
+                             waitLatency.snapshot());
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Pool is closed");
+        }
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(maxWaitNanos, NANOSECONDS)) {
+                timeoutCount.increment();
+                throw new SQLTransientConnectionException(
+                        "Timed out after " + NANOSECONDS.toMillis(maxWaitNanos) +
+                        "ms waiting for a connection, all " + maxSize + " in use");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted waiting for a connection", ex);
+        } finally {
+            waitLatency.record(System.nanoTime() - start);
+        }
+        try {
+            Entry e = take();
+            e.borrowedAt = System.nanoTime();
+            e.borrower = leakThresholdNanos > 0 ? new Throwable("Connection borrowed") : null;
+            e.leakReported = false;
+            borrowed.add(e);
+            borrowCount.increment();
+            return (Connection) Proxy.newProxyInstance(PooledDataSource.class.getClassLoader(),
+                                                       new Class<?>[]{Connection.class},
+                                                       new Handler(e));
+        } catch (SQLException | RuntimeException ex) {
+            permits.release();
+            throw ex;
+        }
+    }
+
+    /**
+     * Not supported, connections use the credentials of the target data
+     * source.
+     *
+     * @throws  SQLFeatureNotSupportedException
+     *          always.
+     */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Pooled connections use the credentials of the target data source");
+    }
+
+    /**
+     * Close all idle connections and stop pooling.
+     *
+     * Connections currently borrowed are closed when returned.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        housekeeping.cancel(false);
+        closeIdle();
+    }
+
+    private Entry take() throws SQLException {
+        Entry e;
+        while ((e = idle.pollFirst()) != null) {
+            if (usable(e)) {
+                return e;
+            }
+            discard(e);
+        }
+        Connection con = target.getConnection();
+        total.incrementAndGet();
+        try {
+            return new Entry(con);
+        } catch (SQLException | RuntimeException ex) {
+            total.decrementAndGet();
+            con.close();
+            throw ex;
+        }
+    }
+
+    private boolean usable(Entry e) {
+        long now = System.nanoTime();
+        if (now - e.created >= maxLifetimeNanos) {
+            return false;
+        }
+        if (now - e.returnedAt < validationIntervalNanos) {
+            return true;
+        }
+        try {
+            return e.connection.isValid(validationTimeoutSeconds);
+        } catch (SQLException ex) {
+            return false;
+        }
+    }
+
+    private void release(Entry e) {
+        borrowed.remove(e);
+        try {
+            if (e.broken || closed || System.nanoTime() - e.created >= maxLifetimeNanos) {
+                discard(e);
+            } else {
+                e.reset();
+                e.returnedAt = System.nanoTime();
+                idle.offerFirst(e);
+                if (closed) {
+                    closeIdle();
+                }
+            }
+        } catch (SQLException | RuntimeException ex) {
+            LOG.debug("Discarding connection that could not be reset: {}", ex.getMessage());
+            discard(e);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void discard(Entry e) {
+        total.decrementAndGet();
+        try {
+            e.connection.close();
+        } catch (SQLException | RuntimeException ex) {
+            LOG.debug("Could not close connection: {}", ex.getMessage());
+        }
+    }
+
+    private void closeIdle() {
+        Entry e;
+        while ((e = idle.pollFirst()) != null) {
+            discard(e);
+        }
+    }
+
+    private void housekeep() {
+        long now = System.nanoTime();
+        long threshold = leakThresholdNanos;
+        if (threshold > 0) {
+            for (Entry e : borrowed) {
+                if (!e.leakReported && now - e.borrowedAt >= threshold) {
+                    e.leakReported = true;
+                    leakCount.increment();
+                    LOG.warn("Connection held for {}ms, possible leak", NANOSECONDS.toMillis(now - e.borrowedAt), e.borrower);
+                }
+            }
+        }
+        for (Entry e : idle) {
+            if (now - e.created >= maxLifetimeNanos && idle.remove(e)) {
+                discard(e);
+            }
+        }
+    }
+
+    private static ScheduledThreadPoolExecutor housekeeper() {
+        ScheduledThreadPoolExecutor res = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "PooledDataSource-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        res.setRemoveOnCancelPolicy(true);
+        return res;
+    }
+
+
+    /**
+     * Physical connection with its initial settings and borrow state.
+     */
+    private static final class Entry {
+
+        private final Connection connection;
+        private final long created;
+        private final boolean autoCommit;
+        private final boolean readOnly;
+        private final int isolation;
+        private volatile long returnedAt;
+        private volatile long borrowedAt;
+        private volatile Throwable borrower;
+        private volatile boolean leakReported;
+        private volatile boolean broken;
+
+        Entry(Connection connection) throws SQLException {
+            this.connection = connection;
+            this.created = System.nanoTime();
+            this.returnedAt = created;
+            this.autoCommit = connection.getAutoCommit();
+            this.readOnly = connection.isReadOnly();
+            this.isolation = connection.getTransactionIsolation();
+        }
+
+        void reset() throws SQLException {
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+            }
+            if (connection.getAutoCommit() != autoCommit) {
+                connection.setAutoCommit(autoCommit);
+            }
+            if (connection.isReadOnly() != readOnly) {
+                connection.setReadOnly(readOnly);
+            }
+            if (connection.getTransactionIsolation() != isolation) {
+                connection.setTransactionIsolation(isolation);
+            }
+            connection.clearWarnings();
+            borrower = null;
+        }
+
+    }
+
+
+    /**
+     * Connection handed to a borrower, closing it returns the connection to
+     * the pool.
+     */
+    private final class Handler implements InvocationHandler {
+
+        private final Entry entry;
+        private final AtomicBoolean returned;
+
+        Handler(Entry entry) {
+            this.entry = entry;
+            this.returned = new AtomicBoolean();
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (returned.compareAndSet(false, true)) {
+                        release(entry);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned.get() || entry.connection.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled " + entry.connection;
+                default:
+                    break;
+            }
+            if (returned.get()) {
+                throw new SQLException("Connection is closed");
+            }
+            try {
+                return method.invoke(entry.connection, args);
+            } catch (InvocationTargetException ex) {
+                Throwable cause = ex.getCause();
+                if (cause instanceof SQLException) {
+                    String state = ((SQLException) cause).getSQLState();
+                    if (state != null && state.startsWith("08")) {
+                        entry.broken = true;
+                    }
+                }
+                throw cause;
+            }
+        }
+
+    }
+
+}
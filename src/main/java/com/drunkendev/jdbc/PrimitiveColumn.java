@@ -0,0 +1,104 @@
+/*
+ * PrimitiveColumn.java    Oct 16 2026, 17:10
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.jdbc;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.BitSet;
+
+
+/**
+ * Values of a single result set column held in a growable primitive array.
+ *
+ * SQL {@code NULL} values are recorded within a bitmap rather than by boxing,
+ * the primitive value stored for a null row is zero.
+ *
+ * @author  Brett Ryan
+ * @since   1.6
+ * @see     ColumnarExtractor
+ */
+public abstract class PrimitiveColumn {
+
+    static final int DEFAULT_CAPACITY = 1024;
+
+    private BitSet nulls;
+    int size;
+
+    PrimitiveColumn() {
+    }
+
+    /**
+     * Number of rows held.
+     *
+     * @return  Row count.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Determine if the value for a row was SQL {@code NULL}.
+     *
+     * @param   row
+     *          Zero based row index.
+     * @return  true if the value was null.
+     */
+    public boolean isNull(int row) {
+        checkIndex(row);
+        return nulls != null && nulls.get(row);
+    }
+
+    /**
+     * Number of rows with a SQL {@code NULL} value.
+     *
+     * @return  Null count.
+     */
+    public int getNullCount() {
+        return nulls == null ? 0 : nulls.cardinality();
+    }
+
+    void checkIndex(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row: " + row + ", Size: " + size);
+        }
+    }
+
+    static int grow(int capacity) {
+        int n = capacity + (capacity >> 1) + 1;
+        if (n < 0) {
+            throw new OutOfMemoryError("Column too large");
+        }
+        return n;
+    }
+
+    /**
+     * Read the value of the current row.
+     */
+    abstract void read(ResultSet rs, int col) throws SQLException;
+
+    void markNull(ResultSet rs) throws SQLException {
+        if (rs.wasNull()) {
+            if (nulls == null) {
+                nulls = new BitSet();
+            }
+            nulls.set(size);
+        }
+    }
+
+}
@@ -18,9 +18,19 @@
 
 package com.drunkendev.jdbc;
 
-import java.util.HashMap;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 
 import static com.drunkendev.jdbc.JdbcHelper.getSql;
 
@@ -32,20 +42,56 @@ import static com.drunkendev.jdbc.JdbcHelper.getSql;
  * stored as resources alongside a class.
  *
  * Loaded queries are cached on load for further calls to be read and shared
- * across other classes.
+ * across other classes. Queries are keyed by their absolute resource path so
+ * that the same resource requested relative to different classes within a
+ * package is only loaded once.
+ *
+ * This class is safe for use by multiple threads. Resources are parsed without
+ * holding any lock, should several threads request a resource that is not yet
+ * cached at the same time each may parse it, but all receive the text first
+ * stored.
+ *
+ * For development a cache may {@link #setWatching(boolean) watch} resources
+ * loaded from the file system, re-parsing them in the background as they
+ * change.
+ *
+ * Where heap usage is a concern a cache may be configured to store queries
+ * {@link #setCompact(boolean) compactly} as encoded bytes.
  *
  * @author  Brett Ryan
  * @since   1.0
  */
-public class QueryCache {
+public class QueryCache implements Closeable {
 
-    private final Map<Key, String> queries;
+    private static final Logger LOG = LoggerFactory.getLogger(QueryCache.class);
+
+    private final Map<String, Object> queries;
+    private final Map<String, ClassLoader> loaders;
+    private final Map<CompactSql, CompactSql> pool;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder loads;
+    private final LongAdder loadTime;
+    private final LongAdder reloads;
+    private final LongAdder compactStringBytes;
+    private final LongAdder compactPoolBytes;
+    private volatile QueryWatcher watcher;
+    private volatile boolean compact;
 
     /**
      * Creates a new {@code QueryCache} instance.
      */
     public QueryCache() {
-        this.queries = new HashMap<>();
+        this.queries = new ConcurrentHashMap<>();
+        this.loaders = new ConcurrentHashMap<>();
+        this.pool = new ConcurrentHashMap<>();
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.loads = new LongAdder();
+        this.loadTime = new LongAdder();
+        this.reloads = new LongAdder();
+        this.compactStringBytes = new LongAdder();
+        this.compactPoolBytes = new LongAdder();
     }
 
     /**
@@ -59,12 +105,39 @@ public class QueryCache {
      *          Resource name.
      * @return  SQL resource processed by {@link com.drunkendev.jdbc.JdbcHelper#getSql(java.io.InputStream) getSql(InputStream)}
      */
-    public String get(Class clazz, String resourceName) {
-        Key k = new Key(clazz, resourceName);
-        if (!queries.containsKey(k)) {
-            queries.put(k, getSql(clazz.getResourceAsStream(resourceName)));
+    public String get(Class<?> clazz, String resourceName) {
+        return text(lookup(clazz, resourceName));
+    }
+
+    /**
+     * Loads and returns the stored form of a resource.
+     *
+     * The instance returned changes only when the resource is reloaded.
+     *
+     * @param   clazz
+     *          Class for where the resource will be loaded from.
+     * @param   resourceName
+     *          Resource name.
+     * @return  Stored query, readable with {@link #text(Object)}.
+     */
+    Object lookup(Class<?> clazz, String resourceName) {
+        String k = resolveName(clazz, resourceName);
+        Object res = queries.get(k);
+        if (res != null) {
+            hits.increment();
+            return res;
+        }
+        misses.increment();
+        // Loaded outside of the map so that parsing never blocks lookups of
+        // other keys, the first result stored is kept.
+        res = load(clazz.getResourceAsStream(resourceName));
+        Object existing = queries.putIfAbsent(k, res);
+        if (existing == null) {
+            watch(k, clazz.getClassLoader());
+        } else {
+            release(res);
         }
-        return queries.get(k);
+        return existing == null ? res : existing;
     }
 
     /**
@@ -78,42 +151,292 @@ public class QueryCache {
      *          Resource name.
      * @return  SQL resource processed by {@link com.drunkendev.jdbc.JdbcHelper#getSql(java.io.InputStream) getSql(InputStream)}
      */
-    public String getNoCache(Class clazz, String resourceName) {
+    public String getNoCache(Class<?> clazz, String resourceName) {
         return getSql(clazz.getResourceAsStream(resourceName));
     }
 
+    /**
+     * Loads all {@code *.sql} resources within the package of {@code clazz}
+     * and its sub-packages.
+     *
+     * @param   clazz
+     *          Class whose package will be scanned.
+     * @return  Number of resources loaded.
+     * @see     #preload(String)
+     * @since   1.6
+     */
+    public int preload(Class<?> clazz) {
+        return preload(packageName(clazz));
+    }
+
+    /**
+     * Loads all {@code *.sql} resources within a package and its sub-packages.
+     *
+     * Every class path root containing the package is scanned, resources are
+     * then parsed in parallel on the common {@link java.util.concurrent.ForkJoinPool ForkJoinPool}.
+     * Resources already cached are not reloaded.
+     *
+     * This is intended to be called on application startup so that requests
+     * do not pay the cost of the initial load.
+     *
+     * @param   packageName
+     *          Package to scan, an empty string scans the whole class path.
+     * @return  Number of resources loaded.
+     * @throws  UncheckedIOException
+     *          if the class path could not be scanned or a resource could
+     *          not be read.
+     * @since   1.6
+     */
+    public int preload(String packageName) {
+        String root = packageName.isEmpty() ? "" : packageName.replace('.', '/') + "/";
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+        Map<String, Resource> found = new LinkedHashMap<>();
+        try {
+            for (Resource base : resolver.getResources("classpath*:" + root)) {
+                String baseUrl = base.getURL().toString();
+                for (Resource r : resolver.getResources(baseUrl + "**/*.sql")) {
+                    String url = r.getURL().toString();
+                    if (url.startsWith(baseUrl)) {
+                        found.putIfAbsent(root + url.substring(baseUrl.length()), r);
+                    }
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex.getMessage(), ex);
+        }
+        LOG.debug("Preloading {} SQL resources from {}", found.size(), packageName);
+        LongAdder count = new LongAdder();
+        found.entrySet().parallelStream()
+                .filter(e -> !queries.containsKey(e.getKey()))
+                .forEach(e -> {
+                    try {
+                        Object res = load(e.getValue().getInputStream());
+                        if (queries.putIfAbsent(e.getKey(), res) == null) {
+                            count.increment();
+                            watch(e.getKey(), resolver.getClassLoader());
+                        } else {
+                            release(res);
+                        }
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex.getMessage(), ex);
+                    }
+                });
+        return count.intValue();
+    }
+
+    /**
+     * Enable or disable watching of resources for changes.
+     *
+     * When enabled, resources loaded from a directory on the file system have
+     * their directory registered with a {@link java.nio.file.WatchService WatchService},
+     * both those already cached and those loaded later. Each time a file
+     * changes it is re-parsed on a background thread and the cached text
+     * replaced, lookups continue to be served from the cache. Resources within
+     * archives are not watched.
+     *
+     * This is intended for development.
+     *
+     * @param   watching
+     *          true to watch resources for changes.
+     * @throws  UncheckedIOException
+     *          if a watch service could not be created.
+     * @since   1.6
+     */
+    public synchronized void setWatching(boolean watching) {
+        if (watching && watcher == null) {
+            QueryWatcher w;
+            try {
+                w = new QueryWatcher(this::reload);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex.getMessage(), ex);
+            }
+            watcher = w;
+            loaders.forEach((k, cl) -> w.watch(k, cl.getResource(k)));
+        } else if (!watching && watcher != null) {
+            try {
+                watcher.close();
+            } catch (IOException ex) {
+                LOG.warn("Unable to close watcher: {}", ex.getMessage());
+            }
+            watcher = null;
+        }
+    }
+
+    /**
+     * Enable or disable compact storage of queries.
+     *
+     * When enabled, queries subsequently loaded are stored as encoded bytes;
+     * one byte per character where the text is Latin-1, otherwise UTF-8.
+     * Queries with identical content are stored once regardless of the
+     * resource they were loaded from. Text is decoded on every lookup and not
+     * retained, so callers should hold the returned text rather than look it
+     * up repeatedly.
+     *
+     * This trades lookup speed for heap and should be set before queries are
+     * loaded, existing entries are not converted. On Java 9 and later strings
+     * already hold Latin-1 text in one byte per character, leaving only the
+     * saving of duplicate content.
+     *
+     * @param   compact
+     *          true to store queries compactly.
+     * @see     QueryCacheStats#getBytesSaved()
+     * @since   1.6
+     */
+    public void setCompact(boolean compact) {
+        this.compact = compact;
+    }
+
+    /**
+     * Determine if queries are stored compactly.
+     *
+     * @return  true if compact storage is enabled.
+     * @since   1.6
+     */
+    public boolean isCompact() {
+        return compact;
+    }
 
-    private static final class Key {
+    /**
+     * Determine if resources are being watched for changes.
+     *
+     * @return  true if watching.
+     * @since   1.6
+     */
+    public boolean isWatching() {
+        return watcher != null;
+    }
 
-        private final String type;
-        private final String name;
+    /**
+     * Stops watching resources for changes.
+     *
+     * @since   1.6
+     */
+    @Override
+    public void close() {
+        setWatching(false);
+    }
 
-        Key(Class type, String name) {
-            this.type = type.getPackage().getName();
-            this.name = name;
+    /**
+     * Record the loader of a newly cached resource, watching it if enabled.
+     *
+     * The loader is recorded before the watcher is read and
+     * {@link #setWatching(boolean)} sets the watcher before reading the
+     * loaders, so a resource cached while watching is enabled is registered
+     * by at least one of them.
+     */
+    private void watch(String key, ClassLoader cl) {
+        if (cl == null) {
+            return;
+        }
+        loaders.put(key, cl);
+        QueryWatcher w = watcher;
+        if (w != null) {
+            w.watch(key, cl.getResource(key));
         }
+    }
+
+    /**
+     * Replace a cached query with the content of a file, as is done when a
+     * watched file changes.
+     */
+    void reload(String key, Path file) {
+        long start = System.nanoTime();
+        String sql = getSql(file);
+        loadTime.add(System.nanoTime() - start);
+        release(queries.put(key, store(sql)));
+        reloads.increment();
+        LOG.info("Reloaded SQL resource {}", key);
+    }
+
+    /**
+     * Retrieve statistics for this cache.
+     *
+     * @return  Snapshot of the current statistics.
+     * @since   1.6
+     */
+    public QueryCacheStats getStats() {
+        return new QueryCacheStats(hits.sum(),
+                                   misses.sum(),
+                                   loads.sum(),
+                                   loadTime.sum(),
+                                   reloads.sum(),
+                                   compactStringBytes.sum() - compactPoolBytes.sum(),
+                                   queries.size());
+    }
 
-        @Override
-        public int hashCode() {
-            int hash = 3;
-            hash = 97 * hash + Objects.hashCode(this.type);
-            hash = 97 * hash + Objects.hashCode(this.name);
-            return hash;
+    private Object load(InputStream is) {
+        long start = System.nanoTime();
+        try {
+            return store(getSql(is));
+        } finally {
+            loads.increment();
+            loadTime.add(System.nanoTime() - start);
         }
+    }
 
-        @Override
-        public boolean equals(Object obj) {
-            if (this == obj) {
-                return true;
+    /**
+     * Convert text to the form it will be stored as.
+     */
+    private Object store(String sql) {
+        if (!compact) {
+            return sql;
+        }
+        CompactSql res = pool.compute(CompactSql.of(sql), (k, v) -> {
+            if (v == null) {
+                compactPoolBytes.add(k.size());
+                v = k;
             }
-            if (obj != null && getClass() != obj.getClass()) {
-                final Key other = (Key) obj;
-                return Objects.equals(this.name, other.name) &&
-                       Objects.equals(this.type, other.type);
+            v.refs++;
+            return v;
+        });
+        compactStringBytes.add(res.stringSize());
+        return res;
+    }
+
+    /**
+     * Release a stored query no longer held by the cache, removing compact
+     * text from the pool once no entry refers to it.
+     */
+    private void release(Object stored) {
+        if (!(stored instanceof CompactSql)) {
+            return;
+        }
+        CompactSql c = (CompactSql) stored;
+        compactStringBytes.add(-c.stringSize());
+        pool.computeIfPresent(c, (k, v) -> {
+            if (--v.refs > 0) {
+                return v;
             }
-            return true;
+            compactPoolBytes.add(-v.size());
+            return null;
+        });
+    }
+
+    /**
+     * Text of a stored query.
+     */
+    static String text(Object stored) {
+        return stored instanceof CompactSql ? ((CompactSql) stored).get() : (String) stored;
+    }
+
+    /**
+     * Resolve a resource name the same as {@link Class#getResource(String)}.
+     */
+    static String resolveName(Class<?> clazz, String name) {
+        if (name.startsWith("/")) {
+            return name.substring(1);
         }
+        String pkg = packageName(clazz);
+        return pkg.isEmpty() ? name : pkg.replace('.', '/') + "/" + name;
+    }
 
+    private static String packageName(Class<?> clazz) {
+        while (clazz.isArray()) {
+            clazz = clazz.getComponentType();
+        }
+        String n = clazz.getName();
+        int idx = n.lastIndexOf('.');
+        return idx == -1 ? "" : n.substring(0, idx);
     }
 
 }
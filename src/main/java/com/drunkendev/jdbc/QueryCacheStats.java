@@ -0,0 +1,142 @@
+/*
+ * QueryCacheStats.java    Oct 16 2026, 13:05
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.jdbc;
+
+import java.time.Duration;
+
+
+/**
+ * Point in time statistics of a {@link QueryCache}.
+ *
+ * @author  Brett Ryan
+ * @since   1.6
+ */
+public class QueryCacheStats {
+
+    private final long hitCount;
+    private final long missCount;
+    private final long loadCount;
+    private final long loadTimeNanos;
+    private final long reloadCount;
+    private final long bytesSaved;
+    private final int size;
+
+    QueryCacheStats(long hitCount,
+                    long missCount,
+                    long loadCount,
+                    long loadTimeNanos,
+                    long reloadCount,
+                    long bytesSaved,
+                    int size) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.loadCount = loadCount;
+        this.loadTimeNanos = loadTimeNanos;
+        this.reloadCount = reloadCount;
+        this.bytesSaved = bytesSaved;
+        this.size = size;
+    }
+
+    /**
+     * Number of lookups that were served from the cache.
+     *
+     * @return  Hit count.
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Number of lookups that required the resource to be loaded.
+     *
+     * @return  Miss count.
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Number of resources loaded, including those loaded by preloading.
+     *
+     * @return  Load count.
+     */
+    public long getLoadCount() {
+        return loadCount;
+    }
+
+    /**
+     * Total time spent loading and parsing resources.
+     *
+     * Where resources are preloaded in parallel this is the sum of the time
+     * spent by each thread.
+     *
+     * @return  Total load time.
+     */
+    public Duration getLoadTime() {
+        return Duration.ofNanos(loadTimeNanos);
+    }
+
+    /**
+     * Number of resources reloaded after a change while watching.
+     *
+     * @return  Reload count.
+     * @see     QueryCache#setWatching(boolean)
+     */
+    public long getReloadCount() {
+        return reloadCount;
+    }
+
+    /**
+     * Estimated heap saved by compact storage.
+     *
+     * This is the size of the text of each compactly stored query held as a
+     * string by the running JVM, less the size of the distinct encoded text
+     * held, excluding object headers. Queries stored before compact storage
+     * was enabled are not counted.
+     *
+     * @return  Bytes saved.
+     * @see     QueryCache#setCompact(boolean)
+     */
+    public long getBytesSaved() {
+        return bytesSaved;
+    }
+
+    /**
+     * Number of queries held by the cache.
+     *
+     * @return  Cache size.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return "QueryCacheStats{" +
+               "hitCount=" + hitCount +
+               ", missCount=" + missCount +
+               ", loadCount=" + loadCount +
+               ", loadTime=" + getLoadTime() +
+               ", reloadCount=" + reloadCount +
+               ", bytesSaved=" + bytesSaved +
+               ", size=" + size +
+               '}';
+    }
+
+}
@@ -0,0 +1,160 @@
+/*
+ * QueryWatcher.java    Oct 16 2026, 15:40
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.jdbc;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+
+/**
+ * Watches SQL resources on the file system for changes.
+ *
+ * Only resources resolved to a {@code file:} URL can be watched, resources
+ * within archives are ignored. Changes are reported on a single daemon thread
+ * once no further change has been seen for 100ms.
+ *
+ * @author  Brett Ryan
+ * @since   1.6
+ */
+final class QueryWatcher implements Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(QueryWatcher.class);
+    private static final long SETTLE_MILLIS = 100;
+
+    private final WatchService watchService;
+    private final Map<Path, String> files;
+    private final Set<Path> dirs;
+    private final BiConsumer<String, Path> listener;
+    private final Thread thread;
+
+    /**
+     * Creates a new {@code QueryWatcher} instance and starts its thread.
+     *
+     * @param   listener
+     *          Called with the cache key and file each time a watched file
+     *          changes.
+     * @throws  IOException
+     *          If a watch service could not be created.
+     */
+    QueryWatcher(BiConsumer<String, Path> listener) throws IOException {
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.files = new ConcurrentHashMap<>();
+        this.dirs = ConcurrentHashMap.newKeySet();
+        this.listener = listener;
+        this.thread = new Thread(this::run, "QueryCache-watcher");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Watch the file backing a resource.
+     *
+     * @param   key
+     *          Cache key of the resource.
+     * @param   url
+     *          Resolved URL of the resource, may be null.
+     */
+    void watch(String key, URL url) {
+        if (url == null || !"file".equals(url.getProtocol())) {
+            return;
+        }
+        try {
+            Path file = Paths.get(url.toURI()).toAbsolutePath().normalize();
+            files.put(file, key);
+            Path dir = file.getParent();
+            if (dirs.add(dir)) {
+                dir.register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+                LOG.debug("Watching {} for SQL changes", dir);
+            }
+        } catch (IOException | URISyntaxException | ClosedWatchServiceException ex) {
+            LOG.warn("Unable to watch {}: {}", url, ex.getMessage());
+        }
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                Set<Path> changed = new LinkedHashSet<>();
+                WatchKey wk = watchService.take();
+                do {
+                    collect(wk, changed);
+                    // Files are often written in several steps, such as a
+                    // truncate followed by a write, wait for changes to settle
+                    // so that a partially written file is not parsed.
+                    wk = watchService.poll(SETTLE_MILLIS, MILLISECONDS);
+                } while (wk != null);
+                for (Path f : changed) {
+                    try {
+                        listener.accept(files.get(f), f);
+                    } catch (RuntimeException ex) {
+                        LOG.warn("Unable to reload {}: {}", f, ex.getMessage());
+                    }
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException ex) {
+            // Closed.
+        }
+    }
+
+    private void collect(WatchKey wk, Set<Path> changed) {
+        Path dir = (Path) wk.watchable();
+        for (WatchEvent<?> e : wk.pollEvents()) {
+            if (e.kind() == OVERFLOW) {
+                files.keySet().stream()
+                        .filter(f -> dir.equals(f.getParent()))
+                        .forEach(changed::add);
+            } else {
+                Path f = dir.resolve((Path) e.context());
+                if (files.containsKey(f)) {
+                    changed.add(f);
+                }
+            }
+        }
+        wk.reset();
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+
+}
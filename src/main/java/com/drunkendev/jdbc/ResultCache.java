@@ -0,0 +1,456 @@
+/*
+ * ResultCache.java    Oct 16 2026, 22:55
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.jdbc;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+
+/**
+ * Cache of query results keyed by SQL, arguments and row mapper.
+ *
+ * Each cached result is tagged with the tables named in the {@code FROM} and
+ * {@code JOIN} clauses of its query. Statements written through a holder using
+ * the cache invalidate all results tagged with the table they write to, once
+ * when the statement executes and again when its transaction completes.
+ * Statements whose target can not be determined, such as procedure calls,
+ * invalidate all results.
+ *
+ * Results expire once their time to live has passed. When the cache is full
+ * the least recently used results are evicted first.
+ *
+ * Cached lists are unmodifiable and shared between callers, the rows they
+ * contain should not be modified.
+ *
+ * Writes made outside of the holder, or by other processes, are not seen and
+ * are only reflected once cached results expire.
+ *
+ * @author  Brett Ryan
+ * @since   1.6
+ * @see     JdbcHolder#setResultCache(ResultCache)
+ */
+public final class ResultCache {
+
+    private static final String IDENT = "(?:\"[^\"]*\"|`[^`]*`|\\[[^\\]]*\\]|[\\w$#]+)";
+    private static final Pattern TOKEN = Pattern.compile(
+            "'(?:[^']|'')*'|--[^\\n]*|/\\*.*?\\*/|" + IDENT + "(?:\\s*\\.\\s*" + IDENT + ")*|\\S",
+            Pattern.DOTALL);
+    private static final Set<String> KEYWORDS = new HashSet<>(Arrays.asList(
+            "where", "join", "inner", "left", "right", "full", "outer", "cross",
+            "natural", "on", "using", "group", "order", "having", "union",
+            "except", "intersect", "minus", "limit", "offset", "fetch", "for",
+            "window", "connect", "start", "set", "values", "select", "default"));
+    private static final Set<String> READS = new HashSet<>(Arrays.asList(
+            "select", "values", "table", "show", "explain", "describe",
+            "set", "begin", "commit", "rollback", "savepoint", "release"));
+    private static final Set<String> WRITES = new HashSet<>(Arrays.asList(
+            "insert", "update", "delete", "merge", "replace", "upsert", "truncate"));
+    private static final int MAX_CLASSIFIED = 4096;
+    private static final Set<String> ALL = Collections.unmodifiableSet(new HashSet<>());
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LinkedHashMap<Key, Entry> entries;
+    private final Map<String, Set<Key>> tags;
+    private final Map<String, Set<String>> classified;
+    private final AtomicLong generation;
+    private final LongAdder hits;
+    private final LongAdder misses;
+
+    /**
+     * Creates a new {@code ResultCache} instance.
+     *
+     * @param   maxEntries
+     *          Maximum number of results held.
+     * @param   ttl
+     *          Time a result is held for.
+     * @throws  IllegalArgumentException
+     *          if {@code maxEntries} is less than 1 or {@code ttl} is not
+     *          positive.
+     */
+    public ResultCache(int maxEntries, Duration ttl) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Max entries must be at least 1.");
+        }
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Time to live must be positive.");
+        }
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.tags = new HashMap<>();
+        this.classified = new ConcurrentHashMap<>();
+        this.generation = new AtomicLong();
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+    }
+
+    /**
+     * Remove all results tagged with a table.
+     *
+     * @param   table
+     *          Table name, case-insensitive and without schema.
+     */
+    public void invalidate(String table) {
+        generation.incrementAndGet();
+        synchronized (entries) {
+            Set<Key> keys = tags.remove(normalise(table));
+            if (keys != null) {
+                keys.forEach(this::remove);
+            }
+        }
+    }
+
+    /**
+     * Remove all results.
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        synchronized (entries) {
+            entries.clear();
+            tags.clear();
+        }
+    }
+
+    /**
+     * Number of results currently held, including any that have expired but
+     * not yet been removed.
+     *
+     * @return  Result count.
+     */
+    public int getSize() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Number of lookups served from the cache.
+     *
+     * @return  Hit count.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Number of lookups that required the query to be executed.
+     *
+     * @return  Miss count.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Retrieve a cached result, loading and caching it when not present.
+     *
+     * A result loaded while a write is made through the cache is returned but
+     * not cached, as it may not reflect the write. The generation is checked
+     * again as the result is stored, under the same lock invalidation removes
+     * results with, so an invalidation either prevents the result being
+     * stored or removes it once stored.
+     */
+    @SuppressWarnings("unchecked")
+    <T> List<T> get(String sql, RowMapper<T> mapper, Object[] args, Supplier<List<T>> loader) {
+        Key key = new Key(sql, mapper, args);
+        long now = System.nanoTime();
+        Entry e;
+        synchronized (entries) {
+            e = entries.get(key);
+            if (e != null && now - e.expires >= 0) {
+                remove(key);
+                e = null;
+            }
+        }
+        if (e != null) {
+            hits.increment();
+            return (List<T>) e.rows;
+        }
+        misses.increment();
+        long gen = generation.get();
+        List<T> rows = Collections.unmodifiableList(loader.get());
+        put(key, new Entry(rows, readTables(sql), System.nanoTime() + ttlNanos), gen);
+        return rows;
+    }
+
+    /**
+     * Invalidate results affected by an executed statement.
+     *
+     * If a transaction is active the results are invalidated again once it
+     * completes, removing any that were loaded from uncommitted data.
+     */
+    void written(String sql) {
+        Set<String> tables = classified.get(sql);
+        if (tables == null) {
+            tables = writeTables(sql);
+            if (tables == null) {
+                tables = ALL;
+            }
+            if (classified.size() < MAX_CLASSIFIED) {
+                classified.put(sql, tables);
+            }
+        }
+        if (tables != ALL && tables.isEmpty()) {
+            return;
+        }
+        Set<String> affected = tables;
+        Runnable inv = () -> {
+            if (affected == ALL) {
+                invalidateAll();
+            } else {
+                affected.forEach(this::invalidate);
+            }
+        };
+        inv.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    inv.run();
+                }
+            });
+        }
+    }
+
+    private void put(Key key, Entry entry, long gen) {
+        synchronized (entries) {
+            if (generation.get() != gen) {
+                return;
+            }
+            remove(key);
+            entries.put(key, entry);
+            for (String t : entry.tables) {
+                tags.computeIfAbsent(t, k -> new HashSet<>()).add(key);
+            }
+            Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator();
+            while (entries.size() > maxEntries && it.hasNext()) {
+                Map.Entry<Key, Entry> eldest = it.next();
+                it.remove();
+                untag(eldest.getKey(), eldest.getValue());
+            }
+        }
+    }
+
+    /**
+     * Remove a result, the caller must hold the lock on {@code entries}.
+     */
+    private void remove(Key key) {
+        untag(key, entries.remove(key));
+    }
+
+    private void untag(Key key, Entry e) {
+        if (e != null) {
+            for (String t : e.tables) {
+                Set<Key> keys = tags.get(t);
+                if (keys != null) {
+                    keys.remove(key);
+                    if (keys.isEmpty()) {
+                        tags.remove(t);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Tables read by a query.
+     *
+     * @param   sql
+     *          Query to parse.
+     * @return  Normalised names of tables following {@code FROM} and
+     *          {@code JOIN}.
+     */
+    static Set<String> readTables(String sql) {
+        List<String> tokens = tokens(sql);
+        Set<String> res = new HashSet<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            String t = tokens.get(i);
+            if ("from".equals(t) || "join".equals(t)) {
+                boolean list = "from".equals(t);
+                int j = i + 1;
+                while (j < tokens.size() && isName(tokens.get(j))) {
+                    res.add(normalise(tokens.get(j)));
+                    j++;
+                    if (j < tokens.size() && "as".equals(tokens.get(j))) {
+                        j++;
+                    }
+                    if (j < tokens.size() && isName(tokens.get(j))) {
+                        j++;
+                    }
+                    if (!list || j >= tokens.size() || !",".equals(tokens.get(j))) {
+                        break;
+                    }
+                    j++;
+                }
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Tables written by a statement.
+     *
+     * A statement beginning with a {@code with} clause may write from the
+     * main statement or from any of its common table expressions, so it is
+     * treated as a read only when no write keyword appears anywhere within
+     * it. Otherwise the tables written are not determined.
+     *
+     * @param   sql
+     *          Statement to parse.
+     * @return  Empty if the statement does not write, null if the tables
+     *          written to can not be determined.
+     */
+    static Set<String> writeTables(String sql) {
+        List<String> tokens = tokens(sql);
+        if (tokens.isEmpty() || READS.contains(tokens.get(0))) {
+            return Collections.emptySet();
+        }
+        if (tokens.get(0).equals("with")) {
+            return Collections.disjoint(tokens, WRITES) ? Collections.emptySet() : null;
+        }
+        int i;
+        switch (tokens.get(0)) {
+            case "insert":
+            case "merge":
+            case "replace":
+            case "upsert":
+                i = tokens.indexOf("into");
+                break;
+            case "delete":
+                i = tokens.size() > 1 && "from".equals(tokens.get(1)) ? 1 : 0;
+                break;
+            case "truncate":
+                i = tokens.size() > 1 && "table".equals(tokens.get(1)) ? 1 : 0;
+                break;
+            case "update":
+                i = 0;
+                break;
+            default:
+                return null;
+        }
+        if (i < 0 || i + 1 >= tokens.size() || !isName(tokens.get(i + 1))) {
+            return null;
+        }
+        return Collections.singleton(normalise(tokens.get(i + 1)));
+    }
+
+    private static List<String> tokens(String sql) {
+        List<String> res = new ArrayList<>();
+        Matcher m = TOKEN.matcher(sql);
+        while (m.find()) {
+            String t = m.group();
+            if (t.startsWith("--") || t.startsWith("/*") || t.startsWith("'")) {
+                continue;
+            }
+            res.add(t.toLowerCase(Locale.ROOT));
+        }
+        return res;
+    }
+
+    private static boolean isName(String token) {
+        char c = token.charAt(0);
+        return (Character.isLetter(c) || c == '_' || c == '"' || c == '`' || c == '[') &&
+               !KEYWORDS.contains(token);
+    }
+
+    private static String normalise(String name) {
+        String n = name.trim();
+        char last = n.charAt(n.length() - 1);
+        if (n.length() > 1 && (last == '"' || last == '`' || last == ']')) {
+            char open = last == ']' ? '[' : last;
+            n = n.substring(n.lastIndexOf(open, n.length() - 2) + 1, n.length() - 1);
+        } else {
+            n = n.substring(n.lastIndexOf('.') + 1).trim();
+        }
+        return n.toLowerCase(Locale.ROOT);
+    }
+
+
+    private static final class Key {
+
+        private final String sql;
+        private final RowMapper<?> mapper;
+        private final Object[] args;
+        private final int hash;
+
+        Key(String sql, RowMapper<?> mapper, Object[] args) {
+            this.sql = sql;
+            this.mapper = mapper;
+            this.args = args == null ? new Object[0] : args.clone();
+            this.hash = (sql.hashCode() * 31 + mapper.hashCode()) * 31 + Arrays.deepHashCode(this.args);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return hash == other.hash &&
+                   mapper.equals(other.mapper) &&
+                   sql.equals(other.sql) &&
+                   Arrays.deepEquals(args, other.args);
+        }
+
+    }
+
+
+    private static final class Entry {
+
+        private final List<?> rows;
+        private final Set<String> tables;
+        private final long expires;
+
+        Entry(List<?> rows, Set<String> tables, long expires) {
+            this.rows = rows;
+            this.tables = tables;
+            this.expires = expires;
+        }
+
+    }
+
+}
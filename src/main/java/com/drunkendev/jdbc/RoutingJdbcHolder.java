@@ -0,0 +1,620 @@
+/*
+ * RoutingJdbcHolder.java    Oct 16 2026, 21:15
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.jdbc;
+
+import com.fasterxml.jackson.core.ObjectCodec;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+
+/**
+ * Holder that routes read-only executions to replicas and all others to a
+ * primary.
+ *
+ * Read-only executions ({@code executeReadOnly}, {@code executeReadOnlyVoid}
+ * and {@code stream}) are sent to one of the replica holders chosen by the
+ * configured {@link Balance} strategy. All other executions are sent to the
+ * primary holder.
+ *
+ * Reads are sent to the primary instead of a replica when:
+ *
+ * <ul>
+ * <li>A transaction of the primary is active on the current thread, so the
+ * read joins it.</li>
+ * <li>The current thread wrote through this holder within the read-your-writes
+ * window, so that replication lag does not hide the write.</li>
+ * <li>No replica is currently healthy.</li>
+ * </ul>
+ *
+ * A replica that fails to provide a connection is ejected for the ejection
+ * period and the read is retried on the next candidate. A replica that fails
+ * once a read has begun is also ejected, but the error is thrown rather than
+ * the read retried, as the callback may already have had effects such as
+ * output written. An ejected replica is given traffic again once the period
+ * elapses.
+ *
+ * Every public method of {@link JdbcHolder} is overridden, either forwarding
+ * to the primary or a replica or running through the routed executions above,
+ * so that none bypass routing. Configuration is passed on to the primary and
+ * replicas as appropriate.
+ *
+ * <h2>Example</h2>
+ *
+ * <pre>
+ * {@code
+ *  JdbcHolder holder = new RoutingJdbcHolder(new JdbcHolder(primaryDs),
+ *                                            Arrays.asList(new JdbcHolder(replicaDs1),
+ *                                                          new JdbcHolder(replicaDs2)));
+ *  List<Customer> custs = holder.executeReadOnly((template, status)
+ *        -> template.query("select * from customer", MAPPER_CUSTOMER));
+ * }
+ * </pre>
+ *
+ * @author  Brett Ryan
+ * @since   1.6
+ * @see     JdbcManager#route(String, String, String...)
+ */
+public class RoutingJdbcHolder extends JdbcHolder {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RoutingJdbcHolder.class);
+
+    /**
+     * Strategy used to choose a replica for each read.
+     */
+    public enum Balance {
+
+        /**
+         * Cycle through healthy replicas in turn.
+         */
+        ROUND_ROBIN,
+
+        /**
+         * Choose the healthy replica with the fewest executions in progress.
+         */
+        LEAST_IN_FLIGHT
+
+    }
+
+    private final JdbcHolder primary;
+    private final Replica[] replicas;
+    private final AtomicInteger next;
+    private final ThreadLocal<Long> lastWrite;
+    private volatile Balance balance;
+    private volatile long readYourWritesNanos;
+    private volatile long ejectNanos;
+
+    /**
+     * Creates a new {@code RoutingJdbcHolder} instance.
+     *
+     * @param   primary
+     *          Holder that receives all writes.
+     * @param   replicas
+     *          Holders that receive read-only executions, may be empty.
+     */
+    public RoutingJdbcHolder(JdbcHolder primary, List<JdbcHolder> replicas) {
+        super(primary.getJdbcTemplate(), primary.getDataSourceTransactionManager());
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toArray(Replica[]::new);
+        this.next = new AtomicInteger();
+        this.lastWrite = new ThreadLocal<>();
+        this.balance = Balance.ROUND_ROBIN;
+        this.readYourWritesNanos = Duration.ofSeconds(1).toNanos();
+        this.ejectNanos = Duration.ofSeconds(30).toNanos();
+    }
+
+    /**
+     * Set the strategy used to choose a replica, defaults to
+     * {@link Balance#ROUND_ROBIN}.
+     *
+     * @param   balance
+     *          Balance strategy.
+     */
+    public void setBalance(Balance balance) {
+        this.balance = balance;
+    }
+
+    /**
+     * Set how long reads on a thread are sent to the primary after that thread
+     * writes, defaults to one second.
+     *
+     * @param   window
+     *          Read-your-writes window, {@link Duration#ZERO} to disable.
+     */
+    public void setReadYourWritesWindow(Duration window) {
+        this.readYourWritesNanos = window.toNanos();
+    }
+
+    /**
+     * Set how long a failed replica is ejected for, defaults to thirty
+     * seconds.
+     *
+     * @param   period
+     *          Ejection period.
+     */
+    public void setEjectionPeriod(Duration period) {
+        this.ejectNanos = period.toNanos();
+    }
+
+    /**
+     * Retrieve the primary holder.
+     *
+     * @return  Primary holder.
+     */
+    public JdbcHolder getPrimary() {
+        return primary;
+    }
+
+    /**
+     * Number of replicas that are not currently ejected.
+     *
+     * @return  Healthy replica count.
+     */
+    public int getHealthyReplicaCount() {
+        long now = System.nanoTime();
+        int res = 0;
+        for (Replica r : replicas) {
+            if (r.isHealthy(now)) {
+                res++;
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Sets the default transaction definition of the primary.
+     *
+     * @param   def
+     *          New definition.
+     */
+    @Override
+    public void setTransactionDefinition(TransactionDefinition def) {
+        primary.setTransactionDefinition(def);
+    }
+
+    /**
+     * Sets the read-only transaction definition of the primary and all
+     * replicas.
+     *
+     * @param   def
+     *          New definition.
+     */
+    @Override
+    public void setReadOnlyTransactionDefinition(TransactionDefinition def) {
+        primary.setReadOnlyTransactionDefinition(def);
+        for (Replica r : replicas) {
+            r.holder.setReadOnlyTransactionDefinition(def);
+        }
+    }
+
+    /**
+     * Sets the result cache of the primary and all replicas, writes routed to
+     * the primary then invalidate results cached by cached reads of replicas.
+     *
+     * @param   resultCache
+     *          Cache to use, or null to disable caching.
+     */
+    @Override
+    public void setResultCache(ResultCache resultCache) {
+        primary.setResultCache(resultCache);
+        for (Replica r : replicas) {
+            r.holder.setResultCache(resultCache);
+        }
+    }
+
+    /**
+     * Gets the result cache of the primary.
+     *
+     * @return  Result cache, or null if caching is not enabled.
+     */
+    @Override
+    public ResultCache getResultCache() {
+        return primary.getResultCache();
+    }
+
+    /**
+     * Sets statement metrics for the primary and all replicas.
+     *
+     * @param   statementMetrics
+     *          Metrics to record to, or null to stop recording.
+     */
+    @Override
+    public void setStatementMetrics(StatementMetrics statementMetrics) {
+        primary.setStatementMetrics(statementMetrics);
+        for (Replica r : replicas) {
+            r.holder.setStatementMetrics(statementMetrics);
+        }
+    }
+
+    /**
+     * Gets the statement metrics of the primary.
+     *
+     * @return  Statement metrics, or null if not recording.
+     */
+    @Override
+    public StatementMetrics getStatementMetrics() {
+        return primary.getStatementMetrics();
+    }
+
+    /**
+     * Sets the pool for partitioned queries of this holder, each partition is
+     * routed as a read.
+     *
+     * @param   partitionPool
+     *          Pool for partitioned queries.
+     */
+    @Override
+    public void setPartitionPool(ForkJoinPool partitionPool) {
+        super.setPartitionPool(partitionPool);
+    }
+
+    /**
+     * Sets the executor for asynchronous executions of this holder, each
+     * execution is routed as it would be when made directly.
+     *
+     * @param   executor
+     *          Executor for asynchronous executions.
+     */
+    @Override
+    public void setAsyncExecutor(Executor executor) {
+        super.setAsyncExecutor(executor);
+    }
+
+    /**
+     * Sets the maximum number of asynchronous executions of this holder run at
+     * once.
+     *
+     * @param   concurrency
+     *          Maximum concurrent executions.
+     */
+    @Override
+    public void setAsyncConcurrency(int concurrency) {
+        super.setAsyncConcurrency(concurrency);
+    }
+
+    /**
+     * Gets the JDBC template of the primary.
+     *
+     * @return  JDBC Template for the primary holder.
+     */
+    @Override
+    public JdbcTemplate getJdbcTemplate() {
+        return primary.getJdbcTemplate();
+    }
+
+    /**
+     * Gets the transaction manager of the primary.
+     *
+     * @return  Transaction manager for the primary holder.
+     */
+    @Override
+    public DataSourceTransactionManager getDataSourceTransactionManager() {
+        return primary.getDataSourceTransactionManager();
+    }
+
+    /**
+     * Sets the stream fetch size of the primary and all replicas.
+     *
+     * @param   streamFetchSize
+     *          Number of rows fetched from the database at a time.
+     */
+    @Override
+    public void setStreamFetchSize(int streamFetchSize) {
+        primary.setStreamFetchSize(streamFetchSize);
+        for (Replica r : replicas) {
+            r.holder.setStreamFetchSize(streamFetchSize);
+        }
+    }
+
+    /**
+     * Combined statistics of the primary and all replicas.
+     *
+     * @return  Point in time statistics.
+     */
+    @Override
+    public JdbcHolderStats getStats() {
+        JdbcHolderStats res = primary.getStats();
+        for (Replica r : replicas) {
+            res = res.merge(r.holder.getStats());
+        }
+        return res;
+    }
+
+    @Override
+    public <T> T execute(TransactionDefinition def,
+                         BiFunction<JdbcTemplate, TransactionStatus, T> callback)
+            throws DataAccessException {
+        return write(h -> h.execute(def, callback));
+    }
+
+    @Override
+    public void registerTransactionDefinition(String name, TransactionDefinition def) {
+        primary.registerTransactionDefinition(name, def);
+    }
+
+    @Override
+    public <T> T executeNamed(String name,
+                              BiFunction<JdbcTemplate, TransactionStatus, T> callback)
+            throws DataAccessException {
+        return write(h -> h.executeNamed(name, callback));
+    }
+
+    @Override
+    public <T> T execute(BiFunction<JdbcTemplate, TransactionStatus, T> callback)
+            throws DataAccessException {
+        return write(h -> h.execute(callback));
+    }
+
+    @Override
+    public <T> T execute(Duration timeout,
+                         BiFunction<JdbcTemplate, TransactionStatus, T> callback)
+            throws DataAccessException {
+        return write(h -> h.execute(timeout, callback));
+    }
+
+    @Override
+    public void executeVoid(BiConsumer<JdbcTemplate, TransactionStatus> callback)
+            throws DataAccessException {
+        write(h -> {
+            h.executeVoid(callback);
+            return null;
+        });
+    }
+
+    @Override
+    public <T> T executeReadOnly(BiFunction<JdbcTemplate, TransactionStatus, T> callback)
+            throws DataAccessException {
+        return read(h -> h.executeReadOnly(callback));
+    }
+
+    @Override
+    public <T> T executeReadOnly(Duration timeout,
+                                 BiFunction<JdbcTemplate, TransactionStatus, T> callback)
+            throws DataAccessException {
+        return read(h -> h.executeReadOnly(timeout, callback));
+    }
+
+    @Override
+    public void executeReadOnlyVoid(BiConsumer<JdbcTemplate, TransactionStatus> callback)
+            throws DataAccessException {
+        read(h -> {
+            h.executeReadOnlyVoid(callback);
+            return null;
+        });
+    }
+
+    @Override
+    public <T> List<T> executeReadOnlyCached(String sql, RowMapper<T> mapper, Object... args)
+            throws DataAccessException {
+        return read(h -> h.executeReadOnlyCached(sql, mapper, args));
+    }
+
+    @Override
+    public <A> A executePartitioned(String sql,
+                                    long min,
+                                    long max,
+                                    int partitions,
+                                    ResultSetExtractor<A> extractor,
+                                    BinaryOperator<A> combiner,
+                                    Object... args)
+            throws DataAccessException {
+        // Each partition is executed through executeReadOnly of this holder.
+        return super.executePartitioned(sql, min, max, partitions, extractor, combiner, args);
+    }
+
+    @Override
+    public <T> List<T> executePartitioned(String sql,
+                                          long min,
+                                          long max,
+                                          int partitions,
+                                          RowMapper<T> mapper,
+                                          Object... args)
+            throws DataAccessException {
+        return super.executePartitioned(sql, min, max, partitions, mapper, args);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> executeAsync(BiFunction<JdbcTemplate, TransactionStatus, T> callback) {
+        return super.executeAsync(callback);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> executeReadOnlyAsync(BiFunction<JdbcTemplate, TransactionStatus, T> callback) {
+        return super.executeReadOnlyAsync(callback);
+    }
+
+    @Override
+    public <T> Stream<T> stream(String sql, RowMapper<T> mapper, Object... args)
+            throws DataAccessException {
+        return read(h -> h.stream(sql, mapper, args), Stream::onClose);
+    }
+
+    @Override
+    public <T> Stream<T> stream(int fetchSize, String sql, RowMapper<T> mapper, Object... args)
+            throws DataAccessException {
+        return read(h -> h.stream(fetchSize, sql, mapper, args), Stream::onClose);
+    }
+
+    @Override
+    public long writeJson(OutputStream out, String sql, Object... args) throws DataAccessException {
+        return read(h -> h.writeJson(out, sql, args));
+    }
+
+    @Override
+    public <T> long writeJson(OutputStream out, ObjectCodec codec, String sql, RowMapper<T> mapper, Object... args)
+            throws DataAccessException {
+        return read(h -> h.writeJson(out, codec, sql, mapper, args));
+    }
+
+    @Override
+    public BatchWriter createBatchWriter(int maxBatchSize, Duration maxDelay) {
+        // Groups are written through execute of this holder.
+        return super.createBatchWriter(maxBatchSize, maxDelay);
+    }
+
+    private <T> T write(Function<JdbcHolder, T> fn) {
+        try {
+            return fn.apply(primary);
+        } finally {
+            lastWrite.set(System.nanoTime());
+        }
+    }
+
+    private <T> T read(Function<JdbcHolder, T> fn) {
+        return read(fn, null);
+    }
+
+    /**
+     * Execute a read on the primary or a replica.
+     *
+     * @param   hold
+     *          When given the replica is counted as in flight until the
+     *          release action it is given with the result is run, rather than
+     *          on return, for results such as streams that hold a connection.
+     */
+    private <T> T read(Function<JdbcHolder, T> fn, BiFunction<T, Runnable, T> hold) {
+        if (replicas.length == 0 || isPrimaryRequired()) {
+            return fn.apply(primary);
+        }
+        for (Replica r : replicas) {
+            if (TransactionSynchronizationManager.hasResource(r.holder.getJdbcTemplate().getDataSource())) {
+                // Join the replica transaction already active on this thread.
+                return fn.apply(r.holder);
+            }
+        }
+        long now = System.nanoTime();
+        int start = next.getAndIncrement();
+        for (int n = 0; n < replicas.length; n++) {
+            Replica r = choose(start + n, now);
+            if (r == null) {
+                break;
+            }
+            r.inFlight.incrementAndGet();
+            boolean held = false;
+            try {
+                T res = fn.apply(r.holder);
+                r.ejectedUntil = 0;
+                if (hold != null) {
+                    res = hold.apply(res, r.inFlight::decrementAndGet);
+                    held = true;
+                }
+                return res;
+            } catch (CannotCreateTransactionException ex) {
+                // No connection was obtained so the callback never ran.
+                eject(r, ex);
+            } catch (DataAccessResourceFailureException |
+                     TransientDataAccessResourceException ex) {
+                eject(r, ex);
+                throw ex;
+            } finally {
+                if (!held) {
+                    r.inFlight.decrementAndGet();
+                }
+            }
+        }
+        return fn.apply(primary);
+    }
+
+    private void eject(Replica r, RuntimeException ex) {
+        r.ejectedUntil = (System.nanoTime() + ejectNanos) | 1;
+        LOG.warn("Ejecting replica {} for {}ms: {}",
+                 r.holder, ejectNanos / 1_000_000, ex.getMessage());
+    }
+
+    /**
+     * Number of executions and open streams in progress on each replica.
+     */
+    int[] getInFlightCounts() {
+        int[] res = new int[replicas.length];
+        for (int i = 0; i < res.length; i++) {
+            res[i] = replicas[i].inFlight.get();
+        }
+        return res;
+    }
+
+    private boolean isPrimaryRequired() {
+        if (TransactionSynchronizationManager.hasResource(primary.getJdbcTemplate().getDataSource())) {
+            return true;
+        }
+        Long lw = lastWrite.get();
+        return lw != null && System.nanoTime() - lw < readYourWritesNanos;
+    }
+
+    private Replica choose(int seq, long now) {
+        if (balance == Balance.LEAST_IN_FLIGHT) {
+            Replica best = null;
+            for (int i = 0; i < replicas.length; i++) {
+                Replica r = replicas[Math.floorMod(seq + i, replicas.length)];
+                if (r.isHealthy(now) && (best == null || r.inFlight.get() < best.inFlight.get())) {
+                    best = r;
+                }
+            }
+            return best;
+        }
+        for (int i = 0; i < replicas.length; i++) {
+            Replica r = replicas[Math.floorMod(seq + i, replicas.length)];
+            if (r.isHealthy(now)) {
+                return r;
+            }
+        }
+        return null;
+    }
+
+
+    private static final class Replica {
+
+        private final JdbcHolder holder;
+        private final AtomicInteger inFlight;
+        private volatile long ejectedUntil;
+
+        Replica(JdbcHolder holder) {
+            this.holder = holder;
+            this.inFlight = new AtomicInteger();
+        }
+
+        boolean isHealthy(long now) {
+            long until = ejectedUntil;
+            return until == 0 || now - until >= 0;
+        }
+
+    }
+
+}
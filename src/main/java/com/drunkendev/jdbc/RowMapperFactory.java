@@ -0,0 +1,67 @@
+/*
+ * RowMapperFactory.java    Oct 17 2026, 09:40
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.jdbc;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import org.springframework.jdbc.core.RowMapper;
+
+
+/**
+ * Creates a {@link RowMapper} for a result set before its first row is read.
+ *
+ * Retrieving values by label requires the driver to search for the column on
+ * each call, for each row. A factory resolves the labels it needs to indexes
+ * once and returns a mapper reading by index for every row of the result set.
+ *
+ * <h2>Example</h2>
+ *
+ * <pre>
+ * {@code
+ *  List<Customer> res = jt.query("select id, name from customer",
+ *                                resolvingExtractor(rs -> {
+ *                                    int id = rs.findColumn("id");
+ *                                    int name = rs.findColumn("name");
+ *                                    return (r, i) -> new Customer(r.getLong(id), r.getString(name));
+ *                                }));
+ * }
+ * </pre>
+ *
+ * @param   <T>
+ *          Type mapped by the created mapper.
+ * @author  Brett Ryan
+ * @since   1.6
+ * @see     JdbcHelper#resolvingExtractor(RowMapperFactory)
+ */
+@FunctionalInterface
+public interface RowMapperFactory<T> {
+
+    /**
+     * Create a mapper for a result set.
+     *
+     * @param   rs
+     *          Result set positioned before its first row, which must not be
+     *          moved.
+     * @return  Mapper for each row of {@code rs}.
+     * @throws  SQLException
+     *          if a column could not be resolved.
+     */
+    RowMapper<T> create(ResultSet rs) throws SQLException;
+
+}
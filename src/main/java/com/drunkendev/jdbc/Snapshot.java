@@ -0,0 +1,417 @@
+/*
+ * Snapshot.java    Oct 17 2026, 02:55
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.jdbc;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.Instant;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+
+/**
+ * Query result read from a snapshot file held by a {@link SnapshotCache}.
+ *
+ * The file is memory mapped and values are read directly from the mapped
+ * buffer when requested, nothing is decoded when a snapshot is opened and no
+ * copy of the result is held on the heap. Numeric and timestamp values are
+ * read in place, strings are decoded from their bytes on each call.
+ *
+ * Values are stored by column, a value of a fixed width type is located by
+ * multiplying the row by its width, string values by an offset table. SQL
+ * {@code NULL} values are recorded within a bitmap for each column. Decimal
+ * columns are held as strings so that their values remain exact.
+ *
+ * A snapshot is immutable and may be shared between threads.
+ *
+ * <h2>Example</h2>
+ *
+ * <pre>
+ * {@code
+ *  Snapshot s = cache.query(holder, "sales-by-region", "v3", SQL_SALES_BY_REGION);
+ *  int region = s.findColumn("region");
+ *  int total = s.findColumn("total");
+ *  for (int row = 0; row < s.getRowCount(); row++) {
+ *      report.add(s.getString(row, region), s.getDouble(row, total));
+ *  }
+ * }
+ * </pre>
+ *
+ * @author  Brett Ryan
+ * @since   1.6
+ */
+public final class Snapshot {
+
+    static final int MAGIC = 0x534E4150;
+    static final int FORMAT = 1;
+
+    static final byte INT = 1;
+    static final byte LONG = 2;
+    static final byte DOUBLE = 3;
+    static final byte TIMESTAMP = 4;
+    static final byte STRING = 5;
+
+    private final ByteBuffer buf;
+    private final long created;
+    private final long expires;
+    private final String version;
+    private final int rowCount;
+    private final String[] names;
+    private final byte[] types;
+    private final int[] offsets;
+    private final int nullBytes;
+
+    private Snapshot(ByteBuffer buf) {
+        this.buf = buf;
+        if (buf.getInt(0) != MAGIC || buf.getInt(4) != FORMAT) {
+            throw new IllegalStateException("Not a snapshot file.");
+        }
+        int p = 8;
+        this.created = buf.getLong(p);
+        this.expires = buf.getLong(p + 8);
+        p += 16;
+        int len = buf.getInt(p);
+        this.version = string(p + 4, len);
+        p += 4 + len;
+        this.rowCount = buf.getInt(p);
+        int cols = buf.getInt(p + 4);
+        p += 8;
+        this.names = new String[cols];
+        this.types = new byte[cols];
+        this.offsets = new int[cols];
+        for (int i = 0; i < cols; i++) {
+            len = buf.getInt(p);
+            names[i] = string(p + 4, len);
+            p += 4 + len;
+            types[i] = buf.get(p);
+            offsets[i] = buf.getInt(p + 1);
+            p += 5;
+        }
+        this.nullBytes = nullBytes(rowCount);
+    }
+
+    /**
+     * Open a snapshot file.
+     *
+     * @param   file
+     *          File to open.
+     * @return  Snapshot mapped from the file.
+     * @throws  IOException
+     *          if the file could not be mapped.
+     * @throws  IllegalStateException
+     *          if the file is not a snapshot.
+     */
+    static Snapshot open(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping remains valid once the channel is closed.
+            return new Snapshot(ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()));
+        } catch (IndexOutOfBoundsException ex) {
+            throw new IllegalStateException("Truncated snapshot file.", ex);
+        }
+    }
+
+    /**
+     * Size of the null bitmap of a column.
+     *
+     * @param   rows
+     *          Number of rows.
+     * @return  Bitmap size in bytes.
+     */
+    static int nullBytes(int rows) {
+        return (rows + 7) >>> 3;
+    }
+
+    /**
+     * Whether this snapshot may be served for a version.
+     *
+     * @param   version
+     *          Version required.
+     * @param   now
+     *          Current time in milliseconds.
+     * @return  True if the version matches and the snapshot has not expired.
+     */
+    boolean isCurrent(String version, long now) {
+        return now < expires && this.version.equals(version);
+    }
+
+    /**
+     * Time the query was executed.
+     *
+     * @return  Creation time.
+     */
+    public Instant getCreated() {
+        return Instant.ofEpochMilli(created);
+    }
+
+    /**
+     * Version key the snapshot was created for.
+     *
+     * @return  Version key.
+     */
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * Number of rows.
+     *
+     * @return  Row count.
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Number of columns.
+     *
+     * @return  Column count.
+     */
+    public int getColumnCount() {
+        return names.length;
+    }
+
+    /**
+     * Label of a column.
+     *
+     * @param   col
+     *          Zero based column index.
+     * @return  Column label.
+     */
+    public String getColumnName(int col) {
+        return names[col];
+    }
+
+    /**
+     * Find a column by label ignoring case.
+     *
+     * @param   label
+     *          Column label.
+     * @return  Zero based column index.
+     * @throws  IllegalArgumentException
+     *          if no column has the label.
+     */
+    public int findColumn(String label) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equalsIgnoreCase(label)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("No column " + label);
+    }
+
+    /**
+     * Determine if the value of a column was SQL {@code NULL}.
+     *
+     * @param   row
+     *          Zero based row index.
+     * @param   col
+     *          Zero based column index.
+     * @return  true if the value was null.
+     */
+    public boolean isNull(int row, int col) {
+        checkIndex(row);
+        return (buf.get(offsets[col] + (row >>> 3)) & (1 << (row & 7))) != 0;
+    }
+
+    /**
+     * Retrieve an integer value.
+     *
+     * @param   row
+     *          Zero based row index.
+     * @param   col
+     *          Zero based column index.
+     * @return  Value, zero if SQL {@code NULL}.
+     * @throws  IllegalArgumentException
+     *          if the column is not an integer column.
+     */
+    public int getInt(int row, int col) {
+        checkIndex(row);
+        require(col, types[col] == INT, "an integer");
+        return buf.getInt(data(col) + row * 4);
+    }
+
+    /**
+     * Retrieve a long value.
+     *
+     * Integer columns are widened, timestamp columns return milliseconds since
+     * the epoch.
+     *
+     * @param   row
+     *          Zero based row index.
+     * @param   col
+     *          Zero based column index.
+     * @return  Value, zero if SQL {@code NULL}.
+     * @throws  IllegalArgumentException
+     *          if the column is not an integer, long or timestamp column.
+     */
+    public long getLong(int row, int col) {
+        checkIndex(row);
+        if (types[col] == INT) {
+            return buf.getInt(data(col) + row * 4);
+        }
+        require(col, types[col] == LONG || types[col] == TIMESTAMP, "a long");
+        return buf.getLong(data(col) + row * 8);
+    }
+
+    /**
+     * Retrieve a double value.
+     *
+     * Integer and long columns are widened, string columns such as those read
+     * from decimal columns are parsed.
+     *
+     * @param   row
+     *          Zero based row index.
+     * @param   col
+     *          Zero based column index.
+     * @return  Value, zero if SQL {@code NULL}.
+     * @throws  IllegalArgumentException
+     *          if the column is a timestamp column.
+     * @throws  NumberFormatException
+     *          if a string value is not a number.
+     */
+    public double getDouble(int row, int col) {
+        checkIndex(row);
+        switch (types[col]) {
+            case INT:
+                return buf.getInt(data(col) + row * 4);
+            case LONG:
+                return buf.getLong(data(col) + row * 8);
+            case DOUBLE:
+                return buf.getDouble(data(col) + row * 8);
+            case STRING:
+                return isNull(row, col) ? 0 : Double.parseDouble(getString(row, col));
+            default:
+                throw new IllegalArgumentException("Column " + names[col] + " is not numeric");
+        }
+    }
+
+    /**
+     * Retrieve a decimal value.
+     *
+     * Decimal columns are held as strings so their values are exact.
+     *
+     * @param   row
+     *          Zero based row index.
+     * @param   col
+     *          Zero based column index.
+     * @return  Value, null if SQL {@code NULL}.
+     * @throws  IllegalArgumentException
+     *          if the column is a timestamp column.
+     * @throws  NumberFormatException
+     *          if a string value is not a number.
+     */
+    public BigDecimal getBigDecimal(int row, int col) {
+        checkIndex(row);
+        if (types[col] == TIMESTAMP) {
+            throw new IllegalArgumentException("Column " + names[col] + " is not numeric");
+        }
+        return isNull(row, col) ? null : new BigDecimal(getString(row, col));
+    }
+
+    /**
+     * Retrieve a timestamp value.
+     *
+     * Timestamps are held to millisecond precision.
+     *
+     * @param   row
+     *          Zero based row index.
+     * @param   col
+     *          Zero based column index.
+     * @return  Value, null if SQL {@code NULL}.
+     * @throws  IllegalArgumentException
+     *          if the column is not a timestamp column.
+     */
+    public Timestamp getTimestamp(int row, int col) {
+        checkIndex(row);
+        require(col, types[col] == TIMESTAMP, "a timestamp");
+        return isNull(row, col) ? null : new Timestamp(buf.getLong(data(col) + row * 8));
+    }
+
+    /**
+     * Retrieve a value as a string.
+     *
+     * Values of columns that are not string columns are converted.
+     *
+     * @param   row
+     *          Zero based row index.
+     * @param   col
+     *          Zero based column index.
+     * @return  Value, null if SQL {@code NULL}.
+     */
+    public String getString(int row, int col) {
+        checkIndex(row);
+        if (isNull(row, col)) {
+            return null;
+        }
+        switch (types[col]) {
+            case INT:
+                return Integer.toString(getInt(row, col));
+            case LONG:
+                return Long.toString(getLong(row, col));
+            case DOUBLE:
+                return Double.toString(getDouble(row, col));
+            case TIMESTAMP:
+                return getTimestamp(row, col).toString();
+            default:
+                int table = data(col);
+                int start = buf.getInt(table + row * 4);
+                int end = buf.getInt(table + row * 4 + 4);
+                return string(table + (rowCount + 1) * 4 + start, end - start);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Snapshot{" +
+               "version=" + version +
+               ", created=" + getCreated() +
+               ", rowCount=" + rowCount +
+               ", columnCount=" + names.length +
+               '}';
+    }
+
+    private int data(int col) {
+        return offsets[col] + nullBytes;
+    }
+
+    private String string(int pos, int len) {
+        ByteBuffer b = buf.duplicate();
+        b.position(pos);
+        b.limit(pos + len);
+        return UTF_8.decode(b).toString();
+    }
+
+    private void require(int col, boolean ok, String kind) {
+        if (!ok) {
+            throw new IllegalArgumentException("Column " + names[col] + " is not " + kind + " column");
+        }
+    }
+
+    private void checkIndex(int row) {
+        if (row < 0 || row >= rowCount) {
+            throw new IndexOutOfBoundsException("Row: " + row + ", Size: " + rowCount);
+        }
+    }
+
+}
@@ -0,0 +1,402 @@
+/*
+ * SnapshotCache.java    Oct 17 2026, 02:55
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.jdbc;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+
+/**
+ * Cache of query results persisted as memory mapped snapshot files.
+ *
+ * Intended for reporting queries that are expensive to execute, a result is
+ * written to a compact binary file within the cache directory, typically
+ * beneath {@code AppConfig.getHomePath()}, and is served from the file until
+ * it expires or a different version key is requested. As the files persist
+ * across restarts a node serves cached reports immediately after starting
+ * without executing the query again.
+ *
+ * Each snapshot is identified by a name and created for a version key, a
+ * caller changes the version key whenever the data or query the snapshot was
+ * created from changes, such as the date of the last import. Snapshots also
+ * expire once older than the time to live in effect when they were written.
+ *
+ * Files are written to a temporary file and moved into place so a reader
+ * never sees a partial file. Concurrent requests for the same snapshot
+ * execute the query once. Values are stored as {@code int}, {@code long},
+ * {@code double}, timestamps at millisecond precision or UTF-8 strings, a file
+ * may not exceed 2GB.
+ *
+ * <h2>Example</h2>
+ *
+ * <pre>
+ * {@code
+ *  SnapshotCache cache = new SnapshotCache(appConfig.getHomePath().resolve("snapshots"));
+ *  cache.setTtl(Duration.ofHours(12));
+ *  ...
+ *  Snapshot s = cache.query(holder, "sales-by-region", lastImport.toString(),
+ *                           "select region, sum(total) total from sale group by region");
+ * }
+ * </pre>
+ *
+ * @author  Brett Ryan
+ * @since   1.6
+ * @see     Snapshot
+ */
+public final class SnapshotCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SnapshotCache.class);
+    private static final Pattern NAME = Pattern.compile("[\\w.-]+");
+    private static final String SUFFIX = ".snap";
+
+    private final Path dir;
+    private final Map<String, Snapshot> open;
+    private final Map<String, Object> locks;
+    private volatile long ttlMillis;
+
+    /**
+     * Creates a new {@code SnapshotCache} instance whose snapshots do not
+     * expire.
+     *
+     * @param   dir
+     *          Directory to hold snapshot files, created when first written.
+     */
+    public SnapshotCache(Path dir) {
+        this.dir = dir;
+        this.open = new ConcurrentHashMap<>();
+        this.locks = new ConcurrentHashMap<>();
+        this.ttlMillis = Long.MAX_VALUE;
+    }
+
+    /**
+     * Set how long snapshots written after this call are served for.
+     *
+     * @param   ttl
+     *          Time to live, null for snapshots not to expire.
+     */
+    public void setTtl(Duration ttl) {
+        this.ttlMillis = ttl == null ? Long.MAX_VALUE : ttl.toMillis();
+    }
+
+    /**
+     * Retrieve a snapshot, executing its query if there is no current snapshot
+     * for the version.
+     *
+     * @param   holder
+     *          Holder to execute the query with in a read-only transaction.
+     * @param   name
+     *          Name of the snapshot consisting of letters, digits,
+     *          {@code _}, {@code .} and {@code -}.
+     * @param   version
+     *          Version key the snapshot must have been created for, may be
+     *          null.
+     * @param   sql
+     *          Query to execute.
+     * @param   args
+     *          Arguments to the query.
+     * @return  Current snapshot.
+     * @throws  IllegalArgumentException
+     *          if the name is not valid.
+     * @throws  UncheckedIOException
+     *          if the snapshot could not be written.
+     * @throws  DataAccessException
+     *          if the query could not be executed.
+     */
+    public Snapshot query(JdbcHolder holder, String name, String version, String sql, Object... args)
+            throws DataAccessException {
+        if (!NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Invalid snapshot name: " + name);
+        }
+        String v = version == null ? "" : version;
+        Snapshot res = open.get(name);
+        if (res != null && res.isCurrent(v, System.currentTimeMillis())) {
+            return res;
+        }
+        synchronized (locks.computeIfAbsent(name, k -> new Object())) {
+            long now = System.currentTimeMillis();
+            res = open.get(name);
+            if (res != null && res.isCurrent(v, now)) {
+                return res;
+            }
+            Path file = dir.resolve(name + SUFFIX);
+            if (res == null && Files.isRegularFile(file)) {
+                try {
+                    res = Snapshot.open(file);
+                    if (res.isCurrent(v, now)) {
+                        open.put(name, res);
+                        return res;
+                    }
+                } catch (IOException | RuntimeException ex) {
+                    LOG.warn("Discarding unreadable snapshot {}: {}", file, ex.getMessage());
+                }
+            }
+            Column[] cols = holder.executeReadOnly((jt, ts) -> jt.query(sql, args, SnapshotCache::extract));
+            try {
+                res = write(file, v, now, cols);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex.getMessage(), ex);
+            }
+            open.put(name, res);
+            return res;
+        }
+    }
+
+    /**
+     * Remove a snapshot so that its query is executed when next requested.
+     *
+     * @param   name
+     *          Name of the snapshot.
+     * @throws  UncheckedIOException
+     *          if the snapshot file could not be deleted.
+     */
+    public void invalidate(String name) {
+        synchronized (locks.computeIfAbsent(name, k -> new Object())) {
+            open.remove(name);
+            try {
+                Files.deleteIfExists(dir.resolve(name + SUFFIX));
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex.getMessage(), ex);
+            }
+        }
+    }
+
+    /**
+     * Remove all snapshots.
+     *
+     * @throws  UncheckedIOException
+     *          if a snapshot file could not be deleted.
+     */
+    public void invalidateAll() {
+        open.clear();
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*" + SUFFIX)) {
+            for (Path f : files) {
+                String n = f.getFileName().toString();
+                invalidate(n.substring(0, n.length() - SUFFIX.length()));
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex.getMessage(), ex);
+        }
+    }
+
+    private Snapshot write(Path file, String version, long now, Column[] cols) throws IOException {
+        Files.createDirectories(dir);
+        int rows = cols.length == 0 ? 0 : cols[0].rows;
+        byte[] ver = version.getBytes(UTF_8);
+        byte[][] names = new byte[cols.length][];
+        long header = 4 + 4 + 8 + 8 + 4 + ver.length + 4 + 4;
+        for (int i = 0; i < cols.length; i++) {
+            names[i] = cols[i].name.getBytes(UTF_8);
+            header += 4 + names[i].length + 1 + 4;
+        }
+        long[] offsets = new long[cols.length];
+        long pos = header;
+        for (int i = 0; i < cols.length; i++) {
+            offsets[i] = pos;
+            pos += Snapshot.nullBytes(rows) + cols[i].size();
+        }
+        if (pos > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot of " + pos + " bytes exceeds the 2GB limit");
+        }
+        long ttl = ttlMillis;
+        long expires = ttl >= Long.MAX_VALUE - now ? Long.MAX_VALUE : now + ttl;
+
+        Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 65536))) {
+                out.writeInt(Snapshot.MAGIC);
+                out.writeInt(Snapshot.FORMAT);
+                out.writeLong(now);
+                out.writeLong(expires);
+                out.writeInt(ver.length);
+                out.write(ver);
+                out.writeInt(rows);
+                out.writeInt(cols.length);
+                for (int i = 0; i < cols.length; i++) {
+                    out.writeInt(names[i].length);
+                    out.write(names[i]);
+                    out.writeByte(cols[i].type);
+                    out.writeInt((int) offsets[i]);
+                }
+                for (Column c : cols) {
+                    c.writeTo(out);
+                }
+            }
+            Files.move(tmp, file, ATOMIC_MOVE, REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        return Snapshot.open(file);
+    }
+
+    private static Column[] extract(ResultSet rs) throws SQLException {
+        ResultSetMetaData md = rs.getMetaData();
+        Column[] cols = new Column[md.getColumnCount()];
+        for (int i = 0; i < cols.length; i++) {
+            cols[i] = new Column(md.getColumnLabel(i + 1), type(md.getColumnType(i + 1)));
+        }
+        try {
+            while (rs.next()) {
+                for (int i = 0; i < cols.length; i++) {
+                    cols[i].read(rs, i + 1);
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex.getMessage(), ex);
+        }
+        return cols;
+    }
+
+    private static byte type(int sqlType) {
+        switch (sqlType) {
+            case Types.BIT:
+            case Types.BOOLEAN:
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+                return Snapshot.INT;
+            case Types.BIGINT:
+                return Snapshot.LONG;
+            case Types.REAL:
+            case Types.FLOAT:
+            case Types.DOUBLE:
+                return Snapshot.DOUBLE;
+            case Types.DATE:
+            case Types.TIME:
+            case Types.TIMESTAMP:
+                return Snapshot.TIMESTAMP;
+            default:
+                return Snapshot.STRING;
+        }
+    }
+
+
+    /**
+     * Values of a column accumulated before being written.
+     */
+    private static final class Column {
+
+        private final String name;
+        private final byte type;
+        private final ByteArrayOutputStream data;
+        private final DataOutputStream out;
+        private final ByteArrayOutputStream index;
+        private final DataOutputStream indexOut;
+        private byte[] nulls;
+        private int rows;
+
+        Column(String name, byte type) {
+            this.name = name;
+            this.type = type;
+            this.data = new ByteArrayOutputStream(4096);
+            this.out = new DataOutputStream(data);
+            if (type == Snapshot.STRING) {
+                this.index = new ByteArrayOutputStream(1024);
+                this.indexOut = new DataOutputStream(index);
+            } else {
+                this.index = null;
+                this.indexOut = null;
+            }
+            this.nulls = new byte[128];
+        }
+
+        void read(ResultSet rs, int col) throws SQLException, IOException {
+            boolean isNull;
+            switch (type) {
+                case Snapshot.INT:
+                    out.writeInt(rs.getInt(col));
+                    isNull = rs.wasNull();
+                    break;
+                case Snapshot.LONG:
+                    out.writeLong(rs.getLong(col));
+                    isNull = rs.wasNull();
+                    break;
+                case Snapshot.DOUBLE:
+                    out.writeDouble(rs.getDouble(col));
+                    isNull = rs.wasNull();
+                    break;
+                case Snapshot.TIMESTAMP:
+                    Timestamp ts = rs.getTimestamp(col);
+                    out.writeLong(ts == null ? 0 : ts.getTime());
+                    isNull = ts == null;
+                    break;
+                default:
+                    indexOut.writeInt(data.size());
+                    String s = rs.getString(col);
+                    if (s != null) {
+                        out.write(s.getBytes(UTF_8));
+                    }
+                    isNull = s == null;
+                    break;
+            }
+            if (isNull) {
+                int b = rows >>> 3;
+                if (b >= nulls.length) {
+                    nulls = Arrays.copyOf(nulls, Math.max(b + 1, nulls.length * 2));
+                }
+                nulls[b] |= 1 << (rows & 7);
+            }
+            rows++;
+        }
+
+        long size() {
+            return type == Snapshot.STRING ? (rows + 1) * 4L + data.size() : data.size();
+        }
+
+        void writeTo(DataOutputStream dst) throws IOException {
+            int n = Snapshot.nullBytes(rows);
+            dst.write(nulls, 0, Math.min(n, nulls.length));
+            for (int i = nulls.length; i < n; i++) {
+                dst.writeByte(0);
+            }
+            if (type == Snapshot.STRING) {
+                index.writeTo(dst);
+                dst.writeInt(data.size());
+            }
+            data.writeTo(dst);
+        }
+
+    }
+
+}
@@ -0,0 +1,391 @@
+/*
+ * SqlScanner.java    Oct 16 2026, 09:12
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.jdbc;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import static java.lang.Character.isWhitespace;
+
+
+/**
+ * Quote and comment aware scanner for SQL scripts.
+ *
+ * Comments are removed from the content read, optionally splitting the result
+ * into individual statements on each {@code ;} found outside of a quote or
+ * comment.
+ *
+ * @author  Brett Ryan
+ * @since   1.6
+ */
+final class SqlScanner implements Closeable {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final int INIT = 0;
+    private static final int ISA_MINUS = 1;
+    private static final int ISI_LINE_COMMENT = 2;
+    private static final int ISA_SLASH = 3;
+    private static final int ISI_BLOCK_COMMENT = 4;
+    private static final int ISA_BCOMMENT_STAR = 5;
+    private static final int ISI_DOUBLE_QUOTE = 6;
+    private static final int ISI_SINGLE_QUOTE = 7;
+    private static final int ISI_SQUARE_QUOTE = 8;
+
+    private final Reader reader;
+    private final boolean split;
+    private final StringBuilder res;
+    private int state;
+    private boolean prevNewLine;
+    private boolean eof;
+    private final char[] buf;
+    private int pos;
+    private int lim;
+
+    /**
+     * Creates a new {@code SqlScanner} instance.
+     *
+     * @param   reader
+     *          Source of SQL content, the reader is read in blocks and need
+     *          not be buffered.
+     * @param   split
+     *          If true each call to {@link #next()} will return a single
+     *          statement, otherwise all content is returned by the first call.
+     */
+    SqlScanner(Reader reader, boolean split) {
+        this.reader = reader;
+        this.split = split;
+        this.res = new StringBuilder();
+        this.state = INIT;
+        this.buf = new char[BUFFER_SIZE];
+    }
+
+    /**
+     * Reads the next chunk of SQL.
+     *
+     * When splitting, statements are returned trimmed without their trailing
+     * {@code ;} and empty statements are skipped.
+     *
+     * @return  Next statement or all content when not splitting; {@code null}
+     *          once the reader has been exhausted.
+     * @throws  IOException
+     *          If the underlying reader could not be read.
+     */
+    String next() throws IOException {
+        if (eof) {
+            return null;
+        }
+        while (true) {
+            if (pos == lim) {
+                int n = reader.read(buf, 0, buf.length);
+                if (n == -1) {
+                    break;
+                }
+                pos = 0;
+                lim = n;
+            }
+            if (scan() && res.length() > 0) {
+                return take();
+            }
+        }
+        eof = true;
+        switch (state) {
+            case ISA_MINUS:
+                res.append('-');
+                break;
+            case ISA_SLASH:
+                res.append('/');
+                break;
+        }
+        if (!split) {
+            return take();
+        }
+        return res.length() > 0 ? take() : null;
+    }
+
+    /**
+     * Scan the buffered characters.
+     *
+     * Runs of characters that can not cause a state change are copied in bulk,
+     * all other characters are passed to {@link #accept(char)}.
+     *
+     * @return  true if a statement terminator was found, otherwise the buffer
+     *          has been consumed.
+     */
+    private boolean scan() {
+        final char[] b = buf;
+        final int l = lim;
+        int p = pos;
+        while (p < l) {
+            switch (state) {
+                case INIT:
+                    if (res.length() > 0) {
+                        int s = p;
+                        while (p < l && !isSpecial(b[p])) {
+                            p++;
+                        }
+                        if (p > s) {
+                            res.append(b, s, p - s);
+                            prevNewLine = false;
+                        }
+                        if (p == l) {
+                            break;
+                        }
+                    }
+                    if (acceptInit(b[p++])) {
+                        pos = p;
+                        return true;
+                    }
+                    break;
+                case ISI_LINE_COMMENT:
+                    while (p < l && b[p] != '\n' && b[p] != '\r') {
+                        p++;
+                    }
+                    if (p < l) {
+                        accept(b[p++]);
+                    }
+                    break;
+                case ISI_BLOCK_COMMENT:
+                    while (p < l && b[p] != '*') {
+                        p++;
+                    }
+                    if (p < l) {
+                        p++;
+                        state = ISA_BCOMMENT_STAR;
+                    }
+                    break;
+                case ISI_SINGLE_QUOTE:
+                    p = scanQuote(b, p, l, '\'');
+                    break;
+                case ISI_DOUBLE_QUOTE:
+                    p = scanQuote(b, p, l, '"');
+                    break;
+                case ISI_SQUARE_QUOTE:
+                    p = scanQuote(b, p, l, ']');
+                    break;
+                default:
+                    if (accept(b[p++])) {
+                        pos = p;
+                        return true;
+                    }
+                    break;
+            }
+        }
+        pos = p;
+        return false;
+    }
+
+    private int scanQuote(char[] b, int p, int l, char close) {
+        int s = p;
+        while (p < l && b[p] != close) {
+            p++;
+        }
+        if (p < l) {
+            p++;
+            state = INIT;
+        }
+        res.append(b, s, p - s);
+        return p;
+    }
+
+    private static boolean isSpecial(char c) {
+        switch (c) {
+            case '-':
+            case '/':
+            case '\'':
+            case '"':
+            case '[':
+            case ';':
+            case '\n':
+            case '\r':
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Accept a single character.
+     *
+     * @return  true if a statement terminator was found.
+     */
+    private boolean accept(char c) {
+        switch (state) {
+            case INIT:
+                return acceptInit(c);
+            case ISA_MINUS:
+                if (c == '-') {
+                    state = ISI_LINE_COMMENT;
+                    return false;
+                }
+                state = INIT;
+                res.append('-');
+                prevNewLine = false;
+                return acceptInit(c);
+            case ISI_LINE_COMMENT:
+                if (c == '\n' || c == '\r') {
+                    if (res.length() > 0) {
+                        if (!prevNewLine) {
+                            res.append('\n');
+                        }
+                        prevNewLine = true;
+                    }
+                    state = INIT;
+                }
+                return false;
+            case ISA_SLASH:
+                if (c == '*') {
+                    state = ISI_BLOCK_COMMENT;
+                    return false;
+                }
+                state = INIT;
+                res.append('/');
+                prevNewLine = false;
+                return acceptInit(c);
+            case ISI_BLOCK_COMMENT:
+                if (c == '*') {
+                    state = ISA_BCOMMENT_STAR;
+                }
+                return false;
+            case ISA_BCOMMENT_STAR:
+                state = c == '/' ? INIT : c == '*' ? ISA_BCOMMENT_STAR : ISI_BLOCK_COMMENT;
+                return false;
+            case ISI_SINGLE_QUOTE:
+                res.append(c);
+                if (c == '\'') {
+                    state = INIT;
+                }
+                return false;
+            case ISI_DOUBLE_QUOTE:
+                res.append(c);
+                if (c == '"') {
+                    state = INIT;
+                }
+                return false;
+            case ISI_SQUARE_QUOTE:
+                res.append(c);
+                if (c == ']') {
+                    state = INIT;
+                }
+                return false;
+            default:
+                return false;
+        }
+    }
+
+    private boolean acceptInit(char c) {
+        switch (c) {
+            case '-':
+                state = ISA_MINUS;
+                break;
+            case '/':
+                state = ISA_SLASH;
+                break;
+            case '\'':
+                state = ISI_SINGLE_QUOTE;
+                res.append(c);
+                prevNewLine = false;
+                break;
+            case '"':
+                state = ISI_DOUBLE_QUOTE;
+                res.append(c);
+                prevNewLine = false;
+                break;
+            case '[':
+                state = ISI_SQUARE_QUOTE;
+                res.append(c);
+                prevNewLine = false;
+                break;
+            case ';':
+                if (split) {
+                    return true;
+                }
+                res.append(c);
+                prevNewLine = false;
+                break;
+            default:
+                if (c == '\n' || c == '\r') {
+                    if (!prevNewLine && res.length() > 0) {
+                        res.append('\n');
+                        prevNewLine = true;
+                    }
+                } else if (isWhitespace(c)) {
+                    if (res.length() > 0) {
+                        res.append(c);
+                        prevNewLine = false;
+                    }
+                } else {
+                    res.append(c);
+                    prevNewLine = false;
+                }
+                break;
+        }
+        return false;
+    }
+
+    /**
+     * Returns an iterator over the remaining chunks of this scanner.
+     *
+     * @return  Iterator over the results of {@link #next()}.
+     */
+    Iterator<String> iterator() {
+        return new Iterator<String>() {
+            private String nextItem;
+
+            @Override
+            public boolean hasNext() {
+                if (nextItem == null) {
+                    try {
+                        nextItem = SqlScanner.this.next();
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex.getMessage(), ex);
+                    }
+                }
+                return nextItem != null;
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                String res = nextItem;
+                nextItem = null;
+                return res;
+            }
+        };
+    }
+
+    private String take() {
+        String s = split ? res.toString().trim() : res.toString();
+        res.setLength(0);
+        prevNewLine = false;
+        return s;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+}
@@ -0,0 +1,225 @@
+/*
+ * StatementMetrics.java    Oct 16 2026, 23:20
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.jdbc;
+
+import java.lang.reflect.Array;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.SqlParameterValue;
+
+
+/**
+ * Records execution counts, rows and latencies for each distinct statement.
+ *
+ * Statements are grouped by their normalised SQL text, where literals are
+ * replaced with {@code ?}, comments removed, white-space collapsed and lists of
+ * parameters within parentheses reduced to a single {@code ?, ...} entry. At
+ * most {@value #MAX_STATEMENTS} distinct statements are tracked, any beyond
+ * that are grouped under {@code <other>}.
+ *
+ * Statements that take longer than the slow threshold are logged with their
+ * normalised SQL and the types of their arguments, argument values are never
+ * logged.
+ *
+ * <h2>Example</h2>
+ *
+ * <pre>
+ * {@code
+ *  StatementMetrics metrics = new StatementMetrics();
+ *  metrics.setSlowThreshold(Duration.ofMillis(250));
+ *  jdbcManager.setStatementMetrics(metrics);
+ *  ...
+ *  metrics.getSnapshot().stream().limit(10).forEach(s -> LOG.info("{}", s));
+ * }
+ * </pre>
+ *
+ * @author  Brett Ryan
+ * @since   1.6
+ * @see     JdbcHolder#setStatementMetrics(StatementMetrics)
+ * @see     JdbcManager#setStatementMetrics(StatementMetrics)
+ */
+public final class StatementMetrics {
+
+    /**
+     * Maximum number of distinct statements tracked.
+     */
+    public static final int MAX_STATEMENTS = 1000;
+
+    private static final Logger LOG = LoggerFactory.getLogger(StatementMetrics.class);
+    private static final String OTHER = "<other>";
+    private static final int MAX_NORMALISED = 4096;
+    private static final Pattern STRING = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern COMMENT = Pattern.compile("--[^\\n]*|/\\*.*?\\*/", Pattern.DOTALL);
+    private static final Pattern NUMBER = Pattern.compile("(?<![\\w$#.])\\d+(?:\\.\\d+)?(?:[eE][+-]?\\d+)?(?![\\w$#])");
+    private static final Pattern SPACE = Pattern.compile("\\s+");
+    private static final Pattern LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+
+    private final Map<String, Recorder> statements;
+    private final Map<String, String> normalised;
+    private volatile long slowNanos;
+
+    /**
+     * Creates a new {@code StatementMetrics} instance logging statements slower
+     * than one second.
+     */
+    public StatementMetrics() {
+        this.statements = new ConcurrentHashMap<>();
+        this.normalised = new ConcurrentHashMap<>();
+        this.slowNanos = Duration.ofSeconds(1).toNanos();
+    }
+
+    /**
+     * Set the time over which a statement is logged as slow.
+     *
+     * @param   threshold
+     *          Slow statement threshold, null to disable logging.
+     */
+    public void setSlowThreshold(Duration threshold) {
+        this.slowNanos = threshold == null ? Long.MAX_VALUE : threshold.toNanos();
+    }
+
+    /**
+     * Take a snapshot of all statements recorded.
+     *
+     * @return  Statistics for each statement ordered by total time, highest
+     *          first.
+     */
+    public List<StatementStats> getSnapshot() {
+        List<StatementStats> res = new ArrayList<>(statements.size());
+        statements.forEach((sql, r) -> res.add(r.snapshot(sql)));
+        res.sort(Comparator.comparingLong((StatementStats s) -> s.getLatency().getTotal()).reversed());
+        return res;
+    }
+
+    /**
+     * Discard all recorded statistics.
+     */
+    public void reset() {
+        statements.clear();
+    }
+
+    /**
+     * Record an executed statement.
+     *
+     * @param   sql
+     *          SQL of the statement.
+     * @param   args
+     *          Arguments bound to the statement, null if not known.
+     * @param   nanos
+     *          Time taken.
+     * @param   rows
+     *          Rows returned or affected, negative if not known.
+     * @param   error
+     *          Error raised, null if the statement succeeded.
+     */
+    void record(String sql, Object[] args, long nanos, int rows, Throwable error) {
+        String key = normalise(sql);
+        Recorder r = statements.get(key);
+        if (r == null) {
+            r = statements.size() < MAX_STATEMENTS
+                ? statements.computeIfAbsent(key, k -> new Recorder())
+                : statements.computeIfAbsent(OTHER, k -> new Recorder());
+        }
+        r.latency.record(nanos);
+        if (rows > 0) {
+            r.rows.add(rows);
+        }
+        if (error != null) {
+            r.errors.increment();
+        }
+        if (nanos >= slowNanos && LOG.isWarnEnabled()) {
+            LOG.warn("Slow statement took {}ms returning {} rows with arguments {}: {}",
+                     nanos / 1_000_000, rows, shape(args), key);
+        }
+    }
+
+    /**
+     * Normalise SQL so that statements differing only by literals or the
+     * length of parameter lists are grouped together.
+     *
+     * @param   sql
+     *          SQL to normalise.
+     * @return  Normalised SQL.
+     */
+    String normalise(String sql) {
+        String res = normalised.get(sql);
+        if (res == null) {
+            res = STRING.matcher(sql).replaceAll("?");
+            res = COMMENT.matcher(res).replaceAll(" ");
+            res = NUMBER.matcher(res).replaceAll("?");
+            res = SPACE.matcher(res).replaceAll(" ").trim();
+            res = LIST.matcher(res).replaceAll("(?, ...)");
+            if (normalised.size() < MAX_NORMALISED) {
+                normalised.put(sql, res);
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Describe the types of statement arguments.
+     *
+     * @param   args
+     *          Arguments, may be null.
+     * @return  Argument types such as {@code [Integer, String, null]}.
+     */
+    static String shape(Object[] args) {
+        if (args == null) {
+            return "[]";
+        }
+        StringJoiner res = new StringJoiner(", ", "[", "]");
+        for (Object a : args) {
+            Object v = a instanceof SqlParameterValue ? ((SqlParameterValue) a).getValue() : a;
+            if (v == null) {
+                res.add("null");
+            } else if (v instanceof Collection) {
+                res.add(v.getClass().getSimpleName() + "(" + ((Collection<?>) v).size() + ")");
+            } else if (v.getClass().isArray() && !(v instanceof byte[])) {
+                res.add(v.getClass().getComponentType().getSimpleName() + "[" + Array.getLength(v) + "]");
+            } else {
+                res.add(v.getClass().getSimpleName());
+            }
+        }
+        return res.toString();
+    }
+
+
+    private static final class Recorder {
+
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+
+        StatementStats snapshot(String sql) {
+            return new StatementStats(sql, rows.sum(), errors.sum(), latency.snapshot());
+        }
+
+    }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * StatementStats.java    Oct 16 2026, 23:20
+ *
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.jdbc;
+
+
+/**
+ * Point in time statistics of a single normalised statement.
+ *
+ * @author  Brett Ryan
+ * @since   1.6
+ * @see     StatementMetrics#getSnapshot()
+ */
+public class StatementStats {
+
+    private final String sql;
+    private final long rowCount;
+    private final long errorCount;
+    private final LatencyHistogram.Snapshot latency;
+
+    StatementStats(String sql,
+                   long rowCount,
+                   long errorCount,
+                   LatencyHistogram.Snapshot latency) {
+        this.sql = sql;
+        this.rowCount = rowCount;
+        this.errorCount = errorCount;
+        this.latency = latency;
+    }
+
+    /**
+     * Normalised SQL of the statement.
+     *
+     * @return  Statement SQL.
+     */
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * Number of times the statement was executed.
+     *
+     * @return  Execution count.
+     */
+    public long getCount() {
+        return latency.getCount();
+    }
+
+    /**
+     * Total number of rows returned or affected by all executions.
+     *
+     * @return  Row count.
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Number of executions that raised an error.
+     *
+     * @return  Error count.
+     */
+    public long getErrorCount() {
+        return errorCount;
+    }
+
+    /**
+     * Time taken by each execution.
+     *
+     * @return  Execution latency.
+     */
+    public LatencyHistogram.Snapshot getLatency() {
+        return latency;
+    }
+
+    @Override
+    public String toString() {
+        return "StatementStats{" +
+               "sql=" + sql +
+               ", count=" + getCount() +
+               ", rowCount=" + rowCount +
+               ", errorCount=" + errorCount +
+               ", latency={" + latency + '}' +
+               '}';
+    }
+
+}
@@ -20,8 +20,7 @@ package com.drunkendev.web.userlog;
 
 import java.io.IOException;
 import java.io.PrintWriter;
-import java.io.StringReader;
-import java.io.StringWriter;
+import java.sql.Clob;
 import java.sql.PreparedStatement;
 import java.util.Date;
 import java.util.List;
@@ -45,6 +44,7 @@ import org.springframework.security.web.authentication.switchuser.SwitchUserGran
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.mvc.ParameterizableViewController;
 
+import com.drunkendev.jdbc.JdbcHelper;
 import com.drunkendev.mail.MailQueue;
 
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
@@ -192,12 +192,21 @@ public class SimpleUserlogService implements UserlogService {
                                ps.setString(1, ex.getMessage());
                                ps.setString(2, ex.getClass().getName());
 
-                               StringWriter errors = new StringWriter();
-                               ex.printStackTrace(new PrintWriter(errors));
-
-                               StringReader sr = new StringReader(errors.toString());
-                               ps.setCharacterStream(3, sr);
-                               ps.executeUpdate();
+                               Clob trace = JdbcHelper.setClob(ps, 3, w -> {
+                                   PrintWriter pw = new PrintWriter(w);
+                                   ex.printStackTrace(pw);
+                                   pw.flush();
+                                   if (pw.checkError()) {
+                                       throw new IOException("Could not write stack trace.");
+                                   }
+                               });
+                               try {
+                                   ps.executeUpdate();
+                               } finally {
+                                   if (trace != null) {
+                                       trace.free();
+                                   }
+                               }
                                return null;
                            });
                 exid = jt.queryForObject("call identity()", Long.class);
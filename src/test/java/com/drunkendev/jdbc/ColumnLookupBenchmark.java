@@ -0,0 +1,133 @@
+/*
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.jdbc;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import static com.drunkendev.jdbc.JdbcHelper.getInteger;
+import static com.drunkendev.jdbc.JdbcHelper.resolvingExtractor;
+import static com.drunkendev.jdbc.JdbcHelper.stringMapper;
+
+
+/**
+ * Compares reading columns by label on every row with resolving the labels to
+ * indexes once per result set through
+ * {@link JdbcHelper#resolvingExtractor(RowMapperFactory)}, against an in
+ * memory H2 table of ten columns.
+ *
+ * Run with {@code mvn -Pbenchmark verify -DskipTests -Djmh.args="ColumnLookupBenchmark -prof gc"}.
+ *
+ * @author Brett Ryan
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ColumnLookupBenchmark {
+
+    private static final String[] LABELS = {"c0", "c1", "c2", "c3", "c4", "c5", "c6", "c7", "c8"};
+
+    private static final RowMapper<Integer> LABEL_ROW = (rs, i) -> {
+        int sum = 0;
+        for (String l : LABELS) {
+            sum += getInteger(rs, l);
+        }
+        return sum;
+    };
+
+    private static final ResultSetExtractor<List<Integer>> RESOLVED_ROW = resolvingExtractor(rs -> {
+        int[] idx = new int[LABELS.length];
+        for (int i = 0; i < idx.length; i++) {
+            idx[i] = rs.findColumn(LABELS[i]);
+        }
+        return (r, n) -> {
+            int sum = 0;
+            for (int i : idx) {
+                sum += getInteger(r, i);
+            }
+            return sum;
+        };
+    });
+
+    private static final ResultSetExtractor<List<String>> RESOLVED_STRING
+            = resolvingExtractor(rs -> stringMapper(rs.findColumn("name")));
+
+    @Param({"10", "1000"})
+    public int rows;
+
+    private SingleConnectionDataSource ds;
+    private JdbcTemplate jt;
+    private String sql;
+
+    @Setup
+    public void setUp() {
+        ds = new SingleConnectionDataSource("jdbc:h2:mem:", true);
+        jt = new JdbcTemplate(ds);
+        jt.execute("create table t (c0 int, c1 int, c2 int, c3 int, c4 int, c5 int, c6 int, c7 int, c8 int, name varchar(20))");
+        jt.update("insert into t select x, x, x, x, x, x, x, x, x, 'name ' || x from system_range(1, ?)", rows);
+        sql = "select * from t";
+        if (!jt.query(sql, LABEL_ROW).equals(jt.query(sql, RESOLVED_ROW))
+                || !jt.query(sql, stringMapper("name")).equals(jt.query(sql, RESOLVED_STRING))) {
+            throw new IllegalStateException("Label and resolved results differ.");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        ds.destroy();
+    }
+
+    @Benchmark
+    public List<Integer> labelRow() {
+        return jt.query(sql, LABEL_ROW);
+    }
+
+    @Benchmark
+    public List<Integer> resolvedRow() {
+        return jt.query(sql, RESOLVED_ROW);
+    }
+
+    @Benchmark
+    public List<String> labelString() {
+        return jt.query(sql, stringMapper("name"));
+    }
+
+    @Benchmark
+    public List<String> resolvedString() {
+        return jt.query(sql, RESOLVED_STRING);
+    }
+
+}
@@ -17,13 +17,56 @@
 package com.drunkendev.jdbc;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.lang.reflect.Proxy;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
 
 import static com.drunkendev.jdbc.JdbcHelper.getSql;
+import static com.drunkendev.jdbc.JdbcHelper.getSqlStatements;
+import static com.drunkendev.jdbc.JdbcHelper.beanMapper;
+import static com.drunkendev.jdbc.JdbcHelper.blobMapper;
+import static com.drunkendev.jdbc.JdbcHelper.bulkInsert;
+import static com.drunkendev.jdbc.JdbcHelper.clobMapper;
+import static com.drunkendev.jdbc.JdbcHelper.constructorMapper;
+import static com.drunkendev.jdbc.JdbcHelper.getIntegerZeroNull;
+import static com.drunkendev.jdbc.JdbcHelper.intColumnExtractor;
+import static com.drunkendev.jdbc.JdbcHelper.loadCsv;
+import static com.drunkendev.jdbc.JdbcHelper.readBlob;
+import static com.drunkendev.jdbc.JdbcHelper.readClob;
+import static com.drunkendev.jdbc.JdbcHelper.resolvingExtractor;
+import static com.drunkendev.jdbc.JdbcHelper.setBlob;
+import static com.drunkendev.jdbc.JdbcHelper.setClob;
+import static com.drunkendev.jdbc.JdbcHelper.stringMapper;
+import static java.util.Arrays.asList;
 import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
 import static org.junit.Assert.*;
 
 
@@ -52,4 +95,345 @@ public class JdbcHelperTest {
         assertEquals(expected, found);
     }
 
+    /**
+     * Test of getSqlStatements method, of class JdbcHelper.
+     */
+    @Test
+    public void testGetSqlStatements_InputStream_test1() throws IOException {
+        System.out.println("getSqlStatements test1");
+        List<String> found;
+        try (Stream<String> s = getSqlStatements(JdbcHelperTest.class.getResourceAsStream("test1.sql"))) {
+            found = s.collect(toList());
+        }
+        assertEquals(6, found.size());
+        assertEquals("select * from some_table", found.get(0));
+        assertEquals("select a\n      ,b\n      ,d\n  from table1", found.get(2));
+        assertEquals("select * from [a--b--c]", found.get(5));
+    }
+
+    /**
+     * Test separators within quotes and comments are not treated as statement separators.
+     */
+    @Test
+    public void testGetSqlStatements_InputStream_quoted() throws IOException {
+        System.out.println("getSqlStatements quoted");
+        String sql = "insert into a values ('x;y');; -- c;d\n" +
+                     "/* e;f **/ insert into \"b;c\" values (1);\n" +
+                     "select [g;h] from i";
+        List<String> found;
+        try (Stream<String> s = getSqlStatements(new ByteArrayInputStream(sql.getBytes(StandardCharsets.UTF_8)))) {
+            found = s.collect(toList());
+        }
+        assertEquals(asList("insert into a values ('x;y')",
+                            "insert into \"b;c\" values (1)",
+                            "select [g;h] from i"),
+                     found);
+    }
+
+    /**
+     * Test of getSql method, of class JdbcHelper.
+     */
+    @Test
+    public void testGetSql_Path_test1() throws IOException, URISyntaxException {
+        System.out.println("getSql path test1");
+        String expected = readAllLines(JdbcHelperTest.class.getResourceAsStream("test1.txt")).trim();
+        String found = getSql(Paths.get(JdbcHelperTest.class.getResource("test1.sql").toURI())).trim();
+        assertEquals(expected, found);
+    }
+
+    /**
+     * Test content spanning many read blocks is processed the same for streams and paths.
+     */
+    @Test
+    public void testGetSql_Path_large() throws IOException {
+        System.out.println("getSql path large");
+        String src = readAllLines(JdbcHelperTest.class.getResourceAsStream("test1.sql"));
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 1500; i++) {
+            sb.append(src).append("\n/* block ").append(i).append(" **/ select '").append(i).append("';\n");
+        }
+        byte[] content = sb.toString().getBytes();
+        assertTrue(content.length > MappedFileReader.MAP_THRESHOLD);
+        Path file = Files.createTempFile("jdbc-helper-test", ".sql");
+        try {
+            Files.write(file, content);
+            String expected = getSql(new ByteArrayInputStream(content));
+            assertEquals(expected, getSql(file));
+            try (Stream<String> s = getSqlStatements(file)) {
+                assertEquals(1500 * 7, s.count());
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Test of ColumnarExtractor, of class JdbcHelper.
+     */
+    @Test
+    public void testColumnExtractors() {
+        System.out.println("columnExtractors");
+        JdbcTemplate jt = new JdbcTemplate(new SingleConnectionDataSource("jdbc:h2:mem:", true));
+        jt.execute("create table t (a int, b bigint, c double)");
+        for (int i = 0; i < 2000; i++) {
+            jt.update("insert into t values (?, ?, ?)", i, i % 3 == 0 ? null : (long) i * 10, i / 2d);
+        }
+        IntColumn a = jt.query("select a from t order by a", intColumnExtractor(1));
+        assertEquals(2000, a.size());
+        assertEquals(1999, a.get(1999));
+        assertEquals(0, a.getNullCount());
+
+        ColumnarResult res = jt.query("select a, b, c from t order by a",
+                                      new ColumnarExtractor().longColumn("B").doubleColumn(3));
+        LongColumn b = res.getLongColumn(0);
+        assertEquals(2000, res.getRowCount());
+        assertTrue(b.isNull(0));
+        assertFalse(b.isNull(1));
+        assertEquals(10L, b.get(1));
+        assertEquals(667, b.getNullCount());
+        assertEquals(999.5d, res.getDoubleColumn(1).get(1999), 0d);
+    }
+
+    /**
+     * Test of resolvingExtractor method, of class JdbcHelper.
+     */
+    @Test
+    public void testResolvingExtractor() {
+        System.out.println("resolvingExtractor");
+        JdbcTemplate jt = new JdbcTemplate(new SingleConnectionDataSource("jdbc:h2:mem:", true));
+        jt.execute("create table t (a int, b varchar(10))");
+        jt.update("insert into t values (1, 'x'), (2, null), (0, 'z')");
+        AtomicInteger created = new AtomicInteger();
+        ResultSetExtractor<List<Integer>> ex = resolvingExtractor(rs -> {
+            created.incrementAndGet();
+            int a = rs.findColumn("A");
+            return (r, i) -> getIntegerZeroNull(r, a);
+        });
+        assertEquals(asList(null, 1, 2), jt.query("select a, b from t order by a", ex));
+        assertEquals(asList(2, 1, null), jt.query("select b, a from t order by a desc", ex));
+        assertEquals(2, created.get());
+        assertEquals(asList(null, "x", "z"), jt.query("select a, b from t order by a desc",
+                                                        resolvingExtractor(rs -> stringMapper(rs.findColumn("b")))));
+        assertEquals(asList(null, "x", "z"), jt.query("select a, b from t order by a desc", stringMapper("B")));
+    }
+
+    /**
+     * Test of constructorMapper and beanMapper methods, of class JdbcHelper.
+     */
+    @Test
+    public void testCompiledMappers() {
+        System.out.println("compiledMappers");
+        JdbcTemplate jt = new JdbcTemplate(new SingleConnectionDataSource("jdbc:h2:mem:", true));
+        jt.execute("create table t (user_name varchar(10), request_date timestamp, c int)");
+        jt.update("insert into t values ('a', '2016-01-02 03:04:05', 3), ('b', null, null)");
+
+        List<Entry> ctor = jt.query("select user_name, request_date, c from t order by user_name",
+                                    constructorMapper(Entry.class));
+        assertEquals("a", ctor.get(0).getUserName());
+        assertEquals(LocalDateTime.of(2016, 1, 2, 3, 4, 5), ctor.get(0).getRequestDate());
+        assertEquals(Integer.valueOf(3), ctor.get(0).getC());
+        assertNull(ctor.get(1).getRequestDate());
+        assertNull(ctor.get(1).getC());
+
+        List<Entry> bean = jt.query("select c, user_name from t order by user_name",
+                                    beanMapper(Entry.class));
+        assertEquals("a", bean.get(0).getUserName());
+        assertNull(bean.get(0).getRequestDate());
+        assertEquals(Integer.valueOf(3), bean.get(0).getC());
+        assertEquals("b", bean.get(1).getUserName());
+
+        List<Entry> prim = jt.query("select user_name, c from t order by user_name",
+                                    constructorMapper(Entry.class));
+        assertEquals(Integer.valueOf(3), prim.get(0).getC());
+        assertEquals(Integer.valueOf(0), prim.get(1).getC());
+
+        // Layouts beyond those cached are planned per result set.
+        RowMapper<Entry> mapper = beanMapper(Entry.class);
+        for (int i = 0; i <= CompiledRowMapper.MAX_LAYOUTS; i++) {
+            bean = jt.query("select c, user_name, " + i + " as x" + i + " from t order by user_name", mapper);
+            assertEquals(Integer.valueOf(3), bean.get(0).getC());
+            assertEquals("b", bean.get(1).getUserName());
+        }
+    }
+
+
+    public static class Entry {
+
+        private String userName;
+        private LocalDateTime requestDate;
+        private Integer c;
+
+        public Entry() {
+        }
+
+        public Entry(String userName, LocalDateTime requestDate, Integer c) {
+            this.userName = userName;
+            this.requestDate = requestDate;
+            this.c = c;
+        }
+
+        public Entry(String userName, int c) {
+            this.userName = userName;
+            this.c = c;
+        }
+
+        public String getUserName() {
+            return userName;
+        }
+
+        public void setUserName(String userName) {
+            this.userName = userName;
+        }
+
+        public LocalDateTime getRequestDate() {
+            return requestDate;
+        }
+
+        public void setRequestDate(LocalDateTime requestDate) {
+            this.requestDate = requestDate;
+        }
+
+        public Integer getC() {
+            return c;
+        }
+
+        public void setC(Integer c) {
+            this.c = c;
+        }
+
+    }
+
+    /**
+     * Test of bulkInsert and loadCsv methods, of class JdbcHelper.
+     */
+    @Test
+    public void testBulkInsert() throws IOException {
+        System.out.println("bulkInsert");
+        JdbcTemplate jt = new JdbcTemplate(new SingleConnectionDataSource("jdbc:h2:mem:", true));
+        jt.execute("create table t (a int primary key, b varchar(20))");
+        ColumnBinder<Integer> binder = (ps, i, n) -> {
+            ps.setInt(i, n);
+            ps.setString(i + 1, "row" + n);
+        };
+        assertEquals(5000, bulkInsert(jt, "t", new String[]{"a", "b"},
+                                      IntStream.range(0, 5000).boxed().iterator(), binder, true));
+        assertEquals(3000, bulkInsert(jt, "t", new String[]{"a", "b"},
+                                      IntStream.range(5000, 8000).boxed().iterator(), binder, false));
+        assertEquals(Integer.valueOf(8000), jt.queryForObject("select count(*) from t", Integer.class));
+        assertEquals("row7999", jt.queryForObject("select b from t where a = 7999", String.class));
+
+        Path csv = Files.createTempFile("bulk", ".csv");
+        try {
+            Files.write(csv, asList("A,B", "8000,x", "8001,y"), StandardCharsets.UTF_8);
+            assertEquals(2, loadCsv(jt, "t", csv));
+            Files.write(csv, asList("B,A", "z,8002"), StandardCharsets.UTF_8);
+            assertEquals(1, loadCsv(jt, "t", csv, "a", "b"));
+        } finally {
+            Files.delete(csv);
+        }
+        assertEquals("z", jt.queryForObject("select b from t where a = 8002", String.class));
+        assertEquals("y", jt.queryForObject("select b from t where a = 8001", String.class));
+    }
+
+    /**
+     * Test of setClob, setBlob, readClob, readBlob, clobMapper and blobMapper
+     * methods, of class JdbcHelper.
+     */
+    @Test
+    public void testLobs() throws Exception {
+        System.out.println("lobs");
+        JdbcTemplate jt = new JdbcTemplate(new SingleConnectionDataSource("jdbc:h2:mem:", true));
+        jt.execute("create table doc (id int primary key, body clob, data blob)");
+        byte[] data = new byte[100000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        jt.execute("insert into doc values (?, ?, ?)", (PreparedStatement ps) -> {
+            ps.setInt(1, 1);
+            Clob body = setClob(ps, 2, w -> {
+                for (int i = 0; i < 10000; i++) {
+                    w.write("line " + i + "\n");
+                }
+            });
+            Blob blob = setBlob(ps, 3, new ByteArrayInputStream(data));
+            try {
+                return ps.executeUpdate();
+            } finally {
+                body.free();
+                blob.free();
+            }
+        });
+        jt.execute("insert into doc values (?, ?, ?)", (PreparedStatement ps) -> {
+            ps.setInt(1, 2);
+            Clob body = setClob(ps, 2, new StringReader("short"));
+            ps.setNull(3, Types.BLOB);
+            try {
+                return ps.executeUpdate();
+            } finally {
+                body.free();
+            }
+        });
+
+        StringWriter body = new StringWriter();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        jt.query("select body, data from doc where id = 1", rs -> {
+            assertEquals(98890, readClob(rs, 1, body));
+            assertEquals(data.length, readBlob(rs, 2, bytes));
+        });
+        assertTrue(body.toString().startsWith("line 0\nline 1\n"));
+        assertTrue(body.toString().endsWith("line 9999\n"));
+        assertArrayEquals(data, bytes.toByteArray());
+        assertEquals(Long.valueOf(-1), jt.query("select data from doc where id = 2",
+                                                 rs -> rs.next() ? readBlob(rs, 1, bytes) : null));
+
+        List<Clob> clobs = jt.query("select body from doc order by id", clobMapper("body"));
+        assertEquals(98890, clobs.get(0).length());
+        assertEquals("line 9999\n", clobs.get(0).getSubString(98881, 10));
+        assertEquals("short", clobs.get(1).getSubString(1, 5));
+        Blob blob = jt.queryForObject("select data from doc where id = 1", blobMapper(1));
+        assertArrayEquals(new byte[]{0, 1, 2}, blob.getBytes(1, 3));
+        assertNull(jt.queryForObject("select data from doc where id = 2", blobMapper(1)));
+
+        jt.execute("insert into doc values (?, ?, ?)", (PreparedStatement ps) -> {
+            PreparedStatement unsupported = withoutLobs(ps);
+            ps.setInt(1, 3);
+            assertNull(setClob(unsupported, 2, w -> w.write("buffered")));
+            assertNull(setBlob(unsupported, 3, os -> os.write(data, 0, 3)));
+            return ps.executeUpdate();
+        });
+        jt.execute("insert into doc values (?, ?, ?)", (PreparedStatement ps) -> {
+            PreparedStatement unsupported = withoutLobs(ps);
+            ps.setInt(1, 4);
+            assertNull(setClob(unsupported, 2, new StringReader("streamed")));
+            assertNull(setBlob(unsupported, 3, new ByteArrayInputStream(data, 3, 2)));
+            return ps.executeUpdate();
+        });
+        assertEquals(asList("buffered", "streamed"),
+                     jt.query("select body from doc where id > 2 order by id", stringMapper(1)));
+        assertArrayEquals(new byte[]{0, 1, 2}, jt.queryForObject("select data from doc where id = 3", byte[].class));
+        assertArrayEquals(new byte[]{3, 4}, jt.queryForObject("select data from doc where id = 4", byte[].class));
+    }
+
+    /**
+     * Statement whose connection raises {@link SQLFeatureNotSupportedException}
+     * on creating a LOB, as the PostgreSQL driver does.
+     */
+    private static PreparedStatement withoutLobs(PreparedStatement ps) throws SQLException {
+        Connection con = ps.getConnection();
+        Connection proxy = (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(), new Class<?>[] {Connection.class}, (p, m, args) -> {
+            if (m.getName().equals("createClob") || m.getName().equals("createBlob")) {
+                throw new SQLFeatureNotSupportedException(m.getName());
+            }
+            return m.invoke(con, args);
+        });
+        return (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(), new Class<?>[] {PreparedStatement.class}, (p, m, args) -> {
+            if (m.getName().equals("getConnection")) {
+                return proxy;
+            }
+            return m.invoke(ps, args);
+        });
+    }
+
 }
@@ -0,0 +1,758 @@
+/*
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.jdbc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.SqlTypeValue;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.support.nativejdbc.SimpleNativeJdbcExtractor;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.Assert.*;
+
+
+/**
+ *
+ * @author Brett Ryan
+ */
+public class JdbcHolderTest {
+
+    private JdbcHolder holder;
+
+    @Before
+    public void setUp() {
+        holder = new JdbcHolder(new DriverManagerDataSource("jdbc:h2:mem:holder;DB_CLOSE_DELAY=-1"));
+        holder.executeVoid((t, s) -> {
+            t.execute("create table item (id int primary key, name varchar(20))");
+            for (int i = 1; i <= 100; i++) {
+                t.update("insert into item (id, name) values (?, ?)", i, "item" + i);
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        holder.getJdbcTemplate().execute("drop all objects");
+    }
+
+    /**
+     * Test of stream method, of class JdbcHolder.
+     */
+    @Test
+    public void testStream() {
+        System.out.println("stream");
+        try (Stream<String> s = holder.stream(7, "select name from item where id > ? order by id",
+                                              JdbcHelper.stringMapper(1), 90)) {
+            List<String> res = s.collect(Collectors.toList());
+            assertEquals(10, res.size());
+            assertEquals("item91", res.get(0));
+            assertEquals("item100", res.get(9));
+        }
+
+        try (Stream<Integer> s = holder.stream("select id from item order by id",
+                                               JdbcHelper.intMapper(1))) {
+            assertEquals(Integer.valueOf(1), s.findFirst().get());
+        }
+
+        int total = holder.executeReadOnly((t, st) -> {
+            try (Stream<Integer> s = holder.stream("select id from item", JdbcHelper.intMapper(1))) {
+                return s.mapToInt(Integer::intValue).sum();
+            }
+        });
+        assertEquals(5050, total);
+    }
+
+    /**
+     * Test of createBatchWriter method, of class JdbcHolder.
+     */
+    @Test
+    public void testBatchWriter() throws InterruptedException {
+        System.out.println("batchWriter");
+        List<CompletableFuture<Integer>> res = new ArrayList<>();
+        CompletableFuture<Integer> dup;
+        try (BatchWriter w = holder.createBatchWriter(50, Duration.ofMillis(20))) {
+            for (int i = 101; i <= 300; i++) {
+                res.add(w.submit("insert into item (id, name) values (?, ?)", i, "item" + i));
+            }
+            dup = w.submit("insert into item (id, name) values (?, ?)", 1, "dup");
+            res.add(w.submit("update item set name = ? where id > ?", "updated", 295));
+        }
+        for (CompletableFuture<Integer> f : res) {
+            assertTrue(f.isDone());
+            assertFalse(f.isCompletedExceptionally());
+        }
+        assertEquals(Integer.valueOf(5), res.get(res.size() - 1).join());
+        assertTrue(dup.isCompletedExceptionally());
+        try {
+            dup.get();
+            fail("Expected duplicate key failure");
+        } catch (ExecutionException ex) {
+            System.out.println(ex.getCause().getClass().getName());
+        }
+        assertEquals(Integer.valueOf(300),
+                     holder.getJdbcTemplate().queryForObject("select count(*) from item", Integer.class));
+
+        SqlTypeValue failing = (ps, idx, type, name) -> {
+            throw new AssertionError("bind failed");
+        };
+        try (BatchWriter w = holder.createBatchWriter(50, Duration.ofMillis(20))) {
+            CompletableFuture<Integer> before = w.submit("update item set name = ? where id = ?", "before", 101);
+            CompletableFuture<Integer> bad = w.submit("update item set name = ? where id = ?", failing, 102);
+            CompletableFuture<Integer> after = w.submit("update item set name = ? where id = ?", "after", 103);
+            assertEquals(Integer.valueOf(1), before.join());
+            assertEquals(Integer.valueOf(1), after.join());
+            try {
+                bad.join();
+                fail("Expected bind failure");
+            } catch (CompletionException ex) {
+                assertTrue(ex.getCause() instanceof AssertionError);
+            }
+            bad = w.submit("update item set name = ? where id = ?", failing, 102);
+            after = w.submit("update item set name = ? where id = ?", "later", 104);
+            assertTrue(bad.handle((n, ex) -> ex).join() instanceof AssertionError);
+            assertEquals(Integer.valueOf(1), after.join());
+        }
+    }
+
+    /**
+     * Test of class RoutingJdbcHolder.
+     */
+    @Test
+    public void testRouting() {
+        System.out.println("routing");
+        JdbcHolder replica = new JdbcHolder(new DriverManagerDataSource("jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1"));
+        JdbcHolder broken = new JdbcHolder(new DriverManagerDataSource("jdbc:none:replica"));
+        replica.executeVoid((t, s) -> t.execute("create table item (id int primary key, name varchar(20))"));
+        try {
+            RoutingJdbcHolder r = new RoutingJdbcHolder(holder, Arrays.asList(broken, replica));
+            String sql = "select count(*) from item";
+
+            assertEquals(Integer.valueOf(0), r.executeReadOnly((t, s) -> t.queryForObject(sql, Integer.class)));
+            assertEquals(1, r.getHealthyReplicaCount());
+            assertEquals(Integer.valueOf(0), r.executeReadOnly((t, s) -> t.queryForObject(sql, Integer.class)));
+
+            r.executeVoid((t, s) -> t.update("insert into item (id, name) values (?, ?)", 101, "item101"));
+            assertEquals(Integer.valueOf(101), r.executeReadOnly((t, s) -> t.queryForObject(sql, Integer.class)));
+            r.setReadYourWritesWindow(Duration.ZERO);
+            assertEquals(Integer.valueOf(0), r.executeReadOnly((t, s) -> t.queryForObject(sql, Integer.class)));
+
+            assertEquals(Integer.valueOf(101), r.execute((t, s) -> r.executeReadOnly((t2, s2)
+                    -> t2.queryForObject(sql, Integer.class))));
+
+            assertSame(holder.getDataSourceTransactionManager(), r.getDataSourceTransactionManager());
+            assertTrue(replica.getStats().getStartedCount() > 0);
+            assertEquals(holder.getStats().getStartedCount() +
+                         broken.getStats().getStartedCount() +
+                         replica.getStats().getStartedCount(),
+                         r.getStats().getStartedCount());
+
+            r.setBalance(RoutingJdbcHolder.Balance.LEAST_IN_FLIGHT);
+            try (Stream<Integer> st = r.stream(sql, JdbcHelper.intMapper(1))) {
+                assertEquals(Arrays.asList(0), st.collect(Collectors.toList()));
+                // The replica connection is held until the stream is closed.
+                assertArrayEquals(new int[] {0, 1}, r.getInFlightCounts());
+            }
+            assertArrayEquals(new int[] {0, 0}, r.getInFlightCounts());
+
+            RoutingJdbcHolder dropping = new RoutingJdbcHolder(holder, Collections.singletonList(replica));
+            AtomicInteger calls = new AtomicInteger();
+            try {
+                dropping.executeReadOnly((t, s) -> {
+                    calls.incrementAndGet();
+                    throw new DataAccessResourceFailureException("Connection dropped");
+                });
+                fail("Expected failure part way through the callback");
+            } catch (DataAccessResourceFailureException ex) {
+            }
+            assertEquals(1, calls.get());
+            assertEquals(0, dropping.getHealthyReplicaCount());
+        } finally {
+            replica.getJdbcTemplate().execute("drop all objects");
+        }
+    }
+
+    /**
+     * Test that every public method of JdbcHolder is overridden by
+     * RoutingJdbcHolder, so that none bypass routing.
+     */
+    @Test
+    public void testRoutingOverrides() {
+        System.out.println("routingOverrides");
+        for (Method m : JdbcHolder.class.getDeclaredMethods()) {
+            if (Modifier.isPublic(m.getModifiers()) && !Modifier.isStatic(m.getModifiers()) && !m.isSynthetic()) {
+                try {
+                    RoutingJdbcHolder.class.getDeclaredMethod(m.getName(), m.getParameterTypes());
+                } catch (NoSuchMethodException ex) {
+                    fail("RoutingJdbcHolder does not route " + m);
+                }
+            }
+        }
+    }
+
+    /**
+     * Test of getStats method, of class JdbcManager.
+     */
+    @Test
+    public void testStats() {
+        System.out.println("stats");
+        JdbcManager mgr = new JdbcManager();
+        mgr.setHolders(Collections.singletonMap(" main ", holder));
+        assertSame(holder, mgr.get("Main"));
+        JdbcHolderStats before = mgr.getStats().get("MAIN");
+
+        holder.executeVoid((t, s) -> t.update("update item set name = 'x' where id = 1"));
+        holder.executeVoid((t, s) -> holder.executeReadOnlyVoid((t2, s2) -> t2.queryForList("select * from item")));
+        holder.executeVoid((t, s) -> s.setRollbackOnly());
+        try {
+            holder.execute((t, s) -> t.update("insert into item (id, name) values (1, 'dup')"));
+            fail("Expected duplicate key failure");
+        } catch (DuplicateKeyException ex) {
+            // Expected.
+        }
+
+        JdbcHolderStats stats = mgr.getStats().get("MAIN");
+        System.out.println(stats);
+        assertEquals(4, stats.getStartedCount() - before.getStartedCount());
+        assertEquals(2, stats.getCommittedCount() - before.getCommittedCount());
+        assertEquals(2, stats.getRolledBackCount() - before.getRolledBackCount());
+        assertEquals(0, stats.getActiveCount());
+        assertEquals(5, stats.getCallbackLatency().getCount() - before.getCallbackLatency().getCount());
+
+        LatencyHistogram h = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            h.record(i * 1000L);
+        }
+        LatencyHistogram.Snapshot snap = h.snapshot();
+        assertEquals(1000, snap.getCount());
+        assertEquals(1_000_000, snap.getMax());
+        assertEquals(500_500, snap.getMean());
+        assertEquals(500_000, snap.getValueAtPercentile(50), 500_000 / 8);
+        assertEquals(990_000, snap.getValueAtPercentile(99), 990_000 / 8);
+        assertEquals(1_000_000, snap.getValueAtPercentile(100));
+    }
+
+    /**
+     * Test of execute method with definitions, of class JdbcHolder.
+     */
+    @Test
+    public void testDefinitions() {
+        System.out.println("definitions");
+        DefaultTransactionDefinition def = new DefaultTransactionDefinition();
+        def.setIsolationLevel(TransactionDefinition.ISOLATION_SERIALIZABLE);
+        def.setReadOnly(true);
+        holder.registerTransactionDefinition("reporting", def);
+
+        String sql = "select count(*) from item";
+        TransactionTemplate tt = holder.template(def);
+        for (int i = 0; i < 3; i++) {
+            DefaultTransactionDefinition d = new DefaultTransactionDefinition(def);
+            assertEquals(Integer.valueOf(100), holder.execute(d, (t, s) -> t.queryForObject(sql, Integer.class)));
+            assertSame(tt, holder.template(d));
+        }
+        DefaultTransactionDefinition other = new DefaultTransactionDefinition(def);
+        other.setReadOnly(false);
+        assertNotSame(tt, holder.template(other));
+        assertEquals(Integer.valueOf(100), holder.executeNamed("reporting", (t, s) -> t.queryForObject(sql, Integer.class)));
+        try {
+            holder.executeNamed("unknown", (t, s) -> null);
+            fail("Expected unknown definition failure");
+        } catch (IllegalArgumentException ex) {
+            // Expected.
+        }
+    }
+
+    /**
+     * Test of executeReadOnlyCached method, of class JdbcHolder.
+     */
+    @Test
+    public void testResultCache() {
+        System.out.println("resultCache");
+        assertEquals(new HashSet<>(Arrays.asList("item", "customer", "orders")),
+                     ResultCache.readTables("select * from app.item i, \"Customer\" as c"
+                                            + " left join orders o on o.id = i.id"
+                                            + " where i.id in (select id from item)"));
+        assertEquals(Collections.singleton("item"),
+                     ResultCache.writeTables("update APP.ITEM set name = ? where id = ?"));
+        assertEquals(Collections.singleton("item"),
+                     ResultCache.writeTables("insert into item (id, name) values (?, ?)"));
+        assertEquals(Collections.singleton("item"), ResultCache.writeTables("delete item where id = 1"));
+        assertTrue(ResultCache.writeTables("select * from item").isEmpty());
+        assertNull(ResultCache.writeTables("call refresh_items()"));
+        assertTrue(ResultCache.writeTables("with a as (select id from item) select * from a").isEmpty());
+        assertNull(ResultCache.writeTables("with a as (select id from item where id < 5)"
+                                           + " delete from item where id in (select id from a)"));
+        assertNull(ResultCache.writeTables("with d as (delete from item where id = 1 returning id) select * from d"));
+
+        ResultCache rc = new ResultCache(2, Duration.ofMinutes(1));
+        holder.setResultCache(rc);
+        RowMapper<String> mapper = JdbcHelper.stringMapper(1);
+        String sql = "select name from item where id = ?";
+
+        assertEquals("item1", holder.executeReadOnlyCached(sql, mapper, 1).get(0));
+        assertEquals("item1", holder.executeReadOnlyCached(sql, mapper, 1).get(0));
+        assertEquals(1, rc.getHitCount());
+        assertEquals(1, rc.getMissCount());
+
+        holder.executeVoid((t, s) -> t.update("update item set name = 'changed' where id = 1"));
+        assertEquals(0, rc.getSize());
+        assertEquals("changed", holder.executeReadOnlyCached(sql, mapper, 1).get(0));
+
+        holder.executeReadOnlyCached(sql, mapper, 2);
+        holder.executeReadOnlyCached(sql, mapper, 3);
+        assertEquals(2, rc.getSize());
+        holder.getJdbcTemplate().update("delete from item where id = 3");
+        assertEquals(0, rc.getSize());
+        assertTrue(holder.executeReadOnlyCached(sql, mapper, 3).isEmpty());
+
+        rc.invalidateAll();
+        long misses = rc.getMissCount();
+        rc.get(sql, mapper, new Object[] {1}, () -> Arrays.asList("a"));
+        rc.get(sql, mapper, new Object[] {2}, () -> Arrays.asList("b"));
+        rc.get(sql, mapper, new Object[] {1}, () -> Arrays.asList("a"));
+        rc.get(sql, mapper, new Object[] {1}, () -> Arrays.asList("a"));
+        rc.get(sql, mapper, new Object[] {3}, () -> Arrays.asList("c"));
+        assertEquals(2, rc.getSize());
+        assertEquals("a", rc.get(sql, mapper, new Object[] {1}, () -> Arrays.asList("reloaded")).get(0));
+        assertEquals(misses + 3, rc.getMissCount());
+
+        rc.get(sql, mapper, new Object[] {4}, () -> {
+            rc.invalidate("item");
+            return Arrays.asList("stale");
+        });
+        assertEquals(0, rc.getSize());
+    }
+
+    /**
+     * Test of setStatementMetrics method, of class JdbcManager.
+     */
+    @Test
+    public void testStatementMetrics() {
+        System.out.println("statementMetrics");
+        StatementMetrics sm = new StatementMetrics();
+        assertEquals("select * from t where a = ? and b in (?, ...) and c = ?",
+                     sm.normalise("select *\n  from t -- comment\n where a = 10 and b in (?, ?,?) and c = 'x'"));
+        assertEquals("[Integer, String, null, ArrayList(2), long[3]]",
+                     StatementMetrics.shape(new Object[] {1, "a", null, Arrays.asList(1, 2), new long[3]}));
+
+        JdbcManager mgr = new JdbcManager();
+        mgr.setStatementMetrics(sm);
+        mgr.setHolders(Collections.singletonMap("main", holder));
+        sm.setSlowThreshold(Duration.ZERO);
+        holder.executeReadOnly((t, s) -> t.queryForList("select name from item where id < ?", String.class, 11));
+        holder.executeReadOnly((t, s) -> t.queryForList("select name from item where id < ?", String.class, 21));
+        holder.executeVoid((t, s) -> t.update("update item set name = 'x' where id = 5"));
+        holder.executeVoid((t, s) -> t.update("update item set name = 'y' where id = 6"));
+        try {
+            holder.getJdbcTemplate().update("insert into item (id) values (1)");
+        } catch (DuplicateKeyException ex) {
+            // Expected.
+        }
+
+        List<StatementStats> snap = sm.getSnapshot();
+        snap.forEach(System.out::println);
+        assertEquals(3, snap.size());
+        StatementStats q = snap.stream()
+                .filter(st -> st.getSql().startsWith("select")).findFirst().get();
+        assertEquals(2, q.getCount());
+        assertEquals(30, q.getRowCount());
+        StatementStats u = snap.stream()
+                .filter(st -> st.getSql().startsWith("update")).findFirst().get();
+        assertEquals("update item set name = ? where id = ?", u.getSql());
+        assertEquals(2, u.getCount());
+        assertEquals(2, u.getRowCount());
+        StatementStats i = snap.stream()
+                .filter(st -> st.getSql().startsWith("insert")).findFirst().get();
+        assertEquals(1, i.getErrorCount());
+
+        JdbcTemplate jt = new JdbcTemplate(holder.getJdbcTemplate().getDataSource());
+        jt.setNativeJdbcExtractor(new SimpleNativeJdbcExtractor());
+        JdbcHolder observed = new JdbcHolder(jt);
+        observed.setStatementMetrics(new StatementMetrics());
+        assertNotSame(jt, observed.getJdbcTemplate());
+        assertSame(jt.getNativeJdbcExtractor(), observed.getJdbcTemplate().getNativeJdbcExtractor());
+    }
+
+    /**
+     * Test of executePartitioned method, of class JdbcHolder.
+     */
+    @Test
+    public void testPartitioned() throws Exception {
+        System.out.println("partitioned");
+        long sum = holder.executePartitioned(
+                "select coalesce(sum(id), 0) from item where name like ? and id >= ? and id < ?",
+                1, 101, 7,
+                rs -> rs.next() ? rs.getLong(1) : 0L,
+                Long::sum,
+                "item%");
+        assertEquals(5050, sum);
+
+        List<Integer> ids = holder.executePartitioned(
+                "select id from item where id >= ? and id < ? order by id",
+                0, 1000, 16, JdbcHelper.intMapper(1));
+        assertEquals(100, ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            assertEquals(Integer.valueOf(i + 1), ids.get(i));
+        }
+
+        assertEquals(Integer.valueOf(3), holder.executePartitioned(
+                "select count(*) from item where id >= ? and id < ?",
+                5, 8, 10, rs -> rs.next() ? rs.getInt(1) : 0, Integer::sum));
+
+        holder.setAsyncConcurrency(3);
+        assertEquals(3, peakPartitions(holder));
+
+        // Partitions share the limit with asynchronous executions.
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Boolean> held = holder.executeReadOnlyAsync((t, s) -> {
+            try {
+                return release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        try {
+            assertEquals(2, peakPartitions(holder));
+        } finally {
+            release.countDown();
+        }
+        assertTrue(held.get(5, TimeUnit.SECONDS));
+
+        try {
+            holder.executeReadOnlyAsync((t, s) -> peakPartitions(holder)).get(5, TimeUnit.SECONDS);
+            fail("Expected partitions within an asynchronous execution to be rejected");
+        } catch (ExecutionException ex) {
+            assertTrue(ex.getCause() instanceof InvalidDataAccessApiUsageException);
+        }
+    }
+
+    /**
+     * Execute eight slow partitions returning the most executed at once.
+     */
+    private static int peakPartitions(JdbcHolder h) {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        h.executePartitioned("select count(*) from item where id >= ? and id < ?", 0, 100, 8, rs -> {
+            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException ex) {
+                throw new IllegalStateException(ex);
+            } finally {
+                running.decrementAndGet();
+            }
+            return 0;
+        }, Integer::sum);
+        return peak.get();
+    }
+
+    /**
+     * Test of executeAsync method, of class JdbcHolder.
+     */
+    @Test
+    public void testAsync() throws Exception {
+        System.out.println("async");
+        holder.setAsyncConcurrency(2);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        CountDownLatch go = new CountDownLatch(1);
+        List<CompletableFuture<Integer>> res = new ArrayList<>();
+        for (int i = 1; i <= 8; i++) {
+            int id = i;
+            res.add(holder.executeReadOnlyAsync((t, s) -> {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    go.await(5, TimeUnit.SECONDS);
+                    return t.queryForObject("select id from item where id = ?", Integer.class, id);
+                } catch (InterruptedException ex) {
+                    throw new IllegalStateException(ex);
+                } finally {
+                    running.decrementAndGet();
+                }
+            }));
+        }
+        Thread.sleep(100);
+        go.countDown();
+        for (int i = 0; i < res.size(); i++) {
+            assertEquals(Integer.valueOf(i + 1), res.get(i).get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(2, peak.get());
+
+        CompletableFuture<Integer> f = holder.executeAsync((t, s)
+                -> t.update("insert into item (id, name) values (1, 'dup')"));
+        try {
+            f.get(5, TimeUnit.SECONDS);
+            fail("Expected duplicate key failure");
+        } catch (ExecutionException ex) {
+            assertTrue(ex.getCause() instanceof DuplicateKeyException);
+        }
+
+        Thread caller = Thread.currentThread();
+        AtomicInteger inline = new AtomicInteger();
+        holder.setAsyncExecutor(r -> {
+            throw new RejectedExecutionException("full");
+        });
+        f = holder.executeReadOnlyAsync((t, s) -> Thread.currentThread() == caller ? inline.incrementAndGet() : 0);
+        try {
+            f.get(5, TimeUnit.SECONDS);
+            fail("Expected rejection");
+        } catch (ExecutionException ex) {
+            assertTrue(ex.getCause() instanceof RejectedExecutionException);
+        }
+        assertEquals(0, inline.get());
+
+        PooledDataSource pds = new PooledDataSource(new DriverManagerDataSource("jdbc:h2:mem:holder"), 3);
+        try {
+            assertEquals(3, peakPartitions(new JdbcHolder(pds)));
+        } finally {
+            pds.close();
+        }
+    }
+
+    /**
+     * Test of execute method with a timeout, of class JdbcHolder.
+     */
+    @Test
+    public void testDeadline() throws Exception {
+        System.out.println("deadline");
+        assertEquals(Integer.valueOf(100), holder.executeReadOnly(Duration.ofSeconds(5), (t, s)
+                -> t.queryForObject("select count(*) from item", Integer.class)));
+
+        long start = System.nanoTime();
+        try {
+            holder.executeReadOnly(Duration.ofMillis(200), (t, s)
+                    -> t.queryForObject("select count(*) from system_range(1, 20000) a, system_range(1, 20000) b",
+                                        Long.class));
+            fail("Expected deadline to be exceeded");
+        } catch (DeadlineExceededException ex) {
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+        }
+
+        try {
+            holder.execute(Duration.ofMillis(50), (t, s) -> {
+                t.update("update item set name = 'changed' where id = 1");
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException ex) {
+                    throw new IllegalStateException(ex);
+                }
+                return t.update("update item set name = 'changed' where id = 2");
+            });
+            fail("Expected deadline to be exceeded");
+        } catch (DeadlineExceededException ex) {
+        }
+        assertEquals(Integer.valueOf(0), holder.executeReadOnly((t, s)
+                -> t.queryForObject("select count(*) from item where name = 'changed'", Integer.class)));
+
+        try {
+            holder.execute(Duration.ZERO, (t, s) -> t.update("delete from item"));
+            fail("Expected deadline to be exceeded");
+        } catch (DeadlineExceededException ex) {
+        }
+        assertEquals(Integer.valueOf(100), holder.execute((t, s)
+                -> t.queryForObject("select count(*) from item", Integer.class)));
+
+        // Deadlines of distinct lengths must not fill the template cache.
+        for (int i = 1; i <= 70; i++) {
+            holder.executeReadOnly(Duration.ofSeconds(i), (t, s) -> t.queryForObject("select 1", Integer.class));
+        }
+        DefaultTransactionDefinition def = new DefaultTransactionDefinition();
+        def.setTimeout(12345);
+        assertSame(holder.template(def), holder.template(new DefaultTransactionDefinition(def)));
+    }
+
+    /**
+     * Test of page method, of class KeysetPager.
+     */
+    @Test
+    public void testKeysetPager() {
+        System.out.println("keysetPager");
+        holder.executeVoid((t, s) -> t.update("update item set name = 'even' where mod(id, 2) = 0"));
+        KeysetPager<Integer> pager = new KeysetPager<>("select id, name from item where id > ?",
+                                                       JdbcHelper.intMapper("id"), "name desc", "id");
+        List<Integer> expected = holder.executeReadOnly((t, s)
+                -> t.query("select id from item where id > 10 order by name desc, id", JdbcHelper.intMapper(1)));
+        List<Integer> found = new ArrayList<>();
+        String token = null;
+        int pages = 0;
+        do {
+            String next = token;
+            KeysetPage<Integer> page = holder.executeReadOnly((t, s) -> pager.page(t, 7, next, 10));
+            found.addAll(page.getItems());
+            token = page.getNextToken();
+            pages++;
+        } while (token != null);
+        assertEquals(expected, found);
+        assertEquals(13, pages);
+
+        holder.getJdbcTemplate().execute("create index item_name on item (name, id)");
+        List<String> plans = new ArrayList<>();
+        JdbcTemplate explaining = new JdbcTemplate(holder.getJdbcTemplate().getDataSource()) {
+            @Override
+            public <R> R query(String sql, Object[] args, ResultSetExtractor<R> rse) {
+                plans.add(super.query("explain " + sql, args, rs -> rs.next() ? rs.getString(1) : null));
+                return super.query(sql, args, rse);
+            }
+        };
+        KeysetPage<Integer> first = pager.page(explaining, 7, null, 10);
+        assertEquals(expected.subList(7, 14), pager.page(explaining, 7, first.getNextToken(), 10).getItems());
+        System.out.println(plans.get(1));
+        assertTrue(plans.get(1).matches("(?s).*ITEM_NAME: [^+]*NAME <= \\?\\d+.*"));
+
+        KeysetPager<Integer> other = new KeysetPager<>("select id from item", JdbcHelper.intMapper(1), "id");
+        String t1 = holder.executeReadOnly((t, s) -> other.page(t, 5, null)).getNextToken();
+        assertEquals(Arrays.asList(6, 7), holder.executeReadOnly((t, s) -> other.page(t, 2, t1).getItems()));
+        try {
+            holder.executeReadOnly((t, s) -> pager.page(t, 5, t1, 10));
+            fail("Expected token of another query to be rejected");
+        } catch (IllegalArgumentException ex) {
+        }
+        try {
+            holder.executeReadOnly((t, s) -> other.page(t, 5, "not-a-token"));
+            fail("Expected invalid token to be rejected");
+        } catch (IllegalArgumentException ex) {
+        }
+    }
+
+    /**
+     * Test of writeJson method, of class JdbcHolder.
+     */
+    @Test
+    public void testWriteJson() throws Exception {
+        System.out.println("writeJson");
+        ObjectMapper om = new ObjectMapper();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(100, holder.writeJson(out, "select id, name, null as note from item order by id"));
+        JsonNode rows = om.readTree(out.toByteArray());
+        assertEquals(100, rows.size());
+        assertEquals(7, rows.get(6).get("ID").asInt());
+        assertEquals("item7", rows.get(6).get("NAME").asText());
+        assertTrue(rows.get(6).get("NOTE").isNull());
+
+        out.reset();
+        assertEquals(2, holder.writeJson(out, om, "select id, name from item where id <= ? order by id",
+                                         JdbcHelper.stringMapper("name"), 2));
+        assertEquals("[\"item1\",\"item2\"]", out.toString("UTF-8"));
+
+        out.reset();
+        try {
+            holder.writeJson(out, om, "select id from item order by id", (rs, i) -> {
+                if (i == 3) {
+                    throw new IllegalStateException("failed mid-stream");
+                }
+                return rs.getInt(1);
+            });
+            fail("Expected failure to propagate");
+        } catch (IllegalStateException ex) {
+        }
+        assertEquals("[1,2,3", out.toString("UTF-8"));
+        try {
+            om.readTree(out.toByteArray());
+            fail("Expected truncated output to be invalid JSON");
+        } catch (IOException ex) {
+        }
+    }
+
+    /**
+     * Test of query method, of class SnapshotCache.
+     */
+    @Test
+    public void testSnapshotCache() throws Exception {
+        System.out.println("snapshotCache");
+        Path dir = Files.createTempDirectory("snapshots");
+        try {
+            String sql = "select id, name, cast(id as bigint) * 10 big, id / 4.0 ratio," +
+                         " case when mod(id, 2) = 0 then timestamp '2016-01-02 03:04:05' end ts" +
+                         " from item order by id";
+            SnapshotCache cache = new SnapshotCache(dir);
+            Snapshot s = cache.query(holder, "items", "1", sql);
+            assertEquals(100, s.getRowCount());
+            assertEquals(5, s.getColumnCount());
+            assertEquals(7, s.getInt(6, s.findColumn("id")));
+            assertEquals("item7", s.getString(6, 1));
+            assertEquals(70L, s.getLong(6, 2));
+            assertEquals(1.75d, s.getDouble(6, 3), 0d);
+            assertEquals(0, new BigDecimal("1.75").compareTo(s.getBigDecimal(6, 3)));
+            assertTrue(s.isNull(6, 4));
+            assertNull(s.getTimestamp(6, 4));
+            assertEquals(Timestamp.valueOf("2016-01-02 03:04:05"), s.getTimestamp(7, 4));
+
+            holder.executeVoid((t, st) -> t.update("update item set name = 'changed'"));
+            assertSame(s, cache.query(holder, "items", "1", sql));
+
+            Snapshot reopened = new SnapshotCache(dir).query(holder, "items", "1", sql);
+            assertNotSame(s, reopened);
+            assertEquals("item7", reopened.getString(6, 1));
+
+            assertEquals("changed", cache.query(holder, "items", "2", sql).getString(6, 1));
+
+            holder.executeVoid((t, st) -> t.update("delete from item where id > 50"));
+            assertEquals(100, cache.query(holder, "items", "2", sql).getRowCount());
+            cache.setTtl(Duration.ZERO);
+            Snapshot expired = cache.query(holder, "items", "3", sql);
+            assertEquals(50, expired.getRowCount());
+            assertNotSame(expired, cache.query(holder, "items", "3", sql));
+
+            cache.invalidateAll();
+            try (Stream<Path> files = Files.list(dir)) {
+                assertEquals(0, files.count());
+            }
+        } finally {
+            try (Stream<Path> files = Files.list(dir)) {
+                for (Path f : (Iterable<Path>) files::iterator) {
+                    Files.delete(f);
+                }
+            }
+            Files.delete(dir);
+        }
+    }
+
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.jdbc;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.*;
+
+
+/**
+ *
+ * @author Brett Ryan
+ */
+public class NamedQueryTest {
+
+    /**
+     * Test of parsing, of class NamedQuery.
+     */
+    @Test
+    public void testParse() {
+        System.out.println("parse");
+        NamedQuery q = new NamedQuery("select * from t where a = :a and b = ':b' -- :c\n" +
+                                      " and d = :d /* :e */ and e = \":f\" and f = :a and g = x::int");
+        assertEquals(asList("a", "d", "a"), q.getParameterNames());
+        assertEquals(3, q.getArgCount());
+        assertEquals("select * from t where a = ? and b = ':b' -- :c\n" +
+                     " and d = ? /* :e */ and e = \":f\" and f = ? and g = x::int", q.getJdbcSql());
+    }
+
+    /**
+     * Test of parsing SQL with traditional placeholders, of class NamedQuery.
+     */
+    @Test
+    public void testPlaceholders() {
+        System.out.println("placeholders");
+        for (String sql : asList("select * from t where a = :a and b = ?",
+                                 "select * from t where a = ?")) {
+            try {
+                new NamedQuery(sql);
+                fail("Expected placeholders to be rejected: " + sql);
+            } catch (InvalidDataAccessApiUsageException ex) {
+                System.out.println(ex.getMessage());
+            }
+        }
+        assertEquals(0, new NamedQuery("select * from t where a = '?' -- ?").getArgCount());
+    }
+
+    /**
+     * Test of creator method, of class NamedQuery.
+     */
+    @Test
+    public void testCreator() {
+        System.out.println("creator");
+        JdbcTemplate jt = new JdbcTemplate(new SingleConnectionDataSource("jdbc:h2:mem:", true));
+        jt.execute("create table t (a int, b int)");
+        jt.update("insert into t values (1, 1), (1, 2), (2, 2), (3, 3)");
+
+        NamedQuery q = new NamedQuery("select count(*) from t where a = :v or b = :v");
+        Map<String, Object> params = new HashMap<>();
+        params.put("v", 2);
+        assertEquals(Integer.valueOf(2), jt.query(q.creator(params), JdbcHelper.singletonExtractor(JdbcHelper.intMapper(1))));
+
+        q = new NamedQuery("select a from t where a in (:ids) and b > :min order by a");
+        params.put("ids", asList(1, 3));
+        params.put("min", 1);
+        List<Integer> res = jt.query(q.creator(params), JdbcHelper.intMapper(1));
+        assertEquals(asList(1, 3), res);
+
+        params.remove("min");
+        try {
+            q.creator(params);
+            fail("Expected missing parameter to be rejected.");
+        } catch (InvalidDataAccessApiUsageException ex) {
+            assertTrue(ex.getMessage().contains("'min'"));
+        }
+    }
+
+    /**
+     * Test of get methods, of class NamedQueryCache.
+     */
+    @Test
+    public void testCache() {
+        System.out.println("cache");
+        NamedQueryCache nqc = new NamedQueryCache();
+        NamedQuery a = nqc.get("select * from t where a = :a");
+        assertSame(a, nqc.get("select * from t where a = :a"));
+        assertNotSame(a, nqc.get("select * from t where a = :b"));
+
+        NamedQuery r = nqc.get(NamedQueryTest.class, "test1.sql");
+        assertSame(r, nqc.get(JdbcHelperTest.class, "/com/drunkendev/jdbc/test1.sql"));
+        assertEquals(nqc.getQueryCache().get(NamedQueryTest.class, "test1.sql"), r.getSql());
+    }
+
+}
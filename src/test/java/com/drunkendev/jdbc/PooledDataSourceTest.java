@@ -0,0 +1,150 @@
+/*
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.jdbc;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import static org.junit.Assert.*;
+
+
+/**
+ *
+ * @author Brett Ryan
+ */
+public class PooledDataSourceTest {
+
+    private PooledDataSource ds;
+
+    @Before
+    public void setUp() {
+        ds = new PooledDataSource(new DriverManagerDataSource("jdbc:h2:mem:pool;DB_CLOSE_DELAY=-1"), 2);
+    }
+
+    @After
+    public void tearDown() {
+        ds.close();
+    }
+
+    /**
+     * Test of getConnection method, of class PooledDataSource.
+     */
+    @Test
+    public void testGetConnection() throws Exception {
+        System.out.println("getConnection");
+        ds.setMaxWait(Duration.ofMillis(100));
+        Connection a = ds.getConnection();
+        a.setAutoCommit(false);
+        Connection physical = a.unwrap(Connection.class);
+        a.close();
+        assertTrue(a.isClosed());
+        try {
+            a.createStatement();
+            fail("Expected closed connection");
+        } catch (SQLException ex) {
+        }
+
+        Connection b = ds.getConnection();
+        assertSame(physical, b.unwrap(Connection.class));
+        assertTrue(b.getAutoCommit());
+        Connection c = ds.getConnection();
+        assertEquals(2, ds.getStats().getActiveCount());
+        try {
+            ds.getConnection();
+            fail("Expected pool to be exhausted");
+        } catch (SQLTransientConnectionException ex) {
+        }
+        b.close();
+        c.close();
+
+        PoolStats stats = ds.getStats();
+        System.out.println(stats);
+        assertEquals(0, stats.getActiveCount());
+        assertEquals(2, stats.getIdleCount());
+        assertEquals(3, stats.getBorrowCount());
+        assertEquals(1, stats.getTimeoutCount());
+        assertEquals(4, stats.getWaitLatency().getCount());
+
+        ds.setMaxLifetime(Duration.ZERO);
+        Connection d = ds.getConnection();
+        Connection expired = d.unwrap(Connection.class);
+        assertNotSame(physical, expired);
+        assertTrue(physical.isClosed());
+        d.close();
+        assertTrue(expired.isClosed());
+
+        ds.setMaxLifetime(Duration.ofMinutes(30));
+        for (int i = 0; i < 20; i++) {
+            Connection e = ds.getConnection();
+            CountDownLatch go = new CountDownLatch(1);
+            List<Thread> closers = new ArrayList<>();
+            for (int j = 0; j < 4; j++) {
+                Thread t = new Thread(() -> {
+                    try {
+                        go.await();
+                        e.close();
+                    } catch (InterruptedException | SQLException ex) {
+                        throw new IllegalStateException(ex);
+                    }
+                });
+                t.start();
+                closers.add(t);
+            }
+            go.countDown();
+            for (Thread t : closers) {
+                t.join();
+            }
+        }
+        assertEquals(1, ds.getStats().getIdleCount());
+        Connection f = ds.getConnection();
+        Connection g = ds.getConnection();
+        try {
+            ds.getConnection();
+            fail("Expected a double release not to add a connection");
+        } catch (SQLTransientConnectionException ex) {
+        }
+        f.close();
+        g.close();
+    }
+
+    /**
+     * Test of setLeakThreshold method, of class PooledDataSource.
+     */
+    @Test
+    public void testLeakDetection() throws Exception {
+        System.out.println("leakDetection");
+        ds.setLeakThreshold(Duration.ofMillis(50));
+        try (Connection con = ds.getConnection()) {
+            assertFalse(con.isClosed());
+            long end = System.currentTimeMillis() + 5000;
+            while (ds.getStats().getLeakCount() == 0 && System.currentTimeMillis() < end) {
+                Thread.sleep(50);
+            }
+        }
+        assertEquals(1, ds.getStats().getLeakCount());
+    }
+
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.jdbc;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.*;
+
+
+/**
+ *
+ * @author Brett Ryan
+ */
+public class QueryCacheTest {
+
+    /**
+     * Test of get method, of class QueryCache.
+     */
+    @Test
+    public void testGet() {
+        System.out.println("get");
+        QueryCache qc = new QueryCache();
+        String a = qc.get(QueryCacheTest.class, "test1.sql");
+        String b = qc.get(JdbcHelperTest.class, "test1.sql");
+        String c = qc.get(QueryCacheTest.class, "/com/drunkendev/jdbc/test1.sql");
+        assertSame(a, b);
+        assertSame(a, c);
+        assertEquals(qc.getNoCache(QueryCacheTest.class, "test1.sql"), a);
+
+        QueryCacheStats stats = qc.getStats();
+        System.out.println(stats);
+        assertEquals(1, stats.getSize());
+        assertEquals(1, stats.getMissCount());
+        assertEquals(2, stats.getHitCount());
+        assertEquals(1, stats.getLoadCount());
+    }
+
+    /**
+     * Test of preload method, of class QueryCache.
+     */
+    @Test
+    public void testPreload() {
+        System.out.println("preload");
+        QueryCache qc = new QueryCache();
+        assertEquals(1, qc.preload(QueryCacheTest.class));
+        assertEquals(0, qc.preload(QueryCacheTest.class));
+        qc.get(QueryCacheTest.class, "test1.sql");
+
+        QueryCacheStats stats = qc.getStats();
+        assertEquals(1, stats.getSize());
+        assertEquals(0, stats.getMissCount());
+        assertEquals(1, stats.getHitCount());
+    }
+
+    /**
+     * Test of setCompact method, of class QueryCache.
+     */
+    @Test
+    public void testCompact() {
+        System.out.println("compact");
+        QueryCache qc = new QueryCache();
+        qc.setCompact(true);
+        String a = qc.get(QueryCacheTest.class, "test1.sql");
+        assertEquals(qc.getNoCache(QueryCacheTest.class, "test1.sql"), a);
+        assertEquals(a, qc.get(QueryCacheTest.class, "test1.sql"));
+
+        QueryCacheStats stats = qc.getStats();
+        System.out.println(stats);
+        CompactSql c = CompactSql.of(a);
+        assertEquals(c.stringSize() - c.size(), stats.getBytesSaved());
+    }
+
+    /**
+     * Test of compact storage when queries are reloaded, of class QueryCache.
+     */
+    @Test
+    public void testCompactReload() throws Exception {
+        System.out.println("compactReload");
+        QueryCache qc = new QueryCache();
+        qc.setCompact(true);
+        qc.get(QueryCacheTest.class, "test1.sql");
+        Path file = Files.createTempFile("query-cache", ".sql");
+        try {
+            Files.write(file, asList("select 2"), UTF_8);
+            qc.reload("com/drunkendev/jdbc/test1.sql", file);
+            CompactSql c = CompactSql.of(qc.get(QueryCacheTest.class, "test1.sql"));
+            assertEquals("select 2\n", c.get());
+            // The replaced text is no longer held.
+            assertEquals(c.stringSize() - c.size(), qc.getStats().getBytesSaved());
+
+            // Identical content is held once.
+            qc.reload("other/copy.sql", file);
+            assertEquals(2 * c.stringSize() - c.size(), qc.getStats().getBytesSaved());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Test of setWatching method, of class QueryCache.
+     */
+    @Test
+    public void testWatching() throws Exception {
+        System.out.println("watching");
+        Path root = Files.createTempDirectory("query-cache");
+        Path dir = Files.createDirectories(root.resolve("qcwatch"));
+        Path file = dir.resolve("watched.sql");
+        Files.write(file, asList("-- original", "select 1"), UTF_8);
+        ClassLoader tccl = Thread.currentThread().getContextClassLoader();
+        try (URLClassLoader cl = new URLClassLoader(new URL[]{root.toUri().toURL()}, null);
+             QueryCache qc = new QueryCache()) {
+            Thread.currentThread().setContextClassLoader(cl);
+            assertEquals(1, qc.preload("qcwatch"));
+            Thread.currentThread().setContextClassLoader(tccl);
+            NamedQueryCache nqc = new NamedQueryCache(qc);
+            assertEquals("select 1\n", qc.get(QueryCacheTest.class, "/qcwatch/watched.sql"));
+            NamedQuery before = nqc.get(QueryCacheTest.class, "/qcwatch/watched.sql");
+
+            // Watching is enabled after the resource was cached.
+            qc.setWatching(true);
+            Files.write(file, asList("select :changed"), UTF_8);
+            long deadline = System.currentTimeMillis() + 30000;
+            while (qc.getStats().getReloadCount() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            assertEquals(1, qc.getStats().getReloadCount());
+            assertEquals("select :changed\n", qc.get(QueryCacheTest.class, "/qcwatch/watched.sql"));
+            NamedQuery after = nqc.get(QueryCacheTest.class, "/qcwatch/watched.sql");
+            assertNotSame(before, after);
+            assertEquals(asList("changed"), after.getParameterNames());
+        } finally {
+            Thread.currentThread().setContextClassLoader(tccl);
+            Files.delete(file);
+            Files.delete(dir);
+            Files.delete(root);
+        }
+    }
+
+}
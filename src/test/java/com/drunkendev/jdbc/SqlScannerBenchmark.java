@@ -0,0 +1,116 @@
+/*
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.jdbc;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Compares the character at a time {@link BaselineSqlScanner} with
+ * {@link SqlScanner} for scripts of 1KB to 50MB built from the
+ * {@code test1.sql} fixture.
+ *
+ * Run with {@code mvn -Pbenchmark verify -DskipTests -Djmh.args="SqlScannerBenchmark -prof gc"}.
+ *
+ * @author Brett Ryan
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SqlScannerBenchmark {
+
+    @Param({"1024", "65536", "1048576", "52428800"})
+    public int size;
+
+    private byte[] content;
+    private Path file;
+
+    @Setup
+    public void setUp() throws IOException {
+        ByteArrayOutputStream fixture = new ByteArrayOutputStream();
+        try (InputStream is = SqlScannerBenchmark.class.getResourceAsStream("test1.sql")) {
+            byte[] b = new byte[4096];
+            int n;
+            while ((n = is.read(b)) != -1) {
+                fixture.write(b, 0, n);
+            }
+        }
+        byte[] src = fixture.toByteArray();
+        content = new byte[size];
+        for (int i = 0; i < size; i += src.length) {
+            System.arraycopy(src, 0, content, i, Math.min(src.length, size - i));
+        }
+        file = Files.createTempFile("sql-scanner-benchmark", ".sql");
+        Files.write(file, content);
+        if (!JdbcHelper.getSql(file).equals(JdbcHelper.getSql(new ByteArrayInputStream(content)))) {
+            throw new IllegalStateException("Path and stream results differ.");
+        }
+        if (!BaselineSqlScanner.getSql(new ByteArrayInputStream(content))
+                .equals(JdbcHelper.getSql(new ByteArrayInputStream(content)))) {
+            throw new IllegalStateException("Baseline and scanner results differ.");
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.delete(file);
+    }
+
+    @Benchmark
+    public String baselineStream() {
+        return BaselineSqlScanner.getSql(new ByteArrayInputStream(content));
+    }
+
+    @Benchmark
+    public String scannerStream() {
+        return JdbcHelper.getSql(new ByteArrayInputStream(content));
+    }
+
+    @Benchmark
+    public String baselinePath() throws IOException {
+        try (InputStream is = Files.newInputStream(file)) {
+            return BaselineSqlScanner.getSql(is);
+        }
+    }
+
+    @Benchmark
+    public String scannerPath() {
+        return JdbcHelper.getSql(file);
+    }
+
+}
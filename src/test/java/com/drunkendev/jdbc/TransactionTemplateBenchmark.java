@@ -0,0 +1,96 @@
+/*
+ * Copyright 2026 Drunken Dev.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.drunkendev.jdbc;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+
+/**
+ * Compares creating a {@link TransactionTemplate} for every execution, as
+ * {@link JdbcHolder#execute(TransactionDefinition, java.util.function.BiFunction)}
+ * did, with the template cached by definition attributes.
+ *
+ * The lookup alone and a complete empty transaction against an in memory H2
+ * database are measured.
+ *
+ * Run with {@code mvn -Pbenchmark verify -DskipTests -Djmh.args="TransactionTemplateBenchmark -prof gc"}.
+ *
+ * @author Brett Ryan
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TransactionTemplateBenchmark {
+
+    private SingleConnectionDataSource ds;
+    private JdbcHolder holder;
+    private TransactionDefinition def;
+
+    @Setup
+    public void setUp() {
+        ds = new SingleConnectionDataSource("jdbc:h2:mem:", true);
+        holder = new JdbcHolder(ds);
+        DefaultTransactionDefinition d = new DefaultTransactionDefinition();
+        d.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        d.setReadOnly(true);
+        def = d;
+    }
+
+    @TearDown
+    public void tearDown() {
+        ds.destroy();
+    }
+
+    @Benchmark
+    public TransactionTemplate newTemplate() {
+        return new TransactionTemplate(holder.getDataSourceTransactionManager(), def);
+    }
+
+    @Benchmark
+    public TransactionTemplate cachedTemplate() {
+        return holder.template(def);
+    }
+
+    @Benchmark
+    public Object newTemplateExecute() {
+        return new TransactionTemplate(holder.getDataSourceTransactionManager(), def).execute(ts -> ts);
+    }
+
+    @Benchmark
+    public Object cachedTemplateExecute() {
+        return holder.template(def).execute(ts -> ts);
+    }
+
+}